@@ -0,0 +1,123 @@
+package fr.mysoundbox;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import fr.mysoundbox.audio.AudioEngine;
+import fr.mysoundbox.audio.AudioSession;
+import fr.mysoundbox.audio.PcmDiskCache;
+import fr.mysoundbox.audio.Resampler;
+import fr.mysoundbox.audio.SampleStore;
+import fr.mysoundbox.tools.SampleRepository;
+import fr.mysoundbox.tools.SettingsTools;
+
+/**
+ * Application : porte les objets partagés par toutes les activités
+ * Le magasin des samples et le cache PCM sont uniques dans le processus : le budget mémoire est global et un même fichier n'est décodé qu'une fois
+ * La session audio (un seul moteur de lecture et un seul AudioTrack) est partagée par l'écran principal et le séquenceur
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class MySoundBoxApplication extends Application {
+
+    /**
+     * Attributs
+     */
+    private static final long SAMPLE_STORE_BUDGET = 64L * 1024 * 1024;
+    private SampleRepository sampleRepository;
+    private final SampleStore sampleStore = new SampleStore(SAMPLE_STORE_BUDGET);
+    private final Map<Resampler.Quality, PcmDiskCache> pcmDiskCaches = new EnumMap<>(Resampler.Quality.class);
+    private AudioSession audioSession;
+
+    /**
+     * Création de l'application
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        sampleRepository = new SampleRepository(this);
+        audioSession = new AudioSession(this, sampleStore);
+        // Qualité de ré-échantillonnage et durée du fondu choisies dans l'écran de gestion
+        audioSession.setResampleQuality(SettingsTools.getResampleQuality(this));
+        audioSession.setFadeOutMs(SettingsTools.getFadeOutMs(this));
+    }
+
+    /**
+     * Lors d'un manque de mémoire : l'application en arrière-plan libère le magasin des samples (rechargés depuis le cache disque au prochain déclenchement)
+     *
+     * @param level int
+     */
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            sampleStore.clear();
+        }
+    }
+
+    /**
+     * Indique si l'application est un build de débogage (écran de débogage et mesures accessibles)
+     *
+     * @param context Context
+     * @return boolean
+     */
+    public static boolean isDebuggable(Context context) {
+        return (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    /**
+     * Récupère le dépôt des samples de l'application
+     *
+     * @param context Context
+     * @return SampleRepository
+     */
+    public static SampleRepository getSampleRepository(Context context) {
+        return ((MySoundBoxApplication) context.getApplicationContext()).sampleRepository;
+    }
+
+    /**
+     * Récupère le magasin des samples décodés de l'application
+     *
+     * @param context Context
+     * @return SampleStore
+     */
+    public static SampleStore getSampleStore(Context context) {
+        return ((MySoundBoxApplication) context.getApplicationContext()).sampleStore;
+    }
+
+    /**
+     * Récupère la session audio de l'application (moteur de lecture, pool de MediaPlayer, threads audio)
+     *
+     * @param context Context
+     * @return AudioSession
+     */
+    public static AudioSession getAudioSession(Context context) {
+        return ((MySoundBoxApplication) context.getApplicationContext()).audioSession;
+    }
+
+    /**
+     * Récupère le cache disque des samples décodés pour une qualité de ré-échantillonnage (créé si besoin)
+     *
+     * @param context Context
+     * @param quality Resampler.Quality
+     * @return PcmDiskCache
+     */
+    public static PcmDiskCache getPcmDiskCache(Context context, Resampler.Quality quality) {
+        MySoundBoxApplication application = (MySoundBoxApplication) context.getApplicationContext();
+        synchronized (application.pcmDiskCaches) {
+            PcmDiskCache cache = application.pcmDiskCaches.get(quality);
+            if (cache == null) {
+                cache = new PcmDiskCache(application, AudioEngine.queryOutputSampleRate(application), quality);
+                application.pcmDiskCaches.put(quality, cache);
+            }
+            return cache;
+        }
+    }
+
+}
@@ -13,9 +13,12 @@ import android.view.View;
 import android.view.Window;
 import android.view.WindowManager;
 import android.widget.Button;
+import android.widget.CompoundButton;
 import android.widget.EditText;
+import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
+import android.widget.ToggleButton;
 
 import androidx.activity.OnBackPressedCallback;
 import androidx.activity.OnBackPressedDispatcher;
@@ -28,6 +31,8 @@ import java.util.Objects;
 import fr.mysoundbox.R;
 import fr.mysoundbox.activity.dialog.CustomDialogConfirmation;
 import fr.mysoundbox.activity.dialog.CustomDialogInfos;
+import fr.mysoundbox.activity.view.WaveformDrawable;
+import fr.mysoundbox.audio.PeakIndex;
 import fr.mysoundbox.bean.Sample;
 import fr.mysoundbox.controller.MusicController;
 import fr.mysoundbox.exception.TechnicalException;
@@ -38,9 +43,9 @@ import fr.mysoundbox.tools.MusicDataTools;
  * <p>
  * Author: Jonathan B.
  * Created: 22/05/2018
- * Last Updated: 31/05/2018
+ * Last Updated: 18/10/2026
  */
-public class ChangeActivity extends AppCompatActivity implements View.OnClickListener {
+public class ChangeActivity extends AppCompatActivity implements View.OnClickListener, CompoundButton.OnCheckedChangeListener {
 
     private MusicController musicCtrl;
     private int sampleId;
@@ -54,11 +59,16 @@ public class ChangeActivity extends AppCompatActivity implements View.OnClickLis
     private Button infosButton;
     private EditText name;
     private TextView filename;
+    private ImageView waveform;
+    private WaveformDrawable waveformDrawable;
     private Button fileBrowse;
+    private Button fileLibrary;
     private Button fileTest;
     private Button fileDefault;
+    private ToggleButton loopButton;
     private Button saveButton;
     private ActivityResultLauncher<Intent> audioBrowseLauncher;
+    private ActivityResultLauncher<Intent> libraryLauncher;
 
     /**
      * Création de l'activité
@@ -111,6 +121,30 @@ public class ChangeActivity extends AppCompatActivity implements View.OnClickLis
         super.onStop();
         // Fermeture de l'audio
         closeAudio();
+        // Ecris les modifications en attente d'enregistrement
+        flushSamples();
+    }
+
+    /**
+     * Destruction de l'activité
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Libère la session audio partagée (thread de travail audio)
+        musicCtrl.releaseAudioEngine();
+    }
+
+    /**
+     * Ecris les modifications des samples en attente d'enregistrement
+     */
+    private void flushSamples() {
+        try {
+            musicCtrl.flushMusicDataFile(this);
+        } catch (TechnicalException tex) {
+            Log.e("ERROR", tex.getMessage());
+            Toast.makeText(this, R.string.save_fail, Toast.LENGTH_LONG).show();
+        }
     }
 
     /**
@@ -127,9 +161,12 @@ public class ChangeActivity extends AppCompatActivity implements View.OnClickLis
         infosButton = findViewById(R.id.infosButton);
         name = findViewById(R.id.name);
         filename = findViewById(R.id.filename);
+        waveform = findViewById(R.id.waveform);
         fileBrowse = findViewById(R.id.fileBrowse);
+        fileLibrary = findViewById(R.id.fileLibrary);
         fileTest = findViewById(R.id.fileTest);
         fileDefault = findViewById(R.id.fileDefault);
+        loopButton = findViewById(R.id.loopButton);
         saveButton = findViewById(R.id.saveButton);
     }
 
@@ -154,10 +191,14 @@ public class ChangeActivity extends AppCompatActivity implements View.OnClickLis
         infosButton.setOnClickListener(this);
         // Bouton 'Parcourir'
         fileBrowse.setOnClickListener(this);
+        // Bouton 'Bibliothèque'
+        fileLibrary.setOnClickListener(this);
         // Bouton 'Tester'
         fileTest.setOnClickListener(this);
         // Bouton 'Par défaut'
         fileDefault.setOnClickListener(this);
+        // Bouton 'Lecture en boucle'
+        loopButton.setOnCheckedChangeListener(this);
         // Bouton 'Sauvegarder'
         saveButton.setOnClickListener(this);
     }
@@ -205,6 +246,32 @@ public class ChangeActivity extends AppCompatActivity implements View.OnClickLis
         // Remplis les champs
         name.setText(sampleName);
         filename.setText(sampleFilename);
+        loopButton.setChecked(currentSample.loop());
+
+        // Initialise l'aperçu de la forme d'onde
+        waveformDrawable = new WaveformDrawable(getResources().getColor(R.color.green, getTheme()));
+        waveform.setImageDrawable(waveformDrawable);
+        loadWaveform();
+    }
+
+    /**
+     * Charge en arrière-plan l'index de crêtes du sample actuel pour l'aperçu de sa forme d'onde
+     */
+    private void loadWaveform() {
+        waveformDrawable.setPeakIndex(null);
+        musicCtrl.loadPeakIndex(this, currentSample.uri(), this::onPeakIndexLoaded);
+    }
+
+    /**
+     * Lors du chargement de l'index de crêtes, affiche la forme d'onde si le sample n'a pas changé entre-temps
+     *
+     * @param uri       Uri
+     * @param peakIndex PeakIndex
+     */
+    private void onPeakIndexLoaded(Uri uri, PeakIndex peakIndex) {
+        if (currentSample != null && uri.equals(currentSample.uri())) {
+            waveformDrawable.setPeakIndex(peakIndex);
+        }
     }
 
     /**
@@ -242,6 +309,18 @@ public class ChangeActivity extends AppCompatActivity implements View.OnClickLis
                     }
                 }
         );
+        // Fichier choisi dans la bibliothèque (déjà couvert par la permission persistante du dossier)
+        libraryLauncher = registerForActivityResult(
+                new ActivityResultContracts.StartActivityForResult(),
+                result -> {
+                    if (result.getResultCode() == Activity.RESULT_OK && result.getData() != null) {
+                        String uri = result.getData().getStringExtra(LibraryActivity.EXTRA_URI);
+                        if (uri != null) {
+                            handleAudioUri(Uri.parse(uri));
+                        }
+                    }
+                }
+        );
     }
 
     /**
@@ -273,15 +352,57 @@ public class ChangeActivity extends AppCompatActivity implements View.OnClickLis
         filename.setText(resultFilename);
 
         // Met à jour le sample actuel
-        currentSample = new Sample(sampleId, resultName, resultFilename, audioUri);
+        currentSample = new Sample(sampleId, resultName, resultFilename, audioUri).withLoop(loopButton.isChecked());
 
         // Modifie la variable 'saved'
         saved = false;
 
+        // Détecte le silence en début de fichier en arrière-plan
+        musicCtrl.analyzeStartOffset(this, audioUri, this::onStartOffsetAnalyzed);
+
+        // Met à jour l'aperçu de la forme d'onde
+        loadWaveform();
+
         // Focus sur le nom
         name.requestFocus();
     }
 
+    /**
+     * Lors de la fin de la détection du silence initial, met à jour le sample actuel (et l'enregistre s'il l'était déjà)
+     *
+     * @param uri           Uri
+     * @param startOffsetUs long
+     */
+    private void onStartOffsetAnalyzed(Uri uri, long startOffsetUs) {
+        if (currentSample == null || !uri.equals(currentSample.uri()) || isFinishing()) {
+            // Un autre fichier a été choisi entre-temps
+            return;
+        }
+        currentSample = currentSample.withStartOffsetUs(startOffsetUs);
+        if (saved && startOffsetUs > 0) {
+            try {
+                musicCtrl.saveSample(this, sampleId, new Sample(sampleId - 1, currentSample.name(), currentSample.filename(), currentSample.uri(), startOffsetUs, currentSample.loop()));
+            } catch (TechnicalException e) {
+                Log.e("ERROR", "Impossible d'enregistrer le décalage de départ du sample !");
+            }
+        }
+    }
+
+    /**
+     * Lors du changement du mode de lecture en boucle
+     *
+     * @param buttonView CompoundButton
+     * @param isChecked  boolean
+     */
+    @Override
+    public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
+        if (buttonView == loopButton && currentSample != null && currentSample.loop() != isChecked) {
+            currentSample = currentSample.withLoop(isChecked);
+            // Modifie la variable 'saved'
+            saved = false;
+        }
+    }
+
     /**
      * Initialise l'Audio Manager
      */
@@ -291,13 +412,12 @@ public class ChangeActivity extends AppCompatActivity implements View.OnClickLis
     }
 
     /**
-     * Ferme le MediaPlayer si besoin
+     * Ferme le MediaPlayer si besoin (libération sur le thread de travail audio)
      */
     private void closeAudio() {
         // Ferme le MediaPlayer si besoin
         if (mp != null) {
-            mp.stop();
-            mp.release();
+            musicCtrl.releaseMediaPlayer(mp);
             mp = null;
         }
     }
@@ -322,6 +442,10 @@ public class ChangeActivity extends AppCompatActivity implements View.OnClickLis
         if (view == fileBrowse) {
             openAudioExplorer();
         }
+        // Bouton 'Bibliothèque'
+        if (view == fileLibrary) {
+            libraryLauncher.launch(new Intent(this, LibraryActivity.class));
+        }
         // Bouton 'Tester'
         if (view == fileTest) {
             testSample();
@@ -407,18 +531,19 @@ public class ChangeActivity extends AppCompatActivity implements View.OnClickLis
      * Test le sample en récupérant la ressource depuis le stockage externe ou depuis les ressources du projet
      */
     private void testSample() {
-        try {
-            // Création du MediaPlayer
-            mp = musicCtrl.createMediaPlayer(this, currentSample);
-            // Lance le MediaPlayer
-            mp.start();
-            Toast.makeText(this, R.string.play_success, Toast.LENGTH_LONG).show();
-        } catch (NullPointerException npe) {
-            Toast.makeText(this, R.string.play_fail, Toast.LENGTH_LONG).show();
-        } finally {
-            // Arrête immédiatement le MediaPlayer
-            closeAudio();
-        }
+        // Création et préparation du MediaPlayer en arrière-plan
+        musicCtrl.createMediaPlayerAsync(this, currentSample, preparedMp -> {
+            if (preparedMp != null) {
+                mp = preparedMp;
+                // Lance le MediaPlayer
+                mp.start();
+                Toast.makeText(this, R.string.play_success, Toast.LENGTH_LONG).show();
+                // Arrête immédiatement le MediaPlayer
+                closeAudio();
+            } else {
+                Toast.makeText(this, R.string.play_fail, Toast.LENGTH_LONG).show();
+            }
+        });
     }
 
     /**
@@ -450,6 +575,8 @@ public class ChangeActivity extends AppCompatActivity implements View.OnClickLis
             // Mise à jour des champs par défaut
             name.setText(currentSample.name());
             filename.setText(currentSample.filename());
+            loopButton.setChecked(currentSample.loop());
+            loadWaveform();
 
             // Met à jour la variable 'saved'
             saved = true;
@@ -485,7 +612,7 @@ public class ChangeActivity extends AppCompatActivity implements View.OnClickLis
         } else {
             try {
                 // Enregistre le sample
-                Sample newSample = new Sample(sampleId - 1, currentSample.name(), currentSample.filename(), currentSample.uri());
+                Sample newSample = new Sample(sampleId - 1, currentSample.name(), currentSample.filename(), currentSample.uri(), currentSample.startOffsetUs(), currentSample.loop());
                 musicCtrl.saveSample(this, sampleId, newSample);
                 Toast.makeText(this, R.string.save_success, Toast.LENGTH_LONG).show();
                 saved = true;
@@ -0,0 +1,216 @@
+package fr.mysoundbox.activity;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.View;
+import android.view.Window;
+import android.view.WindowManager;
+import android.widget.Button;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import fr.mysoundbox.MySoundBoxApplication;
+import fr.mysoundbox.R;
+import fr.mysoundbox.activity.dialog.CustomDialogInfos;
+import fr.mysoundbox.controller.MusicController;
+import fr.mysoundbox.exception.TechnicalException;
+import fr.mysoundbox.tools.MusicDataBenchmark;
+
+/**
+ * Activité de débogage (builds de débogage uniquement) : rapport des latences toucher -> son mesurées par le moteur de lecture, mesure des formats du fichier des samples
+ * Ouverte par un appui long sur le bouton 'Manage' de l'écran principal ; fermée immédiatement dans un build de production
+ * Les enregistrements et les mesures sont faits sur un thread dédié, libéré à la destruction de l'activité
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class DebugActivity extends AppCompatActivity implements View.OnClickListener {
+
+    /**
+     * Attributs
+     */
+    // Attributs de classe
+    private MusicController musicCtrl;
+    private ExecutorService executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Attributs d'IHM
+    private Button backButton = null;
+    private Button refreshButton = null;
+    private Button dumpButton = null;
+    private Button benchmarkButton = null;
+    private TextView latencyText = null;
+
+    /**
+     * Création de l'activité
+     *
+     * @param savedInstanceState Bundle
+     */
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        final String INFO = "[INFO]";
+        Log.e(INFO, "=> DebugActivity");
+        if (!MySoundBoxApplication.isDebuggable(this)) {
+            // Inaccessible dans un build de production
+            finish();
+            return;
+        }
+        // Initialisation du controller et du thread de travail
+        musicCtrl = new MusicController();
+        executor = Executors.newSingleThreadExecutor();
+        // Initialisation du layout
+        initLayout();
+        // Initialisation des listeners
+        initListeners();
+        // Affiche le rapport courant
+        displayLatencyReport();
+    }
+
+    /**
+     * Destruction de l'activité
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Abandonne les tâches en attente (un enregistrement en cours se termine)
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    /**
+     * Initialise le layout et récupère les éléments
+     */
+    private void initLayout() {
+        // Charge le layout
+        setContentView(R.layout.activity_debug);
+        // Change la couleur de la barre de navigation
+        initNavigationBarColor();
+        // Récupère les éléments du layout
+        backButton = findViewById(R.id.backMainButton);
+        refreshButton = findViewById(R.id.debugRefreshButton);
+        dumpButton = findViewById(R.id.debugDumpButton);
+        benchmarkButton = findViewById(R.id.debugBenchmarkButton);
+        latencyText = findViewById(R.id.debugLatencyText);
+    }
+
+    /**
+     * Change la couleur de la barre de navigation
+     */
+    @SuppressWarnings("deprecation")
+    private void initNavigationBarColor() {
+        Window window = getWindow();
+        window.addFlags(WindowManager.LayoutParams.FLAG_DRAWS_SYSTEM_BAR_BACKGROUNDS);
+        window.setNavigationBarColor(getResources().getColor(android.R.color.transparent));
+        window.getDecorView().setSystemUiVisibility(View.SYSTEM_UI_FLAG_LAYOUT_STABLE | View.SYSTEM_UI_FLAG_LAYOUT_HIDE_NAVIGATION | View.SYSTEM_UI_FLAG_LAYOUT_FULLSCREEN);
+    }
+
+    /**
+     * Initialise les listeners
+     */
+    private void initListeners() {
+        backButton.setOnClickListener(this);
+        refreshButton.setOnClickListener(this);
+        dumpButton.setOnClickListener(this);
+        benchmarkButton.setOnClickListener(this);
+    }
+
+    /**
+     * Affiche le rapport des latences toucher -> son (histogrammes en mémoire)
+     */
+    private void displayLatencyReport() {
+        latencyText.setText(musicCtrl.getLatencyReport(this));
+    }
+
+    /**
+     * Enregistre le rapport des latences dans un fichier sur le thread de travail puis affiche le résultat
+     */
+    private void dumpLatencyReport() {
+        dumpButton.setEnabled(false);
+        Context appContext = getApplicationContext();
+        MusicController controller = musicCtrl;
+        executor.execute(() -> {
+            String result;
+            try {
+                File file = controller.dumpLatencyReport(appContext);
+                result = appContext.getString(R.string.latency_dump_success, file.getAbsolutePath());
+            } catch (TechnicalException tex) {
+                Log.e("ERROR", tex.getMessage());
+                result = appContext.getString(R.string.latency_dump_fail);
+            }
+            final String message = result;
+            mainHandler.post(() -> {
+                dumpButton.setEnabled(true);
+                latencyText.setText(musicCtrl.getLatencyReport(this) + "\n" + message);
+            });
+        });
+    }
+
+    /**
+     * Mesure sur le thread de travail le temps de lecture des formats JSON et binaire du fichier des samples puis affiche le rapport
+     */
+    private void runMusicDataBenchmark() {
+        benchmarkButton.setEnabled(false);
+        Toast.makeText(this, R.string.benchmark_running, Toast.LENGTH_SHORT).show();
+        Context appContext = getApplicationContext();
+        executor.execute(() -> {
+            String report;
+            try {
+                report = MusicDataBenchmark.run(appContext);
+            } catch (TechnicalException tex) {
+                Log.e("ERROR", tex.getMessage());
+                report = appContext.getString(R.string.benchmark_fail);
+            }
+            final String result = report;
+            mainHandler.post(() -> {
+                benchmarkButton.setEnabled(true);
+                new CustomDialogInfos(this, result).show();
+            });
+        });
+    }
+
+    /**
+     * Lors du clic sur un bouton
+     *
+     * @param view View
+     */
+    @Override
+    public void onClick(View view) {
+        // Bouton 'Retour'
+        if (view == backButton) {
+            closeActivity();
+        }
+        // Bouton 'Actualiser'
+        if (view == refreshButton) {
+            displayLatencyReport();
+        }
+        // Bouton 'Enregistrer le rapport'
+        if (view == dumpButton) {
+            dumpLatencyReport();
+        }
+        // Bouton 'Mesurer le fichier des samples'
+        if (view == benchmarkButton) {
+            runMusicDataBenchmark();
+        }
+    }
+
+    /**
+     * Ferme l'activité
+     */
+    private void closeActivity() {
+        finish();
+    }
+
+}
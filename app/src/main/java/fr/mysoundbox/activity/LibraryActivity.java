@@ -0,0 +1,282 @@
+package fr.mysoundbox.activity;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.View;
+import android.view.Window;
+import android.view.WindowManager;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
+import android.widget.Button;
+import android.widget.ListView;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import fr.mysoundbox.R;
+import fr.mysoundbox.bean.LibraryEntry;
+import fr.mysoundbox.bean.LibraryIndex;
+import fr.mysoundbox.tools.LibraryLoader;
+
+/**
+ * Activité de la bibliothèque : dossier accordé par l'utilisateur, indexé en arrière-plan, dont un fichier audio peut être choisi pour un pad
+ * L'index est enregistré sur l'appareil : il s'affiche immédiatement à l'ouverture, un nouveau parcours n'analyse que les fichiers nouveaux ou modifiés
+ * Le fichier choisi est renvoyé à l'activité appelante (extras 'uri' et 'name')
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class LibraryActivity extends AppCompatActivity implements View.OnClickListener, AdapterView.OnItemClickListener {
+
+    /**
+     * Attributs
+     */
+    public static final String EXTRA_URI = "uri";
+    public static final String EXTRA_NAME = "name";
+
+    // Attributs de classe
+    private LibraryLoader libraryLoader;
+    private final List<LibraryEntry> entries = new ArrayList<>();
+    private boolean scanning = false;
+
+    // Attributs d'IHM
+    private Button backButton = null;
+    private Button chooseButton = null;
+    private Button rescanButton = null;
+    private TextView libraryText = null;
+    private ListView libraryList = null;
+    private ArrayAdapter<String> libraryAdapter = null;
+    private ActivityResultLauncher<Intent> treeBrowseLauncher;
+
+    /**
+     * Création de l'activité
+     *
+     * @param savedInstanceState Bundle
+     */
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        final String INFO = "[INFO]";
+        Log.e(INFO, "=> LibraryActivity");
+        // Initialisation du chargeur de la bibliothèque
+        libraryLoader = new LibraryLoader(this);
+        // Initialisation du layout
+        initLayout();
+        // Initialisation de l'exploreur de dossiers
+        initTreeBrowser();
+        // Initialisation des listeners
+        initListeners();
+        // Affiche l'index enregistré
+        libraryText.setText(R.string.library_scanning);
+        libraryLoader.load(this::onLibraryLoaded);
+    }
+
+    /**
+     * Destruction de l'activité
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Libère le thread de la bibliothèque (un parcours en cours se termine, son index reste enregistré)
+        libraryLoader.release();
+    }
+
+    /**
+     * Initialise le layout et récupère les éléments
+     */
+    private void initLayout() {
+        // Charge le layout
+        setContentView(R.layout.activity_library);
+        // Change la couleur de la barre de navigation
+        initNavigationBarColor();
+        // Récupère les éléments du layout
+        backButton = findViewById(R.id.backChangeButton);
+        chooseButton = findViewById(R.id.libraryChooseButton);
+        rescanButton = findViewById(R.id.libraryRescanButton);
+        libraryText = findViewById(R.id.libraryText);
+        libraryList = findViewById(R.id.libraryList);
+        libraryAdapter = new ArrayAdapter<>(this, R.layout.item_library);
+        libraryList.setAdapter(libraryAdapter);
+    }
+
+    /**
+     * Change la couleur de la barre de navigation
+     */
+    @SuppressWarnings("deprecation")
+    private void initNavigationBarColor() {
+        Window window = getWindow();
+        window.addFlags(WindowManager.LayoutParams.FLAG_DRAWS_SYSTEM_BAR_BACKGROUNDS);
+        window.setNavigationBarColor(getResources().getColor(android.R.color.transparent));
+        window.getDecorView().setSystemUiVisibility(View.SYSTEM_UI_FLAG_LAYOUT_STABLE | View.SYSTEM_UI_FLAG_LAYOUT_HIDE_NAVIGATION | View.SYSTEM_UI_FLAG_LAYOUT_FULLSCREEN);
+    }
+
+    /**
+     * Initialise l'exploreur de dossiers
+     */
+    private void initTreeBrowser() {
+        treeBrowseLauncher = registerForActivityResult(
+                new ActivityResultContracts.StartActivityForResult(),
+                result -> {
+                    if (result.getResultCode() == Activity.RESULT_OK && result.getData() != null) {
+                        Uri treeUri = result.getData().getData();
+                        if (treeUri != null) {
+                            handleTreeUri(treeUri);
+                        }
+                    }
+                }
+        );
+    }
+
+    /**
+     * Initialise les listeners
+     */
+    private void initListeners() {
+        backButton.setOnClickListener(this);
+        chooseButton.setOnClickListener(this);
+        rescanButton.setOnClickListener(this);
+        libraryList.setOnItemClickListener(this);
+    }
+
+    /**
+     * Traite l'URI du dossier accordé : prend la permission persistante puis parcourt le dossier
+     *
+     * @param treeUri Uri
+     */
+    private void handleTreeUri(Uri treeUri) {
+        try {
+            // Permission de lecture persistante : couvre tous les fichiers du dossier, y compris pour les pads
+            getContentResolver().takePersistableUriPermission(treeUri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        } catch (SecurityException sex) {
+            Log.e("LibraryActivity", "Impossible de prendre des permissions persistantes: " + sex.getMessage());
+        }
+        scan(treeUri);
+    }
+
+    /**
+     * Lance le parcours du dossier en arrière-plan
+     *
+     * @param treeUri Uri (ou null pour parcourir à nouveau le dossier déjà indexé)
+     */
+    private void scan(Uri treeUri) {
+        if (scanning) {
+            return;
+        }
+        scanning = true;
+        chooseButton.setEnabled(false);
+        rescanButton.setEnabled(false);
+        libraryText.setText(R.string.library_scanning);
+        libraryLoader.scan(treeUri, libraryIndex -> {
+            scanning = false;
+            chooseButton.setEnabled(true);
+            rescanButton.setEnabled(true);
+            if (libraryIndex == null) {
+                Toast.makeText(this, R.string.library_fail, Toast.LENGTH_LONG).show();
+            }
+            onLibraryLoaded(libraryIndex);
+        });
+    }
+
+    /**
+     * Lors du chargement ou du parcours de la bibliothèque (thread UI)
+     *
+     * @param libraryIndex LibraryIndex (ou null)
+     */
+    private void onLibraryLoaded(LibraryIndex libraryIndex) {
+        if (isDestroyed()) {
+            return;
+        }
+        if (libraryIndex == null) {
+            // Conserve la liste affichée (échec d'un nouveau parcours)
+            if (entries.isEmpty()) {
+                libraryText.setText(R.string.library_empty);
+            }
+            rescanButton.setEnabled(false);
+            return;
+        }
+        // Les fichiers illisibles restent dans l'index mais ne sont pas proposés
+        entries.clear();
+        for (LibraryEntry entry : libraryIndex.entries()) {
+            if (entry.isReadable()) {
+                entries.add(entry);
+            }
+        }
+        libraryAdapter.clear();
+        for (LibraryEntry entry : entries) {
+            libraryAdapter.add(formatEntry(entry));
+        }
+        libraryText.setText(getString(R.string.library_count, entries.size()));
+        rescanButton.setEnabled(!scanning);
+    }
+
+    /**
+     * Formate un fichier de la bibliothèque : nom (m:ss), ou nom seul si la durée est inconnue
+     *
+     * @param entry LibraryEntry
+     * @return String
+     */
+    private String formatEntry(LibraryEntry entry) {
+        if (entry.durationUs() <= 0) {
+            return entry.name();
+        }
+        long seconds = entry.durationUs() / 1_000_000L;
+        return String.format(Locale.ROOT, "%s (%d:%02d)", entry.name(), seconds / 60, seconds % 60);
+    }
+
+    /**
+     * Lors du clic sur un bouton
+     *
+     * @param view View
+     */
+    @Override
+    public void onClick(View view) {
+        // Bouton 'Retour'
+        if (view == backButton) {
+            closeActivity();
+        }
+        // Bouton 'Choisir un dossier'
+        if (view == chooseButton) {
+            treeBrowseLauncher.launch(new Intent(Intent.ACTION_OPEN_DOCUMENT_TREE));
+        }
+        // Bouton 'Actualiser'
+        if (view == rescanButton) {
+            scan(null);
+        }
+    }
+
+    /**
+     * Lors du clic sur un fichier de la bibliothèque : le renvoie à l'activité appelante
+     *
+     * @param parent   AdapterView
+     * @param view     View
+     * @param position int
+     * @param id       long
+     */
+    @Override
+    public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
+        LibraryEntry entry = entries.get(position);
+        Intent data = new Intent();
+        data.putExtra(EXTRA_URI, entry.uri().toString());
+        data.putExtra(EXTRA_NAME, entry.name());
+        setResult(Activity.RESULT_OK, data);
+        closeActivity();
+    }
+
+    /**
+     * Ferme l'activité
+     */
+    private void closeActivity() {
+        finish();
+    }
+
+}
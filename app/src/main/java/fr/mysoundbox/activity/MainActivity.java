@@ -1,13 +1,14 @@
 package fr.mysoundbox.activity;
 
+import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.Intent;
 import android.media.AudioManager;
-import android.media.MediaPlayer;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.View.OnClickListener;
 import android.view.Window;
@@ -17,6 +18,7 @@ import android.widget.CompoundButton;
 import android.widget.ImageView;
 import android.widget.SeekBar;
 import android.widget.SeekBar.OnSeekBarChangeListener;
+import android.widget.TextView;
 import android.widget.Toast;
 import android.widget.ToggleButton;
 
@@ -25,10 +27,13 @@ import androidx.appcompat.app.AppCompatActivity;
 import java.util.ArrayList;
 import java.util.List;
 
+import fr.mysoundbox.MySoundBoxApplication;
 import fr.mysoundbox.R;
+import fr.mysoundbox.audio.PlaybackListener;
 import fr.mysoundbox.bean.Sample;
 import fr.mysoundbox.controller.MusicController;
 import fr.mysoundbox.exception.TechnicalException;
+import fr.mysoundbox.tools.SampleChangeListener;
 import fr.mysoundbox.tools.VolumeListener;
 
 /**
@@ -36,9 +41,9 @@ import fr.mysoundbox.tools.VolumeListener;
  * <p>
  * Author: Jonathan B.
  * Created: 18/05/2018
- * Last Updated: 31/05/2018
+ * Last Updated: 18/10/2026
  */
-public class MainActivity extends AppCompatActivity implements OnClickListener, CompoundButton.OnCheckedChangeListener, MediaPlayer.OnCompletionListener, OnSeekBarChangeListener {
+public class MainActivity extends AppCompatActivity implements OnClickListener, View.OnLongClickListener, View.OnTouchListener, CompoundButton.OnCheckedChangeListener, OnSeekBarChangeListener, PlaybackListener, SampleChangeListener {
 
     /**
      * Attributs
@@ -46,12 +51,18 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
     // Attributs de classe
     private MusicController musicCtrl;
     private List<Sample> listSample;
-    private MediaPlayer mp;
+    private boolean audioLoaded = false;
     private AudioManager audioManager = null;
     private VolumeListener volumeListener = null;
 
     // Attributs d'IHM
     private Button manageButton = null;
+    private Button sequencerButton = null;
+    private ToggleButton polyButton = null;
+    private Button bankPrevious = null;
+    private Button bankNext = null;
+    private Button bankAdd = null;
+    private TextView bankText = null;
     private List<ToggleButton> listToggleButton = null;
     private ToggleButton samplePlay1 = null;
     private ToggleButton samplePlay2 = null;
@@ -87,20 +98,26 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
         initListToggleButtons();
         // Initialisation des listeners
         initListeners();
+        // Abonnement aux changements des samples (faits depuis les autres activités)
+        musicCtrl.setSampleChangeListener(this, this);
     }
 
     /**
      * Démarrage de l'activité
+     * Les samples ne sont chargés qu'au premier démarrage : ensuite, seuls les pads modifiés sont mis à jour (onSampleChanged)
      */
     @Override
     protected void onStart() {
         super.onStart();
-        // Récupère les MusicDataFile
-        initMusicDataFiles();
-        // Initialisation des samples
-        initSamples();
-        // Initialisation de l'affichage
-        initDisplay();
+        if (listSample == null) {
+            // Récupère les MusicDataFile
+            initMusicDataFiles();
+            // Initialisation des samples
+            initSamples();
+            // Initialisation de l'affichage
+            initDisplay();
+            displayBank();
+        }
         // Initialisation de l'audio
         initAudio();
         // Initialise les toggle buttons sur OFF
@@ -115,6 +132,23 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
         super.onStop();
         // Fermeture de l'audio
         closeAudio();
+        // Ecris les modifications en attente d'enregistrement (banque ajoutée, samples modifiés) ; la banque courante est déjà enregistrée dans les réglages
+        try {
+            musicCtrl.flushMusicDataFile(this);
+        } catch (TechnicalException tex) {
+            Log.e("ERROR", tex.getMessage());
+        }
+    }
+
+    /**
+     * Destruction de l'activité
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        musicCtrl.removeSampleChangeListener(this);
+        // Libère la session audio partagée (moteur de lecture et pool libérés au départ de la dernière activité)
+        musicCtrl.releaseAudioEngine();
     }
 
     /**
@@ -127,6 +161,12 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
         initNavigationBarColor();
         // Récupère les éléments du layout
         manageButton = findViewById(R.id.manageButton);
+        sequencerButton = findViewById(R.id.sequencerButton);
+        polyButton = findViewById(R.id.polyButton);
+        bankPrevious = findViewById(R.id.bankPrevious);
+        bankNext = findViewById(R.id.bankNext);
+        bankAdd = findViewById(R.id.bankAdd);
+        bankText = findViewById(R.id.bankText);
         samplePlay1 = findViewById(R.id.samplePlay1);
         samplePlay2 = findViewById(R.id.samplePlay2);
         samplePlay3 = findViewById(R.id.samplePlay3);
@@ -177,13 +217,22 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
     /**
      * Initialise les listeners
      */
+    @SuppressLint("ClickableViewAccessibility")
     private void initListeners() {
-        // Bouton 'Manage'
+        // Bouton 'Manage' (appui long : rapport de latence)
         manageButton.setOnClickListener(this);
+        manageButton.setOnLongClickListener(this);
+        // Bouton 'Séquenceur'
+        sequencerButton.setOnClickListener(this);
+        // Boutons des banques
+        bankPrevious.setOnClickListener(this);
+        bankNext.setOnClickListener(this);
+        bankAdd.setOnClickListener(this);
         // Toggle Buttons
         for (ToggleButton toggleButton : listToggleButton) {
             if (toggleButton != null) {
                 toggleButton.setOnCheckedChangeListener(this);
+                toggleButton.setOnTouchListener(this);
             }
         }
         // Barre de volume
@@ -225,13 +274,77 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
      */
     private void initDisplay() {
         // Pour chaque sample ..
-        int i = 0;
-        for (Sample sample : listSample) {
-            // Affichage le nom sur le bouton associé
-            listToggleButton.get(i).setText(sample.name());
-            listToggleButton.get(i).setTextOn(sample.name());
-            listToggleButton.get(i).setTextOff(sample.name());
-            i++;
+        for (int pad = 0; pad < listSample.size(); pad++) {
+            displaySample(pad, listSample.get(pad));
+        }
+    }
+
+    /**
+     * Affiche le nom d'un sample sur le bouton associé
+     *
+     * @param pad    int (0 à 11)
+     * @param sample Sample
+     */
+    private void displaySample(int pad, Sample sample) {
+        listToggleButton.get(pad).setText(sample.name());
+        listToggleButton.get(pad).setTextOn(sample.name());
+        listToggleButton.get(pad).setTextOff(sample.name());
+    }
+
+    /**
+     * Lors du changement du sample d'un pad de la banque courante : met à jour uniquement son bouton (le controller a déjà rechargé le pad)
+     *
+     * @param bank      int
+     * @param pad       int (0 à 11)
+     * @param oldSample Sample
+     * @param newSample Sample
+     */
+    @Override
+    public void onSampleChanged(int bank, int pad, Sample oldSample, Sample newSample) {
+        if (listSample == null) {
+            return;
+        }
+        listSample.set(pad, newSample);
+        displaySample(pad, newSample);
+    }
+
+    /**
+     * Affiche le numéro de la banque courante et active les boutons de navigation selon sa position
+     */
+    private void displayBank() {
+        try {
+            int bankCount = musicCtrl.getBankCount(this);
+            int bank = musicCtrl.getBank();
+            bankText.setText(getString(R.string.bank_number, bank + 1, bankCount));
+            bankPrevious.setEnabled(bank > 0);
+            bankNext.setEnabled(bank < bankCount - 1);
+        } catch (TechnicalException tex) {
+            Log.e("ERROR", tex.getMessage());
+        }
+    }
+
+    /**
+     * Change de banque (les samples de la nouvelle banque remplacent ceux des 12 pads)
+     *
+     * @param bank int (ignoré si add)
+     * @param add  boolean (ajoute une nouvelle banque puis la sélectionne)
+     */
+    private void changeBank(int bank, boolean add) {
+        try {
+            if (add) {
+                listSample = musicCtrl.addBank(this);
+            } else {
+                if (bank < 0 || bank >= musicCtrl.getBankCount(this)) {
+                    return;
+                }
+                listSample = musicCtrl.selectBank(this, bank);
+            }
+            initDisplay();
+            initToggleButtons();
+            displayBank();
+        } catch (TechnicalException tex) {
+            Log.e("ERROR", tex.getMessage());
+            Toast.makeText(this, R.string.bank_fail, Toast.LENGTH_LONG).show();
         }
     }
 
@@ -257,6 +370,15 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
             volumeListener = new VolumeListener(new Handler(Looper.getMainLooper()), audioManager, volumeSeekbar);
             // Enregistre le listener
             getApplicationContext().getContentResolver().registerContentObserver(android.provider.Settings.System.CONTENT_URI, true, volumeListener);
+            // Charge les samples décodés dans le moteur de lecture (premier démarrage uniquement) puis le démarre
+            if (!audioLoaded) {
+                musicCtrl.initAudioEngine(this, listSample);
+                audioLoaded = true;
+                // Pré-charge les banques voisines
+                musicCtrl.prewarmBank(this, musicCtrl.getBank() - 1);
+                musicCtrl.prewarmBank(this, musicCtrl.getBank() + 1);
+            }
+            musicCtrl.startAudioEngine(this, this);
         } catch (Exception ex) {
             // Si erreur, ferme l'activité
             Log.e("ERROR", "Impossible d'initialiser l'audio !");
@@ -266,15 +388,11 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
     }
 
     /**
-     * Ferme le MediaPlayer si besoin puis supprime le listener de changement de volume via touches physiques
+     * Arrête le moteur de lecture et met en pause le pool de MediaPlayer puis supprime le listener de changement de volume via touches physiques
      */
     private void closeAudio() {
         // Désactive le son
-        if (mp != null) {
-            mp.stop();
-            mp.release();
-            mp = null;
-        }
+        musicCtrl.stopAudioEngine();
         // Supprime l'enregistrement du listener de changement du volume via touches physiques
         getApplicationContext().getContentResolver().unregisterContentObserver(volumeListener);
     }
@@ -304,6 +422,21 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
             Intent manageIntent = new Intent(MainActivity.this, ManageActivity.class);
             startActivity(manageIntent);
         }
+        // Ouvre l'activité 'Sequencer'
+        if (view == sequencerButton) {
+            Intent sequencerIntent = new Intent(MainActivity.this, SequencerActivity.class);
+            startActivity(sequencerIntent);
+        }
+        // Banque précédente / suivante / nouvelle
+        if (view == bankPrevious) {
+            changeBank(musicCtrl.getBank() - 1, false);
+        }
+        if (view == bankNext) {
+            changeBank(musicCtrl.getBank() + 1, false);
+        }
+        if (view == bankAdd) {
+            changeBank(musicCtrl.getBank(), true);
+        }
         // Boutons Volume +
         if (view == volumeUp) {
             changeVolumeUp(true);
@@ -314,6 +447,43 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
         }
     }
 
+    /**
+     * Lors de l'appui long sur le bouton 'Manage', ouvre l'écran de débogage (rapport de latence toucher -> son, mesures), dans un build de débogage uniquement
+     *
+     * @param view View
+     * @return boolean
+     */
+    @Override
+    public boolean onLongClick(View view) {
+        if (view == manageButton) {
+            if (!MySoundBoxApplication.isDebuggable(this)) {
+                return false;
+            }
+            startActivity(new Intent(MainActivity.this, DebugActivity.class));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Lors du toucher d'un toggle button, horodate le relâchement (qui déclenche le toggle) pour la mesure de latence
+     *
+     * @param view  View
+     * @param event MotionEvent
+     * @return boolean
+     */
+    @Override
+    public boolean onTouch(View view, MotionEvent event) {
+        if (event.getActionMasked() == MotionEvent.ACTION_UP) {
+            int pad = listToggleButton.indexOf((ToggleButton) view);
+            if (pad >= 0) {
+                musicCtrl.markTouch(pad, event.getEventTime());
+            }
+        }
+        // Laisse le toggle button traiter l'évènement
+        return false;
+    }
+
     /**
      * Lors du clic sur un toggle button, traitement en fonction du toggle button
      *
@@ -327,8 +497,10 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
             if (isChecked) {
                 // Change la couleur de la police du bouton
                 buttonView.setTextColor(getResources().getColor(R.color.green, getTheme()));
-                // Désactive les autres toggle buttons si besoin
-                turnOffOthers(buttonView.getId());
+                // Désactive les autres toggle buttons si besoin (mode 'Solo')
+                if (!polyButton.isChecked()) {
+                    turnOffOthers(buttonView.getId());
+                }
                 // Lance le son en fonction du toggle button
                 if (buttonView == samplePlay1) {
                     turnOnOne(0);
@@ -370,11 +542,10 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
                 // Si un bouton est désactivé
                 // Remet la couleur de la police du bouton par défaut
                 buttonView.setTextColor(getResources().getColor(R.color.colorAccent, getTheme()));
-                // Désactive le son
-                if (mp != null) {
-                    mp.stop();
-                    mp.release();
-                    mp = null;
+                // Désactive le son (le MediaPlayer du pad reste préparé)
+                int pad = listToggleButton.indexOf((ToggleButton) buttonView);
+                if (pad >= 0) {
+                    musicCtrl.stopSample(pad);
                 }
             }
         }
@@ -382,6 +553,7 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
 
     /**
      * Désactive tous les autres toggle buttons hormis celui cliqué
+     * Les voix sortantes décroissent par un fondu pendant que celle du pad cliqué démarre (fondu enchaîné, sans clic)
      *
      * @param selectedToggleButtonId int
      */
@@ -402,24 +574,23 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
      * @param selectedSample int
      */
     private void turnOnOne(int selectedSample) {
-        // Récupère le sample à jouer
-        Sample sample = listSample.get(selectedSample);
-
-        // Initialise le Media Player en fonction du sample sélectionné
-        mp = musicCtrl.createMediaPlayer(this, sample);
-
-        // Si Media Player correctement initialisé, lance la lecture
-        if (mp != null) {
-            // Initialise le listener de fin de lecture du Media Player
-            mp.setOnCompletionListener(this);
-            // Puis démarre la lecture
-            mp.start();
-        } else {
+        // Démarre la voix du moteur ou le MediaPlayer déjà préparé du pad (sans bloquer le thread UI)
+        musicCtrl.playSample(selectedSample, this::onPadTriggered);
+    }
+
+    /**
+     * Lors du résultat du déclenchement d'un pad
+     *
+     * @param pad     int
+     * @param started boolean
+     */
+    private void onPadTriggered(int pad, boolean started) {
+        if (!started) {
             // Affiche un message d'erreur
             Toast.makeText(this, R.string.play_fail, Toast.LENGTH_LONG).show();
 
-            // Désactive tous les Toggle Buttons
-            initToggleButtons();
+            // Désactive le Toggle Button du pad
+            onPadCompleted(pad);
         }
     }
 
@@ -454,14 +625,17 @@ public class MainActivity extends AppCompatActivity implements OnClickListener,
     }
 
     /**
-     * Lors de la fin de lecture du Media Player
+     * Lors de la fin de lecture d'un pad (moteur de lecture ou MediaPlayer du pool) ou du vol de sa voix
      *
-     * @param currentMp MediaPlayer
+     * @param pad int
      */
     @Override
-    public void onCompletion(MediaPlayer currentMp) {
-        // Désactive tous les toogle buttons encore activés
-        initToggleButtons();
+    public void onPadCompleted(int pad) {
+        // Désactive uniquement le toggle button du pad terminé
+        ToggleButton button = listToggleButton.get(pad);
+        if (button != null && button.isChecked()) {
+            button.setChecked(false);
+        }
     }
 
     /**
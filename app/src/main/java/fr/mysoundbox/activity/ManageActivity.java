@@ -1,6 +1,7 @@
 package fr.mysoundbox.activity;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.media.AudioManager;
 import android.os.Bundle;
 import android.util.Log;
@@ -17,16 +18,21 @@ import java.util.List;
 
 import fr.mysoundbox.R;
 import fr.mysoundbox.activity.dialog.CustomDialogConfirmation;
+import fr.mysoundbox.activity.view.WaveformDrawable;
+import fr.mysoundbox.audio.PeakIndex;
+import fr.mysoundbox.audio.PlaybackMode;
+import fr.mysoundbox.audio.Resampler;
 import fr.mysoundbox.bean.Sample;
 import fr.mysoundbox.controller.MusicController;
 import fr.mysoundbox.exception.TechnicalException;
 
 /**
  * Activité Manage qui permet d'accèder à l'activité de modification des différents samples ou de tous les ré-initialiser
+ * Elle porte aussi les réglages de lecture, enregistrés et appliqués au retour sur l'écran principal
  * <p>
  * Author: Jonathan B.
  * Created: 19/05/2018
- * Last Updated: 24/05/2018
+ * Last Updated: 18/10/2026
  */
 public class ManageActivity extends AppCompatActivity implements View.OnClickListener {
 
@@ -34,8 +40,10 @@ public class ManageActivity extends AppCompatActivity implements View.OnClickLis
      * Attributs
      */
     // Attributs de classe
+    private static final int[] FADE_OUT_STEPS_MS = {0, 5, 15, 30};
     private MusicController musicCtrl;
     private List<Sample> listSample;
+    private List<WaveformDrawable> listWaveform;
 
     // Attributs d'IHM
     private Button backMainButton = null;
@@ -53,6 +61,9 @@ public class ManageActivity extends AppCompatActivity implements View.OnClickLis
     private Button sampleChange11 = null;
     private Button sampleChange12 = null;
     private Button allReinitButton = null;
+    private Button playbackModeButton = null;
+    private Button resampleQualityButton = null;
+    private Button fadeOutButton = null;
 
     /**
      * Création de l'activité
@@ -90,6 +101,31 @@ public class ManageActivity extends AppCompatActivity implements View.OnClickLis
         initAudio();
     }
 
+    /**
+     * Arrêt de l'activité
+     */
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // Ecris les modifications en attente d'enregistrement
+        try {
+            musicCtrl.flushMusicDataFile(this);
+        } catch (TechnicalException tex) {
+            Log.e("ERROR", tex.getMessage());
+            Toast.makeText(this, R.string.reinit_fail, Toast.LENGTH_LONG).show();
+        }
+    }
+
+    /**
+     * Destruction de l'activité
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Libère la session audio partagée (thread de chargement des formes d'onde)
+        musicCtrl.releaseAudioEngine();
+    }
+
     /**
      * Initialise le layout et récupère les éléments
      */
@@ -113,6 +149,9 @@ public class ManageActivity extends AppCompatActivity implements View.OnClickLis
         sampleChange11 = findViewById(R.id.sampleChange11);
         sampleChange12 = findViewById(R.id.sampleChange12);
         allReinitButton = findViewById(R.id.allReinitButton);
+        playbackModeButton = findViewById(R.id.playbackModeButton);
+        resampleQualityButton = findViewById(R.id.resampleQualityButton);
+        fadeOutButton = findViewById(R.id.fadeOutButton);
     }
 
     /**
@@ -143,6 +182,16 @@ public class ManageActivity extends AppCompatActivity implements View.OnClickLis
         listButton.add(sampleChange10);
         listButton.add(sampleChange11);
         listButton.add(sampleChange12);
+        // Miniature de la forme d'onde sous le nom de chaque sample
+        listWaveform = new ArrayList<>();
+        int width = getResources().getDimensionPixelSize(R.dimen.waveform_thumbnail_width);
+        int height = getResources().getDimensionPixelSize(R.dimen.waveform_thumbnail_height);
+        for (Button button : listButton) {
+            WaveformDrawable drawable = new WaveformDrawable(getResources().getColor(R.color.colorPrimaryDark, getTheme()));
+            drawable.setBounds(0, 0, width, height);
+            button.setCompoundDrawablesRelative(null, null, null, drawable);
+            listWaveform.add(drawable);
+        }
     }
 
     /**
@@ -160,6 +209,10 @@ public class ManageActivity extends AppCompatActivity implements View.OnClickLis
         }
         // Bouton 'Tout ré-initialiser'
         allReinitButton.setOnClickListener(this);
+        // Réglages de lecture
+        playbackModeButton.setOnClickListener(this);
+        resampleQualityButton.setOnClickListener(this);
+        fadeOutButton.setOnClickListener(this);
     }
 
     /**
@@ -199,8 +252,73 @@ public class ManageActivity extends AppCompatActivity implements View.OnClickLis
         for (Sample sample : listSample) {
             // Affichage le nom sur le bouton associé
             listButton.get(i).setText(sample.name());
+            // Charge la miniature de la forme d'onde
+            final int pad = i;
+            listWaveform.get(pad).setPeakIndex(null);
+            musicCtrl.loadPeakIndex(this, sample.uri(), (uri, peakIndex) -> onPeakIndexLoaded(pad, uri, peakIndex));
             i++;
         }
+        // Affiche les réglages de lecture
+        displaySettings();
+    }
+
+    /**
+     * Affiche les réglages de lecture enregistrés
+     */
+    private void displaySettings() {
+        PlaybackMode playbackMode = musicCtrl.getPlaybackMode(this);
+        playbackModeButton.setText(playbackMode == PlaybackMode.AUDIO_TRACK ? R.string.playback_mode_audio_track : R.string.playback_mode_media_player);
+        Resampler.Quality resampleQuality = musicCtrl.getResampleQuality(this);
+        resampleQualityButton.setText(resampleQuality == Resampler.Quality.SINC ? R.string.resample_quality_sinc : R.string.resample_quality_linear);
+        fadeOutButton.setText(getString(R.string.fade_out, musicCtrl.getFadeOutMs(this)));
+    }
+
+    /**
+     * Bascule le mode de lecture des pads (moteur basse latence ou un MediaPlayer par pad) et l'enregistre
+     */
+    private void togglePlaybackMode() {
+        PlaybackMode playbackMode = musicCtrl.getPlaybackMode(this);
+        musicCtrl.setPlaybackMode(this, playbackMode == PlaybackMode.AUDIO_TRACK ? PlaybackMode.MEDIA_PLAYER_POOL : PlaybackMode.AUDIO_TRACK);
+        displaySettings();
+    }
+
+    /**
+     * Bascule la qualité de ré-échantillonnage (sinc fenêtré ou interpolation linéaire) et l'enregistre
+     * Les samples chargés sont rechargés en arrière-plan avec la nouvelle qualité
+     */
+    private void toggleResampleQuality() {
+        Resampler.Quality resampleQuality = musicCtrl.getResampleQuality(this);
+        musicCtrl.setResampleQuality(this, resampleQuality == Resampler.Quality.SINC ? Resampler.Quality.LINEAR : Resampler.Quality.SINC);
+        displaySettings();
+    }
+
+    /**
+     * Passe à la durée de fondu de sortie suivante (0, 5, 15 puis 30 ms) et l'enregistre
+     */
+    private void nextFadeOut() {
+        int fadeOutMs = musicCtrl.getFadeOutMs(this);
+        int next = FADE_OUT_STEPS_MS[0];
+        for (int step : FADE_OUT_STEPS_MS) {
+            if (step > fadeOutMs) {
+                next = step;
+                break;
+            }
+        }
+        musicCtrl.setFadeOutMs(this, next);
+        displaySettings();
+    }
+
+    /**
+     * Lors du chargement de l'index de crêtes d'un sample, affiche sa miniature si le sample du bouton n'a pas changé entre-temps
+     *
+     * @param pad       int
+     * @param uri       Uri
+     * @param peakIndex PeakIndex
+     */
+    private void onPeakIndexLoaded(int pad, Uri uri, PeakIndex peakIndex) {
+        if (listSample != null && uri.equals(listSample.get(pad).uri())) {
+            listWaveform.get(pad).setPeakIndex(peakIndex);
+        }
     }
 
     /**
@@ -324,6 +442,18 @@ public class ManageActivity extends AppCompatActivity implements View.OnClickLis
         if (view == allReinitButton) {
             allReinitDialog();
         }
+        // Bouton 'Lecture'
+        if (view == playbackModeButton) {
+            togglePlaybackMode();
+        }
+        // Bouton 'Qualité'
+        if (view == resampleQualityButton) {
+            toggleResampleQuality();
+        }
+        // Bouton 'Fondu'
+        if (view == fadeOutButton) {
+            nextFadeOut();
+        }
     }
 
     /**
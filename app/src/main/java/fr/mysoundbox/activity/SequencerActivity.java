@@ -0,0 +1,346 @@
+package fr.mysoundbox.activity;
+
+import android.os.Bundle;
+import android.util.Log;
+import android.view.Gravity;
+import android.view.View;
+import android.view.Window;
+import android.view.WindowManager;
+import android.widget.Button;
+import android.widget.CompoundButton;
+import android.widget.LinearLayout;
+import android.widget.SeekBar;
+import android.widget.TextView;
+import android.widget.Toast;
+import android.widget.ToggleButton;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.util.List;
+
+import fr.mysoundbox.R;
+import fr.mysoundbox.audio.PlaybackListener;
+import fr.mysoundbox.bean.Sample;
+import fr.mysoundbox.bean.SequencerPattern;
+import fr.mysoundbox.controller.MusicController;
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Activité du séquenceur pas à pas : une ligne par pad, une colonne par pas, réglage du tempo et de la longueur du motif
+ * Le motif est joué par le moteur de lecture de l'application, partagé avec l'écran principal (déclenchements calculés dans la boucle de rendu) et enregistré à la fermeture
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class SequencerActivity extends AppCompatActivity implements View.OnClickListener, CompoundButton.OnCheckedChangeListener, SeekBar.OnSeekBarChangeListener, PlaybackListener {
+
+    /**
+     * Attributs
+     */
+    private static final int PAD_COUNT = 12;
+    private static final int STEPS_PER_BEAT = 4;
+
+    // Attributs de classe
+    private MusicController musicCtrl;
+    private List<Sample> listSample;
+    private SequencerPattern pattern;
+
+    // Attributs d'IHM
+    private Button backMainButton = null;
+    private ToggleButton playButton = null;
+    private TextView tempoText = null;
+    private SeekBar tempoSeekbar = null;
+    private TextView lengthText = null;
+    private SeekBar lengthSeekbar = null;
+    private LinearLayout sequencerNames = null;
+    private LinearLayout sequencerGrid = null;
+    private ToggleButton[][] cells = null;
+
+    /**
+     * Création de l'activité
+     *
+     * @param savedInstanceState Bundle
+     */
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        final String INFO = "[INFO]";
+        Log.e(INFO, "=> SequencerActivity");
+        // Initialisation du controller
+        musicCtrl = new MusicController();
+        // Initialisation du layout
+        initLayout();
+        // Initialisation de la grille des pas
+        initGrid();
+        // Initialisation des listeners
+        initListeners();
+    }
+
+    /**
+     * Démarrage de l'activité
+     */
+    @Override
+    protected void onStart() {
+        super.onStart();
+        try {
+            // Récupère les MusicDataFile et les samples
+            musicCtrl.initMusicDataFiles(this);
+            listSample = musicCtrl.getSamples();
+            // Charge les samples dans le moteur de lecture de l'application (déjà chargés par l'écran principal) puis le démarre
+            musicCtrl.initAudioEngine(this, listSample);
+            musicCtrl.startAudioEngine(this, this);
+            // Récupère le motif enregistré
+            musicCtrl.initSequencer(this);
+            pattern = musicCtrl.getSequencerPattern();
+            // Initialisation de l'affichage
+            initDisplay();
+        } catch (TechnicalException tex) {
+            Log.e("ERROR", "Impossible d'initialiser le séquenceur !");
+            // Ferme l'activité
+            closeActivity();
+        }
+    }
+
+    /**
+     * Fermeture de l'activité
+     */
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // Arrête le motif puis l'enregistre
+        musicCtrl.stopSequencer();
+        playButton.setChecked(false);
+        savePattern();
+        musicCtrl.stopAudioEngine();
+    }
+
+    /**
+     * Destruction de l'activité
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Libère la session audio partagée (le moteur reste actif pour l'écran principal)
+        musicCtrl.releaseAudioEngine();
+    }
+
+    /**
+     * Initialise le layout et récupère les éléments
+     */
+    private void initLayout() {
+        // Charge le layout
+        setContentView(R.layout.activity_sequencer);
+        // Change la couleur de la barre de navigation
+        initNavigationBarColor();
+        // Récupère les éléments du layout
+        backMainButton = findViewById(R.id.backMainButton);
+        playButton = findViewById(R.id.sequencerPlayButton);
+        tempoText = findViewById(R.id.tempoText);
+        tempoSeekbar = findViewById(R.id.tempoSeekbar);
+        lengthText = findViewById(R.id.lengthText);
+        lengthSeekbar = findViewById(R.id.lengthSeekbar);
+        sequencerNames = findViewById(R.id.sequencerNames);
+        sequencerGrid = findViewById(R.id.sequencerGrid);
+    }
+
+    /**
+     * Change la couleur de la barre de navigation
+     */
+    @SuppressWarnings("deprecation")
+    private void initNavigationBarColor() {
+        Window window = getWindow();
+        window.addFlags(WindowManager.LayoutParams.FLAG_DRAWS_SYSTEM_BAR_BACKGROUNDS);
+        window.setNavigationBarColor(getResources().getColor(android.R.color.transparent));
+        window.getDecorView().setSystemUiVisibility(View.SYSTEM_UI_FLAG_LAYOUT_STABLE | View.SYSTEM_UI_FLAG_LAYOUT_HIDE_NAVIGATION | View.SYSTEM_UI_FLAG_LAYOUT_FULLSCREEN);
+    }
+
+    /**
+     * Construit la grille des pas (toutes les colonnes possibles, celles au-delà de la longueur du motif sont masquées)
+     */
+    private void initGrid() {
+        int size = getResources().getDimensionPixelSize(R.dimen.sequencer_cell_size);
+        int margin = getResources().getDimensionPixelSize(R.dimen.sequencer_cell_margin);
+        cells = new ToggleButton[PAD_COUNT][SequencerPattern.MAX_STEPS];
+        for (int pad = 0; pad < PAD_COUNT; pad++) {
+            // Nom du pad
+            TextView name = new TextView(this);
+            name.setSingleLine(true);
+            name.setGravity(Gravity.CENTER_VERTICAL);
+            name.setTextColor(getResources().getColor(R.color.colorAccent, getTheme()));
+            LinearLayout.LayoutParams nameParams = new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, size);
+            nameParams.setMargins(0, margin, 0, margin);
+            sequencerNames.addView(name, nameParams);
+            // Pas du pad
+            LinearLayout row = new LinearLayout(this);
+            row.setOrientation(LinearLayout.HORIZONTAL);
+            for (int step = 0; step < SequencerPattern.MAX_STEPS; step++) {
+                ToggleButton cell = new ToggleButton(this);
+                cell.setBackgroundResource(R.drawable.step_custom);
+                cell.setText("");
+                cell.setTextOn("");
+                cell.setTextOff("");
+                cell.setTag(pad * SequencerPattern.MAX_STEPS + step);
+                LinearLayout.LayoutParams cellParams = new LinearLayout.LayoutParams(size, size);
+                // Espace plus large au début de chaque temps
+                int startMargin = step % STEPS_PER_BEAT == 0 && step > 0 ? margin * 4 : margin;
+                cellParams.setMargins(startMargin, margin, margin, margin);
+                row.addView(cell, cellParams);
+                cells[pad][step] = cell;
+            }
+            sequencerGrid.addView(row);
+        }
+        tempoSeekbar.setMax(SequencerPattern.MAX_TEMPO - SequencerPattern.MIN_TEMPO);
+        lengthSeekbar.setMax(SequencerPattern.MAX_STEPS - 1);
+    }
+
+    /**
+     * Initialise les listeners
+     */
+    private void initListeners() {
+        backMainButton.setOnClickListener(this);
+        playButton.setOnCheckedChangeListener(this);
+        tempoSeekbar.setOnSeekBarChangeListener(this);
+        lengthSeekbar.setOnSeekBarChangeListener(this);
+        for (ToggleButton[] row : cells) {
+            for (ToggleButton cell : row) {
+                cell.setOnCheckedChangeListener(this);
+            }
+        }
+    }
+
+    /**
+     * Initialisation de l'affichage (noms des pads, motif, tempo et longueur)
+     */
+    private void initDisplay() {
+        for (int pad = 0; pad < PAD_COUNT; pad++) {
+            ((TextView) sequencerNames.getChildAt(pad)).setText(listSample.get(pad).name());
+            for (int step = 0; step < SequencerPattern.MAX_STEPS; step++) {
+                cells[pad][step].setChecked(pattern.isActive(pad, step));
+            }
+        }
+        tempoSeekbar.setProgress(pattern.getTempo() - SequencerPattern.MIN_TEMPO);
+        lengthSeekbar.setProgress(pattern.getLength() - 1);
+        displayTempo();
+        displayLength();
+    }
+
+    /**
+     * Affiche le tempo du motif
+     */
+    private void displayTempo() {
+        tempoText.setText(getString(R.string.sequencer_tempo, pattern.getTempo()));
+    }
+
+    /**
+     * Affiche la longueur du motif et masque les pas au-delà
+     */
+    private void displayLength() {
+        lengthText.setText(getString(R.string.sequencer_length, pattern.getLength()));
+        for (ToggleButton[] row : cells) {
+            for (int step = 0; step < row.length; step++) {
+                row[step].setVisibility(step < pattern.getLength() ? View.VISIBLE : View.GONE);
+            }
+        }
+    }
+
+    /**
+     * Enregistre le motif du séquenceur
+     */
+    private void savePattern() {
+        if (pattern == null) {
+            return;
+        }
+        try {
+            musicCtrl.saveSequencerPattern(this);
+        } catch (TechnicalException tex) {
+            Log.e("ERROR", tex.getMessage());
+            Toast.makeText(this, R.string.sequencer_save_fail, Toast.LENGTH_LONG).show();
+        }
+    }
+
+    /**
+     * Lors du clic sur le bouton 'Retour'
+     *
+     * @param view View
+     */
+    @Override
+    public void onClick(View view) {
+        if (view == backMainButton) {
+            closeActivity();
+        }
+    }
+
+    /**
+     * Lors du clic sur le bouton de lecture ou sur un pas du motif
+     *
+     * @param buttonView CompoundButton
+     * @param isChecked  boolean
+     */
+    @Override
+    public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
+        if (buttonView == playButton) {
+            if (!isChecked) {
+                musicCtrl.stopSequencer();
+            } else if (!musicCtrl.startSequencer()) {
+                Toast.makeText(this, R.string.sequencer_unavailable, Toast.LENGTH_LONG).show();
+                playButton.setChecked(false);
+            }
+        } else if (pattern != null && buttonView.getTag() instanceof Integer) {
+            // Active / désactive le pad au pas du bouton
+            int tag = (Integer) buttonView.getTag();
+            pattern.setActive(tag / SequencerPattern.MAX_STEPS, tag % SequencerPattern.MAX_STEPS, isChecked);
+            musicCtrl.updateSequencer();
+        }
+    }
+
+    /**
+     * Lors du changement du tempo ou de la longueur du motif
+     *
+     * @param seekBar  SeekBar
+     * @param progress int
+     * @param fromUser boolean
+     */
+    @Override
+    public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+        if (pattern == null || !fromUser) {
+            return;
+        }
+        if (seekBar == tempoSeekbar) {
+            pattern.setTempo(SequencerPattern.MIN_TEMPO + progress);
+            displayTempo();
+        } else if (seekBar == lengthSeekbar) {
+            pattern.setLength(progress + 1);
+            displayLength();
+        }
+        musicCtrl.updateSequencer();
+    }
+
+    /**
+     * Inutilisé
+     */
+    @Override
+    public void onStartTrackingTouch(SeekBar seekBar) {
+    }
+
+    @Override
+    public void onStopTrackingTouch(SeekBar seekBar) {
+    }
+
+    /**
+     * Lors de la fin de lecture d'un pad (inutilisé : aucun bouton à désactiver)
+     *
+     * @param pad int
+     */
+    @Override
+    public void onPadCompleted(int pad) {
+    }
+
+    /**
+     * Ferme l'activité
+     */
+    private void closeActivity() {
+        finish();
+    }
+
+}
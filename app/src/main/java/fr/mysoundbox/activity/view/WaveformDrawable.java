@@ -0,0 +1,103 @@
+package fr.mysoundbox.activity.view;
+
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import fr.mysoundbox.audio.PeakIndex;
+
+/**
+ * Drawable de la forme d'onde d'un sample, dessinée depuis son index de crêtes
+ * Une ligne verticale (min -> max) par colonne, lue dans le niveau de l'index adapté à la largeur : coût constant quelle que soit la durée du sample
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class WaveformDrawable extends Drawable {
+
+    /**
+     * Attributs
+     */
+    private static final float COLUMN_WIDTH_PX = 2f;
+
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private PeakIndex peakIndex;
+
+    /**
+     * Constructeur
+     *
+     * @param color int
+     */
+    public WaveformDrawable(int color) {
+        paint.setColor(color);
+        paint.setStrokeWidth(COLUMN_WIDTH_PX / 2);
+    }
+
+    /**
+     * Dessine la forme d'onde
+     *
+     * @param canvas Canvas
+     */
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        Rect bounds = getBounds();
+        float centerY = bounds.exactCenterY();
+        if (peakIndex == null || bounds.width() <= 0) {
+            // Pas encore d'index : ligne médiane
+            canvas.drawLine(bounds.left, centerY, bounds.right, centerY, paint);
+            return;
+        }
+        int columns = Math.max(1, (int) (bounds.width() / COLUMN_WIDTH_PX));
+        int level = peakIndex.selectLevel(columns);
+        int count = peakIndex.getCount(level);
+        float halfHeight = bounds.height() / 2f;
+        for (int c = 0; c < columns; c++) {
+            // Entrées du niveau couvertes par la colonne (au plus quelques-unes)
+            int first = (int) ((long) c * count / columns);
+            int last = Math.max(first + 1, (int) ((long) (c + 1) * count / columns));
+            int min = 0;
+            int max = 0;
+            for (int i = first; i < last && i < count; i++) {
+                min = Math.min(min, peakIndex.getMin(level, i));
+                max = Math.max(max, peakIndex.getMax(level, i));
+            }
+            float x = bounds.left + c * COLUMN_WIDTH_PX + COLUMN_WIDTH_PX / 2;
+            float top = centerY - max / 32768f * halfHeight;
+            float bottom = centerY - min / 32768f * halfHeight;
+            canvas.drawLine(x, top, x, Math.max(bottom, top + 1), paint);
+        }
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        paint.setAlpha(alpha);
+        invalidateSelf();
+    }
+
+    @Override
+    public void setColorFilter(@Nullable ColorFilter colorFilter) {
+        paint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public void setPeakIndex(PeakIndex peakIndex) {
+        this.peakIndex = peakIndex;
+        invalidateSelf();
+    }
+
+}
@@ -0,0 +1,39 @@
+package fr.mysoundbox.audio;
+
+import android.content.Context;
+import android.net.Uri;
+
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Interface d'un décodeur audio : lit un fichier et transmet ses frames en PCM 16 bits stéréo au fil du décodage
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public interface AudioDecoder {
+
+    /**
+     * Récupère la durée et la taille du fichier audio de l'Uri, sans le décoder
+     *
+     * @param context Context
+     * @param uri     Uri
+     * @return SampleInfo
+     * @throws TechnicalException TechnicalException
+     */
+    SampleInfo probe(Context context, Uri uri) throws TechnicalException;
+
+    /**
+     * Décode le début du fichier audio de l'Uri (au plus maxFrames frames) en transmettant les frames au fil de l'eau
+     *
+     * @param context   Context
+     * @param uri       Uri
+     * @param maxFrames int
+     * @param sink      FrameSink
+     * @return int fréquence d'échantillonnage
+     * @throws TechnicalException TechnicalException
+     */
+    int decode(Context context, Uri uri, int maxFrames, FrameSink sink) throws TechnicalException;
+
+}
@@ -0,0 +1,299 @@
+package fr.mysoundbox.audio;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioManager;
+import android.media.AudioTrack;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+/**
+ * Moteur de lecture basse latence : les samples pré-décodés en PCM sont mixés (polyphonie) et joués via un AudioTrack alimenté par un thread de rendu
+ * Le déclenchement d'un pad ne fait que démarrer une voix du mixeur, aucun décodeur n'est construit
+ * Le séquenceur est évalué dans la boucle de rendu : ses pas découpent le bloc pour démarrer les voix à la frame exacte
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class AudioEngine {
+
+    /**
+     * Attributs
+     */
+    private static final int DEFAULT_SAMPLE_RATE = 44100;
+    private static final int DEFAULT_FRAMES_PER_BUFFER = 256;
+
+    private final Mixer mixer;
+    private final Sequencer sequencer;
+    private final LatencyMonitor latencyMonitor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable[] completionTasks;
+    private final int outputSampleRate;
+    private final int framesPerBuffer;
+    private volatile PlaybackListener listener;
+    private AudioTrack audioTrack;
+    private Thread renderThread;
+    private volatile boolean running = false;
+
+    /**
+     * Constructeur
+     *
+     * @param context        Context
+     * @param padCount       int
+     * @param maxVoices      int (nombre de voix simultanées)
+     * @param latencyMonitor LatencyMonitor
+     */
+    public AudioEngine(Context context, int padCount, int maxVoices, LatencyMonitor latencyMonitor) {
+        // Récupère la fréquence et la taille de buffer natives du périphérique (chemin 'fast mixer')
+        AudioManager audioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
+        this.outputSampleRate = queryOutputSampleRate(context);
+        this.framesPerBuffer = parseProperty(audioManager, AudioManager.PROPERTY_OUTPUT_FRAMES_PER_BUFFER, DEFAULT_FRAMES_PER_BUFFER);
+        this.latencyMonitor = latencyMonitor;
+        this.mixer = new Mixer(padCount, maxVoices, framesPerBuffer, outputSampleRate, this::notifyCompleted);
+        this.sequencer = new Sequencer(outputSampleRate);
+        // Pré-alloue une notification de fin par pad (aucune allocation sur le thread de rendu)
+        this.completionTasks = new Runnable[padCount];
+        for (int pad = 0; pad < padCount; pad++) {
+            final int completedPad = pad;
+            completionTasks[pad] = () -> {
+                PlaybackListener currentListener = listener;
+                if (currentListener != null) {
+                    currentListener.onPadCompleted(completedPad);
+                }
+            };
+        }
+    }
+
+    /**
+     * Démarre l'AudioTrack et le thread de rendu
+     *
+     * @param listener PlaybackListener
+     */
+    public synchronized void start(PlaybackListener listener) {
+        this.listener = listener;
+        if (running) {
+            return;
+        }
+        int minBufferSize = AudioTrack.getMinBufferSize(outputSampleRate, AudioFormat.CHANNEL_OUT_STEREO, AudioFormat.ENCODING_PCM_16BIT);
+        audioTrack = new AudioTrack.Builder()
+                .setAudioAttributes(new AudioAttributes.Builder()
+                        .setUsage(AudioAttributes.USAGE_MEDIA)
+                        .setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
+                        .build())
+                .setAudioFormat(new AudioFormat.Builder()
+                        .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                        .setSampleRate(outputSampleRate)
+                        .setChannelMask(AudioFormat.CHANNEL_OUT_STEREO)
+                        .build())
+                .setBufferSizeInBytes(minBufferSize)
+                .setTransferMode(AudioTrack.MODE_STREAM)
+                .setPerformanceMode(AudioTrack.PERFORMANCE_MODE_LOW_LATENCY)
+                .build();
+        audioTrack.play();
+        running = true;
+        renderThread = new Thread(this::render, "AudioEngine");
+        renderThread.start();
+        Log.e("INFO", "AudioEngine démarré (" + outputSampleRate + " Hz, " + framesPerBuffer + " frames)");
+    }
+
+    /**
+     * Arrête le thread de rendu et libère l'AudioTrack
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            renderThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        renderThread = null;
+        audioTrack.stop();
+        audioTrack.release();
+        audioTrack = null;
+        listener = null;
+    }
+
+    /**
+     * Change l'écran notifié des fins de lecture (null : aucun), sans arrêter le moteur
+     *
+     * @param listener PlaybackListener
+     */
+    public void setListener(PlaybackListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Charge le sample décodé d'un pad
+     *
+     * @param pad     int
+     * @param decoded DecodedSample
+     */
+    public void setSample(int pad, DecodedSample decoded) {
+        mixer.setSample(pad, decoded);
+    }
+
+    /**
+     * Définit le décalage de départ d'un pad (silence initial sauté)
+     *
+     * @param pad           int
+     * @param startOffsetUs long
+     */
+    public void setStartOffset(int pad, long startOffsetUs) {
+        mixer.setStartOffset(pad, startOffsetUs);
+    }
+
+    /**
+     * Définit le mode de lecture en boucle d'un pad
+     *
+     * @param pad  int
+     * @param loop boolean
+     */
+    public void setLoop(int pad, boolean loop) {
+        mixer.setLoop(pad, loop);
+    }
+
+    /**
+     * Définit la durée du fondu de sortie appliqué à l'arrêt d'un pad
+     *
+     * @param fadeOutMs int (0 : arrêt immédiat)
+     */
+    public void setFadeOut(int fadeOutMs) {
+        mixer.setFadeFrames((int) ((long) fadeOutMs * outputSampleRate / 1000));
+    }
+
+    /**
+     * Charge le flux d'un pad lu en streaming (ou null si le pad est entièrement décodé)
+     *
+     * @param pad    int
+     * @param stream SampleStream
+     */
+    public void setStream(int pad, SampleStream stream) {
+        mixer.setStream(pad, stream);
+    }
+
+    /**
+     * Indique si le sample du pad est prêt à être joué
+     *
+     * @param pad int
+     * @return boolean
+     */
+    public boolean isLoaded(int pad) {
+        return mixer.isLoaded(pad);
+    }
+
+    /**
+     * Démarre la lecture d'un pad (renvoi false si le sample n'est pas encore décodé)
+     *
+     * @param pad int
+     * @return boolean
+     */
+    public boolean trigger(int pad) {
+        if (!running || !mixer.isLoaded(pad)) {
+            return false;
+        }
+        mixer.trigger(pad);
+        return true;
+    }
+
+    /**
+     * Arrête la lecture d'un pad
+     *
+     * @param pad int
+     */
+    public void stopVoice(int pad) {
+        mixer.stop(pad);
+    }
+
+    /**
+     * Boucle de rendu (thread audio) : aucune allocation ni verrou après l'allocation initiale du bloc
+     */
+    private void render() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+        short[] block = new short[framesPerBuffer * DecodedSample.CHANNEL_COUNT];
+        while (running) {
+            // Mixe les voix actives, par morceaux délimités par les pas du séquenceur, puis écrit le bloc (bloquant)
+            // Les démarrages du séquenceur en début de bloc sont comptés : remise à zéro avant process()
+            mixer.beginBlock();
+            int offset = 0;
+            while (offset < framesPerBuffer) {
+                int frames = sequencer.process(mixer, framesPerBuffer - offset);
+                mixer.render(block, offset, frames);
+                sequencer.advance(frames);
+                offset += frames;
+            }
+            int started = mixer.getStartedCount();
+            for (int i = 0; i < started; i++) {
+                latencyMonitor.markReady(mixer.getStartedPad(i));
+            }
+            audioTrack.write(block, 0, block.length);
+            for (int i = 0; i < started; i++) {
+                latencyMonitor.markFirstFrame(mixer.getStartedPad(i));
+            }
+        }
+        // Coupe les voix restantes
+        mixer.reset();
+    }
+
+    /**
+     * Notifie la fin de lecture (ou le vol de voix) d'un pad sur le thread UI
+     *
+     * @param pad int
+     */
+    private void notifyCompleted(int pad) {
+        // Tâche pré-allouée, le Message est recyclé par le Handler
+        mainHandler.post(completionTasks[pad]);
+    }
+
+    /**
+     * Récupère la fréquence d'échantillonnage native de la sortie du périphérique
+     *
+     * @param context Context
+     * @return int
+     */
+    public static int queryOutputSampleRate(Context context) {
+        AudioManager audioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
+        return parseProperty(audioManager, AudioManager.PROPERTY_OUTPUT_SAMPLE_RATE, DEFAULT_SAMPLE_RATE);
+    }
+
+    /**
+     * Récupère une propriété numérique de l'AudioManager
+     *
+     * @param audioManager AudioManager
+     * @param key          String
+     * @param defaultValue int
+     * @return int
+     */
+    private static int parseProperty(AudioManager audioManager, String key, int defaultValue) {
+        int value = defaultValue;
+        if (audioManager != null) {
+            try {
+                String property = audioManager.getProperty(key);
+                if (property != null) {
+                    value = Integer.parseInt(property);
+                }
+            } catch (NumberFormatException ex) {
+                Log.e("ERROR", "Propriété audio invalide : " + key);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public int getOutputSampleRate() {
+        return outputSampleRate;
+    }
+
+    public Sequencer getSequencer() {
+        return sequencer;
+    }
+
+}
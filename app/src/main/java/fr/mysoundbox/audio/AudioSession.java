@@ -0,0 +1,824 @@
+package fr.mysoundbox.audio;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.MediaPlayer;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import fr.mysoundbox.MySoundBoxApplication;
+import fr.mysoundbox.bean.Sample;
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Session audio de l'application : moteur de lecture (un seul AudioTrack), pool de MediaPlayer, threads de travail et de décodage, état des 12 pads
+ * Partagée par toutes les activités : chacune l'acquiert puis la libère, les ressources ne sont libérées qu'au départ de la dernière
+ * Le moteur tourne tant qu'au moins une activité l'a démarré ; les notifications de fin de lecture vont à la dernière activité démarrée
+ * Toutes les méthodes publiques sont appelées depuis le thread UI
+ * Les tables des pads (Uri, boucle, flux) ne sont lues et modifiées que sur le thread UI : le thread de décodage y renvoie ses résultats, chargés uniquement dans les pads qui utilisent encore l'Uri
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class AudioSession {
+
+    /**
+     * Attributs
+     */
+    private static final int PAD_COUNT = 12;
+    private static final int MAX_VOICES = 8;
+    // Au-delà de ces seuils, le sample est lu en flux plutôt qu'entièrement décodé
+    private static final long STREAM_MIN_DURATION_US = 30_000_000L;
+    private static final long STREAM_MIN_SIZE_BYTES = 5L * 1024 * 1024;
+    private static final int STREAM_HEAD_SECONDS = 1;
+    private static final int STREAM_RING_SECONDS = 2;
+    // Fondu de sortie par défaut à l'arrêt d'un pad (supprime le clic d'un arrêt brutal)
+    public static final int DEFAULT_FADE_OUT_MS = 15;
+
+    private final Context context;
+    private final SampleStore sampleStore;
+    private final LatencyMonitor latencyMonitor = new LatencyMonitor(PAD_COUNT);
+    private final Uri[] padUris = new Uri[PAD_COUNT];
+    private final boolean[] padLoops = new boolean[PAD_COUNT];
+    private final long[] padStartOffsetsUs = new long[PAD_COUNT];
+    // Un seul flux par Uri, partagé par les pads qui l'utilisent ; seul le dernier pad déclenché le lit (propriétaire)
+    private final SampleStream[] padStreams = new SampleStream[PAD_COUNT];
+    private final boolean[] padStreamOwners = new boolean[PAD_COUNT];
+    private final Set<Uri> pendingDecodes = new HashSet<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private AudioEngine audioEngine;
+    private MediaPlayerPool mediaPlayerPool;
+    private AudioWorker audioWorker;
+    private ExecutorService decodeExecutor;
+    private PeakIndexCache peakIndexCache;
+    private PlaybackListener listener;
+    // Lue par le thread de décodage (choix du cache disque)
+    private volatile Resampler.Quality resampleQuality = Resampler.Quality.SINC;
+    private int fadeOutMs = DEFAULT_FADE_OUT_MS;
+    private int users = 0;
+    private int startedUsers = 0;
+
+    /**
+     * Constructeur
+     *
+     * @param context     Context (de l'application)
+     * @param sampleStore SampleStore (magasin de l'application)
+     */
+    public AudioSession(Context context, SampleStore sampleStore) {
+        this.context = context.getApplicationContext();
+        this.sampleStore = sampleStore;
+    }
+
+    /**
+     * Acquiert la session (une fois par activité, à libérer avec release)
+     */
+    public void acquire() {
+        users++;
+    }
+
+    /**
+     * Libère la session : au départ de la dernière activité, arrête et libère le moteur, le pool, les flux et les threads
+     * Le magasin des samples, porté par l'application, est conservé
+     */
+    public void release() {
+        if (users == 0 || --users > 0) {
+            return;
+        }
+        AudioEngine engine = audioEngine;
+        MediaPlayerPool pool = mediaPlayerPool;
+        if (engine != null || pool != null) {
+            getAudioWorker().post(() -> {
+                if (engine != null) {
+                    engine.stop();
+                }
+                if (pool != null) {
+                    pool.release();
+                }
+            });
+        }
+        startedUsers = 0;
+        listener = null;
+        mediaPlayerPool = null;
+        if (decodeExecutor != null) {
+            decodeExecutor.shutdown();
+            decodeExecutor = null;
+        }
+        for (int pad = 0; pad < PAD_COUNT; pad++) {
+            releaseStream(pad);
+        }
+        Arrays.fill(padUris, null);
+        Arrays.fill(padLoops, false);
+        Arrays.fill(padStartOffsetsUs, 0);
+        audioEngine = null;
+        if (audioWorker != null) {
+            audioWorker.quit();
+            audioWorker = null;
+        }
+    }
+
+    /**
+     * Initialise le moteur de lecture et le pool si besoin puis charge les samples dans les pads (seuls les pads modifiés sont rechargés)
+     *
+     * @param listSample List<Sample>
+     */
+    public void loadPads(List<Sample> listSample) {
+        if (audioEngine == null) {
+            audioEngine = new AudioEngine(context, PAD_COUNT, MAX_VOICES, latencyMonitor);
+            audioEngine.setFadeOut(fadeOutMs);
+        }
+        if (mediaPlayerPool == null) {
+            mediaPlayerPool = new MediaPlayerPool(getAudioWorker(), PAD_COUNT);
+        }
+        for (int pad = 0; pad < listSample.size(); pad++) {
+            loadPad(pad, listSample.get(pad));
+        }
+    }
+
+    /**
+     * Charge le sample d'un pad dans le moteur de lecture (depuis le magasin, en flux ou par décodage en arrière-plan)
+     * Ignoré tant que le moteur n'est pas initialisé (voir loadPads)
+     *
+     * @param pad    int (0 à 11)
+     * @param sample Sample
+     */
+    public void loadPad(int pad, Sample sample) {
+        AudioEngine engine = audioEngine;
+        if (engine == null) {
+            return;
+        }
+        // Reconstruit l'entrée du pool uniquement si le sample du pad a changé
+        updatePooledPlayer(pad, sample);
+        Uri uri = sample.uri();
+        padUris[pad] = uri;
+        padLoops[pad] = sample.loop();
+        padStartOffsetsUs[pad] = sample.startOffsetUs();
+        engine.setStartOffset(pad, sample.startOffsetUs());
+        engine.setLoop(pad, padLoops[pad]);
+        SampleStream stream = padStreams[pad];
+        if (stream != null && stream.getUri().equals(uri)) {
+            // Déjà chargé en flux (la boucle est appliquée au prochain déclenchement)
+            return;
+        }
+        releaseStream(pad);
+        SampleStream shared = findStream(uri);
+        if (shared != null) {
+            // Déjà lu en flux par un autre pad
+            attachStream(pad, shared);
+            return;
+        }
+        DecodedSample stored = sampleStore.peek(uri);
+        if (stored != null) {
+            // Déjà chargé
+            engine.setSample(pad, stored);
+        } else {
+            // Vide le pad puis le charge en arrière-plan
+            engine.setSample(pad, null);
+            scheduleDecode(uri);
+        }
+    }
+
+    /**
+     * Reconstruit l'entrée du pool d'un pad sur le thread de travail audio si son sample a changé
+     *
+     * @param pad    int
+     * @param sample Sample
+     */
+    public void updatePooledPlayer(int pad, Sample sample) {
+        MediaPlayerPool pool = mediaPlayerPool;
+        if (pool != null && sample != null) {
+            getAudioWorker().post(() -> {
+                if (pool.needsUpdate(pad, sample)) {
+                    pool.put(pad, sample, openMediaPlayer(context, sample));
+                }
+                pool.setStartOffset(pad, sample.startOffsetUs());
+                pool.setLoop(pad, sample.loop());
+            });
+        }
+    }
+
+    /**
+     * Planifie le chargement d'une Uri sur le thread de décodage (une seule fois à la fois par Uri)
+     *
+     * @param uri Uri
+     */
+    private void scheduleDecode(Uri uri) {
+        AudioEngine engine = audioEngine;
+        if (engine == null) {
+            return;
+        }
+        synchronized (pendingDecodes) {
+            if (!pendingDecodes.add(uri)) {
+                return;
+            }
+        }
+        int outputSampleRate = engine.getOutputSampleRate();
+        getDecodeExecutor().execute(() -> decodeSample(uri, outputSampleRate));
+    }
+
+    /**
+     * Décode un sample (ou le projette en mémoire depuis le cache disque) et l'ajoute au magasin (thread de décodage)
+     * Le chargement dans les pads est fait sur le thread UI (voir onSampleLoaded)
+     * Les samples longs ou volumineux ne sont jamais décodés entièrement, même joués en boucle : ils sont lus en flux (voir loadStream)
+     *
+     * @param uri              Uri
+     * @param outputSampleRate int (fréquence de sortie du moteur)
+     */
+    private void decodeSample(Uri uri, int outputSampleRate) {
+        try {
+            if (isStreamed(uri)) {
+                loadStream(uri, outputSampleRate);
+                return;
+            }
+            DecodedSample decoded = sampleStore.peek(uri);
+            List<Uri> evicted = new ArrayList<>();
+            if (decoded == null) {
+                evicted = sampleStore.put(uri, getPcmDiskCache().load(context, uri));
+                decoded = sampleStore.peek(uri);
+            }
+            final DecodedSample result = decoded;
+            final List<Uri> evictedUris = evicted;
+            mainHandler.post(() -> onSampleLoaded(uri, result, evictedUris));
+        } catch (TechnicalException tex) {
+            Log.e("AudioSession", tex.getMessage());
+        } finally {
+            synchronized (pendingDecodes) {
+                pendingDecodes.remove(uri);
+            }
+        }
+    }
+
+    /**
+     * Charge un sample décodé dans les pads qui utilisent encore son Uri (thread UI)
+     * Les pads dont le sample a été évincé du magasin sont vidés, ils seront rechargés à leur prochain déclenchement
+     *
+     * @param uri     Uri
+     * @param decoded DecodedSample
+     * @param evicted List<Uri> (Uri évincées du magasin par ce chargement)
+     */
+    private void onSampleLoaded(Uri uri, DecodedSample decoded, List<Uri> evicted) {
+        AudioEngine engine = audioEngine;
+        if (engine == null) {
+            // Session libérée entre-temps
+            return;
+        }
+        for (int pad = 0; pad < PAD_COUNT; pad++) {
+            if (padUris[pad] == null || padStreams[pad] != null) {
+                continue;
+            }
+            if (uri.equals(padUris[pad])) {
+                engine.setSample(pad, decoded);
+            } else if (evicted.contains(padUris[pad])) {
+                engine.setSample(pad, null);
+            }
+        }
+    }
+
+    /**
+     * Indique si un sample doit être lu en flux (durée ou taille au-delà des seuils)
+     * Le fichier n'est interrogé qu'une fois : ses informations sont conservées dans le magasin
+     *
+     * @param uri Uri
+     * @return boolean
+     */
+    private boolean isStreamed(Uri uri) {
+        if (sampleStore.peek(uri) != null) {
+            return false;
+        }
+        try {
+            SampleInfo info = sampleStore.getInfo(uri);
+            if (info == null) {
+                info = SampleDecoder.probe(context, uri);
+                sampleStore.putInfo(uri, info);
+            }
+            return info.durationUs() > STREAM_MIN_DURATION_US || info.sizeBytes() > STREAM_MIN_SIZE_BYTES;
+        } catch (TechnicalException tex) {
+            // Laisse le décodage complet remonter l'erreur
+            return false;
+        }
+    }
+
+    /**
+     * Décode uniquement la tête d'un sample long puis crée son flux (thread de décodage)
+     * La suite est décodée à la volée dans un buffer circulaire borné : la mémoire reste constante quelle que soit la durée
+     * Le flux n'est chargé dans les pads que sur le thread UI (voir onStreamLoaded) ; il ne démarre qu'au premier déclenchement
+     *
+     * @param uri              Uri
+     * @param outputSampleRate int (fréquence de sortie du moteur)
+     * @throws TechnicalException TechnicalException
+     */
+    private void loadStream(Uri uri, int outputSampleRate) throws TechnicalException {
+        DecodedSample head = SampleDecoder.decode(context, uri, STREAM_HEAD_SECONDS * outputSampleRate);
+        // Gain de normalisation estimé sur la tête (le reste n'est jamais entièrement en mémoire)
+        head = head.withGain(SampleAnalyzer.computeGain(head));
+        SampleStream stream = new SampleStream(context, uri, head, STREAM_RING_SECONDS * head.sampleRate());
+        Log.e("INFO", "Sample lu en flux : " + uri);
+        mainHandler.post(() -> onStreamLoaded(uri, stream));
+    }
+
+    /**
+     * Charge un flux dans les pads qui utilisent encore son Uri, partagé par tous ces pads (thread UI)
+     * Si un flux de la même Uri est déjà utilisé, il est conservé ; un flux qui n'est chargé dans aucun pad n'a jamais démarré et n'a rien à libérer
+     *
+     * @param uri    Uri
+     * @param opened SampleStream (flux créé par le thread de décodage)
+     */
+    private void onStreamLoaded(Uri uri, SampleStream opened) {
+        if (audioEngine == null) {
+            // Session libérée entre-temps
+            return;
+        }
+        SampleStream existing = findStream(uri);
+        SampleStream stream = existing != null ? existing : opened;
+        for (int pad = 0; pad < PAD_COUNT; pad++) {
+            if (uri.equals(padUris[pad]) && padStreams[pad] != stream) {
+                attachStream(pad, stream);
+            }
+        }
+    }
+
+    /**
+     * Récupère le flux d'une Uri s'il est déjà utilisé par un pad
+     *
+     * @param uri Uri
+     * @return SampleStream (ou null)
+     */
+    private SampleStream findStream(Uri uri) {
+        for (SampleStream stream : padStreams) {
+            if (stream != null && stream.getUri().equals(uri)) {
+                return stream;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Charge un flux dans un pad (le flux précédent du pad est libéré)
+     *
+     * @param pad    int
+     * @param stream SampleStream
+     */
+    private void attachStream(int pad, SampleStream stream) {
+        releaseStream(pad);
+        AudioEngine engine = audioEngine;
+        if (engine != null) {
+            engine.setStream(pad, stream);
+            engine.setSample(pad, stream.getHead());
+        }
+        padStreams[pad] = stream;
+    }
+
+    /**
+     * Retire le flux d'un pad ; le flux est arrêté (thread de décodage terminé) s'il n'est plus utilisé par aucun pad
+     *
+     * @param pad int
+     */
+    private void releaseStream(int pad) {
+        SampleStream stream = padStreams[pad];
+        if (stream != null) {
+            padStreams[pad] = null;
+            padStreamOwners[pad] = false;
+            if (audioEngine != null) {
+                audioEngine.setStream(pad, null);
+            }
+            if (findStream(stream.getUri()) != stream) {
+                stream.stop();
+            }
+        }
+    }
+
+    /**
+     * Donne le flux d'un pad à ce pad avant son déclenchement : les autres pads du même flux sont arrêtés (une seule position de lecture)
+     *
+     * @param pad    int
+     * @param stream SampleStream
+     */
+    private void takeStream(int pad, SampleStream stream) {
+        for (int other = 0; other < PAD_COUNT; other++) {
+            if (other != pad && padStreams[other] == stream && padStreamOwners[other]) {
+                audioEngine.stopVoice(other);
+                padStreamOwners[other] = false;
+            }
+        }
+        padStreamOwners[pad] = true;
+    }
+
+    /**
+     * Pré-charge en arrière-plan des samples dans le cache disque PCM (décodage et ré-échantillonnage faits d'avance)
+     * Les samples ne sont pas ajoutés au magasin : ils n'évincent pas ceux des pads courants
+     *
+     * @param listSample List<Sample>
+     */
+    public void prewarm(List<Sample> listSample) {
+        PcmDiskCache cache = getPcmDiskCache();
+        for (Sample sample : listSample) {
+            Uri uri = sample.uri();
+            getDecodeExecutor().execute(() -> {
+                if (sampleStore.peek(uri) != null || isStreamed(uri)) {
+                    return;
+                }
+                try {
+                    cache.load(context, uri);
+                } catch (TechnicalException tex) {
+                    Log.e("AudioSession", tex.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Retire un sample du magasin puis supprime en arrière-plan ses entrées des caches disque (PCM et crêtes)
+     *
+     * @param uri Uri
+     */
+    public void invalidate(Uri uri) {
+        sampleStore.remove(uri);
+        PcmDiskCache cache = getPcmDiskCache();
+        PeakIndexCache peaks = getPeakIndexCache();
+        getDecodeExecutor().execute(() -> {
+            cache.invalidate(uri);
+            peaks.invalidate(uri);
+        });
+    }
+
+    /**
+     * Démarre le moteur de lecture sur le thread de travail audio (ou change seulement l'activité notifiée s'il tourne déjà)
+     *
+     * @param listener PlaybackListener
+     */
+    public void start(PlaybackListener listener) {
+        startedUsers++;
+        this.listener = listener;
+        AudioEngine engine = audioEngine;
+        if (engine != null) {
+            getAudioWorker().post(() -> engine.start(listener));
+        }
+        if (mediaPlayerPool != null) {
+            mediaPlayerPool.setListener(listener);
+        }
+    }
+
+    /**
+     * Arrête les pads en cours de lecture (l'écran qui les a lancés n'est plus visible)
+     * Le moteur et le pool ne sont arrêtés qu'au départ de la dernière activité démarrée
+     *
+     * @param listener PlaybackListener (activité qui s'arrête)
+     */
+    public void stop(PlaybackListener listener) {
+        if (startedUsers == 0) {
+            return;
+        }
+        AudioEngine engine = audioEngine;
+        MediaPlayerPool pool = mediaPlayerPool;
+        if (--startedUsers == 0) {
+            this.listener = null;
+            if (engine != null || pool != null) {
+                getAudioWorker().post(() -> {
+                    if (engine != null) {
+                        engine.stop();
+                    }
+                    if (pool != null) {
+                        pool.stopAll();
+                    }
+                });
+            }
+            return;
+        }
+        for (int pad = 0; pad < PAD_COUNT; pad++) {
+            stopPad(pad);
+        }
+        if (this.listener == listener) {
+            // Plus aucune activité visible à notifier
+            this.listener = null;
+            if (engine != null) {
+                getAudioWorker().post(() -> engine.setListener(null));
+            }
+            if (pool != null) {
+                pool.setListener(null);
+            }
+        }
+    }
+
+    /**
+     * Démarre la lecture d'un pad selon le mode de lecture, sans bloquer le thread UI
+     * En mode AUDIO_TRACK, le pool sert de repli tant que le sample n'est pas décodé
+     * La latence n'est mesurée que pour une voix démarrée par le moteur
+     * Le callback reçoit le résultat du déclenchement sur le thread UI
+     *
+     * @param pad          int (0 à 11)
+     * @param playbackMode PlaybackMode
+     * @param touchMs      long (horodatage du toucher, 0 si aucun)
+     * @param callback     TriggerCallback
+     */
+    public void play(int pad, PlaybackMode playbackMode, long touchMs, TriggerCallback callback) {
+        if (playbackMode == PlaybackMode.AUDIO_TRACK && audioEngine != null && padUris[pad] != null) {
+            SampleStream stream = padStreams[pad];
+            if (stream != null) {
+                // Sample lu en flux : relance le décodage après la tête (en boucle depuis le décalage de départ si le pad boucle)
+                takeStream(pad, stream);
+                stream.restart(padLoops[pad], padStartOffsetsUs[pad] * stream.getHead().sampleRate() / 1_000_000L);
+                if (triggerEngine(pad, touchMs)) {
+                    callback.onTriggered(pad, true);
+                    return;
+                }
+                stream.stop();
+                padStreamOwners[pad] = false;
+            } else if (sampleStore.touch(padUris[pad])) {
+                // Marque le sample comme déclenché, ou le recharge s'il a été évincé du magasin
+                if (triggerEngine(pad, touchMs)) {
+                    // Voix démarrée immédiatement
+                    callback.onTriggered(pad, true);
+                    return;
+                }
+            } else {
+                audioEngine.setSample(pad, null);
+                scheduleDecode(padUris[pad]);
+            }
+        }
+        if (mediaPlayerPool != null) {
+            MediaPlayerPool pool = mediaPlayerPool;
+            getAudioWorker().post(() -> pool.start(pad, callback));
+        } else {
+            callback.onTriggered(pad, false);
+        }
+    }
+
+    /**
+     * Démarre la voix d'un pad dans le moteur, en horodatant le toucher qui l'a déclenchée (mesure de latence)
+     *
+     * @param pad     int
+     * @param touchMs long (0 si le déclenchement ne vient pas d'un toucher)
+     * @return boolean
+     */
+    private boolean triggerEngine(int pad, long touchMs) {
+        if (touchMs != 0) {
+            latencyMonitor.markInput(pad, touchMs);
+        }
+        if (audioEngine.trigger(pad)) {
+            return true;
+        }
+        latencyMonitor.clearInput(pad);
+        return false;
+    }
+
+    /**
+     * Arrête la lecture d'un pad, sans bloquer le thread UI
+     *
+     * @param pad int (0 à 11)
+     */
+    public void stopPad(int pad) {
+        // Un arrêt n'est pas mesuré
+        latencyMonitor.clearInput(pad);
+        if (audioEngine != null) {
+            audioEngine.stopVoice(pad);
+        }
+        if (padStreams[pad] != null && padStreamOwners[pad]) {
+            // Le flux n'est arrêté que s'il est lu par ce pad
+            padStreams[pad].stop();
+            padStreamOwners[pad] = false;
+        }
+        if (mediaPlayerPool != null) {
+            MediaPlayerPool pool = mediaPlayerPool;
+            getAudioWorker().post(() -> pool.stop(pad));
+        }
+    }
+
+    /**
+     * Prépare les pads utilisés par le motif du séquenceur : samples marqués comme utilisés, ou rechargés s'ils ont été évincés du magasin
+     *
+     * @param padMask int (bit n : pad n utilisé)
+     */
+    public void preparePads(int padMask) {
+        for (int pad = 0; pad < PAD_COUNT; pad++) {
+            boolean used = (padMask & (1 << pad)) != 0;
+            if (used && padUris[pad] != null && padStreams[pad] == null && !sampleStore.touch(padUris[pad])) {
+                scheduleDecode(padUris[pad]);
+            }
+        }
+    }
+
+    /**
+     * Détecte en arrière-plan le silence en début de fichier d'un sample importé
+     * Le callback reçoit le décalage de départ sur le thread UI
+     *
+     * @param uri      Uri
+     * @param callback StartOffsetCallback
+     */
+    public void analyzeStartOffset(Uri uri, StartOffsetCallback callback) {
+        AudioWorker worker = getAudioWorker();
+        getDecodeExecutor().execute(() -> {
+            long startOffsetUs = 0;
+            try {
+                startOffsetUs = SampleAnalyzer.findStartOffsetUs(context, uri);
+            } catch (TechnicalException tex) {
+                Log.e("AudioSession", tex.getMessage());
+            }
+            final long result = startOffsetUs;
+            worker.postToMain(() -> callback.onStartOffsetAnalyzed(uri, result));
+        });
+    }
+
+    /**
+     * Charge en arrière-plan l'index de crêtes d'un sample (construit puis mis en cache au premier appel)
+     * Le callback reçoit l'index sur le thread UI
+     *
+     * @param uri      Uri
+     * @param callback PeakIndexCallback
+     */
+    public void loadPeakIndex(Uri uri, PeakIndexCallback callback) {
+        PeakIndexCache cache = getPeakIndexCache();
+        AudioWorker worker = getAudioWorker();
+        getDecodeExecutor().execute(() -> {
+            PeakIndex peakIndex = null;
+            try {
+                peakIndex = cache.load(context, uri);
+            } catch (TechnicalException tex) {
+                Log.e("AudioSession", tex.getMessage());
+            }
+            final PeakIndex result = peakIndex;
+            worker.postToMain(() -> callback.onPeakIndexLoaded(uri, result));
+        });
+    }
+
+    /**
+     * Créer et prépare le MediaPlayer en fonction du sample sur le thread de travail audio
+     * Le callback reçoit le MediaPlayer préparé (ou null) sur le thread UI
+     *
+     * @param sample   Sample
+     * @param callback MediaPlayerCallback
+     */
+    public void createMediaPlayerAsync(Sample sample, MediaPlayerCallback callback) {
+        AudioWorker worker = getAudioWorker();
+        worker.post(() -> {
+            MediaPlayer mp = openMediaPlayer(context, sample);
+            if (mp == null) {
+                worker.postToMain(() -> callback.onMediaPlayerReady(null));
+                return;
+            }
+            mp.setOnPreparedListener(preparedMp -> worker.postToMain(() -> callback.onMediaPlayerReady(preparedMp)));
+            mp.setOnErrorListener((errorMp, what, extra) -> {
+                Log.e("AudioSession", "Erreur MediaPlayer: " + what);
+                errorMp.release();
+                worker.postToMain(() -> callback.onMediaPlayerReady(null));
+                return true;
+            });
+            mp.prepareAsync();
+        });
+    }
+
+    /**
+     * Arrête et libère un MediaPlayer sur le thread de travail audio
+     *
+     * @param mp MediaPlayer
+     */
+    public void releaseMediaPlayer(MediaPlayer mp) {
+        if (mp != null) {
+            getAudioWorker().post(() -> {
+                try {
+                    mp.stop();
+                } catch (IllegalStateException ex) {
+                    Log.e("AudioSession", "MediaPlayer non démarré");
+                }
+                mp.release();
+            });
+        }
+    }
+
+    /**
+     * Créer le MediaPlayer et définit sa source en fonction du sample (sans le préparer)
+     *
+     * @param context Context
+     * @param sample  Sample
+     * @return MediaPlayer (ou null si la source est invalide)
+     */
+    private static MediaPlayer openMediaPlayer(Context context, Sample sample) {
+        MediaPlayer mp = null;
+        try {
+            Uri uri = sample.uri();
+            String scheme = uri.getScheme();
+
+            // Création du MediaPlayer
+            mp = new MediaPlayer();
+
+            // Traitement selon le schéma URI
+            if ("android.resource".equals(scheme)) {
+                // Pour les ressources internes
+                try (AssetFileDescriptor afd = context.getContentResolver().openAssetFileDescriptor(uri, "r")) {
+                    if (afd != null) {
+                        mp.setDataSource(afd.getFileDescriptor(), afd.getStartOffset(), afd.getLength());
+                    }
+                }
+            } else if ("file".equals(scheme)) {
+                // Pour les URI de type file://
+                mp.setDataSource(uri.getPath());
+            } else {
+                // Pour content:// et autres schémas
+                mp.setDataSource(context, uri);
+            }
+        } catch (Exception e) {
+            Log.e("AudioSession", "Erreur MediaPlayer: " + e.getMessage());
+            if (mp != null) {
+                mp.release();
+            }
+            mp = null;
+        }
+        return mp;
+    }
+
+    /**
+     * Récupère le cache disque des samples décodés de l'application pour la qualité courante
+     *
+     * @return PcmDiskCache
+     */
+    private PcmDiskCache getPcmDiskCache() {
+        return MySoundBoxApplication.getPcmDiskCache(context, resampleQuality);
+    }
+
+    /**
+     * Récupère le cache disque des index de crêtes (créé si besoin)
+     *
+     * @return PeakIndexCache
+     */
+    private PeakIndexCache getPeakIndexCache() {
+        if (peakIndexCache == null) {
+            peakIndexCache = new PeakIndexCache(context);
+        }
+        return peakIndexCache;
+    }
+
+    /**
+     * Récupère le thread de décodage (créé si besoin)
+     *
+     * @return ExecutorService
+     */
+    private ExecutorService getDecodeExecutor() {
+        if (decodeExecutor == null) {
+            decodeExecutor = Executors.newSingleThreadExecutor();
+        }
+        return decodeExecutor;
+    }
+
+    /**
+     * Récupère le thread de travail audio (créé si besoin)
+     *
+     * @return AudioWorker
+     */
+    private AudioWorker getAudioWorker() {
+        if (audioWorker == null) {
+            audioWorker = new AudioWorker();
+        }
+        return audioWorker;
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public Sequencer getSequencer() {
+        return audioEngine != null ? audioEngine.getSequencer() : null;
+    }
+
+    public LatencyMonitor getLatencyMonitor() {
+        return latencyMonitor;
+    }
+
+    public int getFadeOutMs() {
+        return fadeOutMs;
+    }
+
+    public void setFadeOutMs(int fadeOutMs) {
+        this.fadeOutMs = Math.max(0, fadeOutMs);
+        if (audioEngine != null) {
+            audioEngine.setFadeOut(this.fadeOutMs);
+        }
+    }
+
+    public Resampler.Quality getResampleQuality() {
+        return resampleQuality;
+    }
+
+    public void setResampleQuality(Resampler.Quality resampleQuality) {
+        if (resampleQuality == this.resampleQuality) {
+            return;
+        }
+        // Les chargements suivants utiliseront le cache de la nouvelle qualité (entrées distinctes)
+        this.resampleQuality = resampleQuality;
+        // Les samples du magasin ont été ré-échantillonnés avec l'ancienne qualité : les pads sont rechargés en arrière-plan
+        sampleStore.clear();
+        for (int pad = 0; pad < PAD_COUNT; pad++) {
+            if (padUris[pad] != null && padStreams[pad] == null) {
+                scheduleDecode(padUris[pad]);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package fr.mysoundbox.audio;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+
+/**
+ * Thread de travail audio : préparation, démarrage et libération des lecteurs en dehors du thread UI
+ * Les tâches sont exécutées dans l'ordre de soumission, les résultats sont renvoyés sur le thread UI
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class AudioWorker {
+
+    /**
+     * Attributs
+     */
+    private final HandlerThread thread;
+    private final Handler workerHandler;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Constructeur
+     */
+    public AudioWorker() {
+        thread = new HandlerThread("AudioWorker", Process.THREAD_PRIORITY_AUDIO);
+        thread.start();
+        workerHandler = new Handler(thread.getLooper());
+    }
+
+    /**
+     * Exécute une tâche sur le thread de travail audio
+     *
+     * @param task Runnable
+     */
+    public void post(Runnable task) {
+        workerHandler.post(task);
+    }
+
+    /**
+     * Exécute une tâche sur le thread UI
+     *
+     * @param task Runnable
+     */
+    public void postToMain(Runnable task) {
+        mainHandler.post(task);
+    }
+
+    /**
+     * Arrête le thread une fois les tâches en attente exécutées
+     */
+    public void quit() {
+        thread.quitSafely();
+    }
+
+}
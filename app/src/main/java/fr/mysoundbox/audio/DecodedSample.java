@@ -0,0 +1,49 @@
+package fr.mysoundbox.audio;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ShortBuffer;
+
+/**
+ * Classe modèle d'un sample décodé en PCM 16 bits stéréo entrelacé
+ * Les données peuvent être sur le tas Java ou projetées en mémoire depuis le cache disque (lecture par index absolu uniquement)
+ * Le gain de normalisation (calculé une seule fois par l'analyse de loudness) est appliqué par le mixeur
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public record DecodedSample(ShortBuffer pcm, int frameCount, int sampleRate, float gain) {
+
+    /**
+     * Nombre de canaux des données PCM (toujours stéréo)
+     */
+    public static final int CHANNEL_COUNT = 2;
+
+    /**
+     * Constructeur (sans normalisation)
+     */
+    public DecodedSample(ShortBuffer pcm, int frameCount, int sampleRate) {
+        this(pcm, frameCount, sampleRate, 1f);
+    }
+
+    /**
+     * Copie du sample avec un nouveau gain de normalisation
+     *
+     * @param gain float
+     * @return DecodedSample
+     */
+    public DecodedSample withGain(float gain) {
+        return new DecodedSample(pcm, frameCount, sampleRate, gain);
+    }
+
+    /**
+     * ToString
+     */
+    @NonNull
+    @Override
+    public String toString() {
+        return "{ Frames : " + frameCount + " , SampleRate : " + sampleRate + " , Gain : " + gain + " }";
+    }
+
+}
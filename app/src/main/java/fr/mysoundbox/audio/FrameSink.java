@@ -0,0 +1,30 @@
+package fr.mysoundbox.audio;
+
+/**
+ * Interface de réception des frames PCM 16 bits stéréo produites par le décodeur, au fil du décodage
+ * Le récepteur peut interrompre le décodage (flux relancé ou arrêté) : le décodeur s'arrête alors au bloc suivant
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public interface FrameSink {
+
+    /**
+     * Lors du décodage d'une frame
+     *
+     * @param left  short
+     * @param right short
+     */
+    void onFrame(short left, short right);
+
+    /**
+     * Indique si le décodage doit être interrompu (vérifié par le décodeur entre deux blocs de frames)
+     *
+     * @return boolean
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+
+}
@@ -0,0 +1,121 @@
+package fr.mysoundbox.audio;
+
+import android.media.MediaFormat;
+
+/**
+ * Retire le délai d'encodeur (frames ajoutées en début de fichier) et le bourrage (frames ajoutées en fin de fichier) d'un flux décodé
+ * Les paramètres sont ceux annoncés par l'extracteur (en-tête LAME / Xing des MP3, iTunSMPB des AAC) : la boucle d'un sample devient ainsi sans blanc
+ * La fin du flux n'étant connue qu'à son terme, les dernières frames sont retenues dans une ligne à retard de la taille du bourrage
+ * Utilisé par tous les chemins de décodage MediaCodec (décodage complet, tête et suite d'un flux) : le codec ne retire jamais lui-même ces frames
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+class GaplessTrimmer implements FrameSink {
+
+    /**
+     * Attributs
+     */
+    // Clés MediaFormat (constantes publiques uniquement depuis l'API 30)
+    private static final String KEY_ENCODER_DELAY = "encoder-delay";
+    private static final String KEY_ENCODER_PADDING = "encoder-padding";
+    private final FrameSink sink;
+    private final short[] pending;
+    private final int delay;
+    private int delayRemaining;
+    private int pendingStart = 0;
+    private int pendingCount = 0;
+
+    /**
+     * Constructeur
+     *
+     * @param sink    FrameSink (reçoit les frames conservées)
+     * @param delay   int (frames à retirer au début)
+     * @param padding int (frames à retirer à la fin)
+     */
+    GaplessTrimmer(FrameSink sink, int delay, int padding) {
+        this.sink = sink;
+        this.delay = Math.max(0, delay);
+        this.delayRemaining = this.delay;
+        this.pending = new short[Math.max(0, padding) * DecodedSample.CHANNEL_COUNT];
+    }
+
+    /**
+     * Crée le trimmer d'une piste avec le délai et le bourrage annoncés par l'extracteur, puis les désactive côté codec (retirés une seule fois)
+     * A appeler avant MediaCodec.configure(format, ...)
+     *
+     * @param format MediaFormat (format de la piste, modifié)
+     * @param sink   FrameSink
+     * @return GaplessTrimmer
+     */
+    static GaplessTrimmer fromFormat(MediaFormat format, FrameSink sink) {
+        int encoderDelay = format.containsKey(KEY_ENCODER_DELAY) ? format.getInteger(KEY_ENCODER_DELAY) : 0;
+        int encoderPadding = format.containsKey(KEY_ENCODER_PADDING) ? format.getInteger(KEY_ENCODER_PADDING) : 0;
+        format.setInteger(KEY_ENCODER_DELAY, 0);
+        format.setInteger(KEY_ENCODER_PADDING, 0);
+        return new GaplessTrimmer(sink, encoderDelay, encoderPadding);
+    }
+
+    /**
+     * Reçoit une frame décodée : ignorée pendant le délai, puis retardée de la taille du bourrage
+     *
+     * @param left  short
+     * @param right short
+     */
+    @Override
+    public void onFrame(short left, short right) {
+        if (delayRemaining > 0) {
+            delayRemaining--;
+            return;
+        }
+        if (pending.length == 0) {
+            sink.onFrame(left, right);
+            return;
+        }
+        int capacity = pending.length / DecodedSample.CHANNEL_COUNT;
+        if (pendingCount == capacity) {
+            // Ligne à retard pleine : la frame la plus ancienne n'est pas du bourrage
+            int i = pendingStart * DecodedSample.CHANNEL_COUNT;
+            sink.onFrame(pending[i], pending[i + 1]);
+            pending[i] = left;
+            pending[i + 1] = right;
+            pendingStart = (pendingStart + 1) % capacity;
+            return;
+        }
+        int i = ((pendingStart + pendingCount) % capacity) * DecodedSample.CHANNEL_COUNT;
+        pending[i] = left;
+        pending[i + 1] = right;
+        pendingCount++;
+    }
+
+    /**
+     * Transmet les frames retenues (décodage interrompu avant la fin du fichier : ce n'est pas du bourrage)
+     */
+    void flush() {
+        int capacity = pending.length / DecodedSample.CHANNEL_COUNT;
+        for (int n = 0; n < pendingCount; n++) {
+            int i = ((pendingStart + n) % capacity) * DecodedSample.CHANNEL_COUNT;
+            sink.onFrame(pending[i], pending[i + 1]);
+        }
+        pendingStart = 0;
+        pendingCount = 0;
+    }
+
+    /**
+     * Ré-initialise le trimmer pour un nouveau décodage depuis le début du fichier (les frames retenues sont abandonnées)
+     */
+    void reset() {
+        delayRemaining = delay;
+        pendingStart = 0;
+        pendingCount = 0;
+    }
+
+    /**
+     * Getter / Setter
+     */
+    int getDelay() {
+        return delay;
+    }
+
+}
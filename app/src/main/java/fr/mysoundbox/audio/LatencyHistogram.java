@@ -0,0 +1,80 @@
+package fr.mysoundbox.audio;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Histogramme de latences à intervalles fixes (0,5 ms jusqu'à 500 ms, puis un intervalle de débordement)
+ * L'enregistrement n'alloue aucun objet et ne prend aucun verrou : il peut être appelé depuis le thread de rendu
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class LatencyHistogram {
+
+    /**
+     * Attributs
+     */
+    private static final long BUCKET_NS = 500_000L;
+    private static final int BUCKET_COUNT = 1000;
+
+    private final AtomicIntegerArray buckets = new AtomicIntegerArray(BUCKET_COUNT + 1);
+
+    /**
+     * Enregistre une latence
+     *
+     * @param latencyNs long
+     */
+    public void record(long latencyNs) {
+        if (latencyNs < 0) {
+            return;
+        }
+        int bucket = (int) Math.min(latencyNs / BUCKET_NS, BUCKET_COUNT);
+        buckets.incrementAndGet(bucket);
+    }
+
+    /**
+     * Nombre de mesures enregistrées
+     *
+     * @return long
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Calcule un percentile (borne haute de l'intervalle qui le contient)
+     *
+     * @param percentile double (entre 0 et 100)
+     * @return double en millisecondes (-1 si aucune mesure, infini si au-delà de la plage)
+     */
+    public double getPercentileMs(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return -1;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long cumulated = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulated += buckets.get(i);
+            if (cumulated >= rank) {
+                return (i + 1) * BUCKET_NS / 1_000_000.0;
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Remet l'histogramme à zéro
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package fr.mysoundbox.audio;
+
+import android.content.Context;
+import android.os.Build;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Mesure de la latence toucher -> son, par pad
+ * Trois instants sont horodatés (horloge monotone, même base que MotionEvent.getEventTime()) :
+ * - l'évènement tactile (relâchement du doigt, qui déclenche le toggle button), enregistré uniquement pour un démarrage par le moteur de lecture
+ * - la voix prête (voix mixée dans un bloc)
+ * - la première frame écrite (bloc contenant la voix remis à l'AudioTrack, hors latence matérielle de sortie)
+ * Les latences sont cumulées dans des histogrammes par pad (p50 / p95 / p99)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class LatencyMonitor {
+
+    /**
+     * Attributs
+     */
+    private static final String DUMP_PREFIX = "latency_";
+    private static final String DUMP_EXTENSION = ".txt";
+
+    private final AtomicLongArray inputNs;
+    private final LatencyHistogram[] readyHistograms;
+    private final LatencyHistogram[] firstFrameHistograms;
+
+    /**
+     * Constructeur
+     *
+     * @param padCount int
+     */
+    public LatencyMonitor(int padCount) {
+        this.inputNs = new AtomicLongArray(padCount);
+        this.readyHistograms = new LatencyHistogram[padCount];
+        this.firstFrameHistograms = new LatencyHistogram[padCount];
+        for (int pad = 0; pad < padCount; pad++) {
+            readyHistograms[pad] = new LatencyHistogram();
+            firstFrameHistograms[pad] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Horodate l'évènement tactile d'un pad qui démarre une voix du moteur de lecture (thread UI, avant le déclenchement)
+     *
+     * @param pad         int
+     * @param eventTimeMs long (MotionEvent.getEventTime())
+     */
+    public void markInput(int pad, long eventTimeMs) {
+        inputNs.set(pad, eventTimeMs * 1_000_000L);
+    }
+
+    /**
+     * Annule la mesure en cours d'un pad (arrêt du pad ou déclenchement sans voix du moteur)
+     *
+     * @param pad int
+     */
+    public void clearInput(int pad) {
+        inputNs.set(pad, 0);
+    }
+
+    /**
+     * Horodate la voix prête d'un pad (thread de rendu)
+     *
+     * @param pad int
+     */
+    public void markReady(int pad) {
+        long input = inputNs.get(pad);
+        if (input != 0) {
+            readyHistograms[pad].record(System.nanoTime() - input);
+        }
+    }
+
+    /**
+     * Horodate la première frame écrite d'un pad (thread de rendu) puis clôture la mesure
+     *
+     * @param pad int
+     */
+    public void markFirstFrame(int pad) {
+        long input = inputNs.getAndSet(pad, 0);
+        if (input != 0) {
+            firstFrameHistograms[pad].record(System.nanoTime() - input);
+        }
+    }
+
+    /**
+     * Construit le rapport des latences par pad
+     *
+     * @return String
+     */
+    public String getReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Latence toucher -> son (ms)\n");
+        sb.append("Appareil : ").append(Build.MANUFACTURER).append(' ').append(Build.MODEL).append(" (API ").append(Build.VERSION.SDK_INT).append(")\n");
+        for (int pad = 0; pad < readyHistograms.length; pad++) {
+            sb.append("\nPad ").append(pad + 1).append('\n');
+            appendLine(sb, "  Prêt", readyHistograms[pad]);
+            appendLine(sb, "  1ère frame", firstFrameHistograms[pad]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Ecris le rapport des latences dans un fichier (répertoire externe de l'application, récupérable via adb)
+     *
+     * @param context Context
+     * @return File
+     * @throws TechnicalException TechnicalException
+     */
+    public File dump(Context context) throws TechnicalException {
+        File directory = context.getExternalFilesDir(null);
+        if (directory == null) {
+            directory = context.getFilesDir();
+        }
+        File file = new File(directory, DUMP_PREFIX + System.currentTimeMillis() + DUMP_EXTENSION);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(getReport());
+        } catch (IOException ioex) {
+            throw new TechnicalException("Impossible d'écrire le rapport de latence : " + file.getName());
+        }
+        Log.e("INFO", "Rapport de latence écrit : " + file.getAbsolutePath());
+        return file;
+    }
+
+    /**
+     * Remet toutes les mesures à zéro
+     */
+    public void reset() {
+        for (int pad = 0; pad < readyHistograms.length; pad++) {
+            inputNs.set(pad, 0);
+            readyHistograms[pad].reset();
+            firstFrameHistograms[pad].reset();
+        }
+    }
+
+    /**
+     * Ajoute la ligne d'un histogramme au rapport
+     *
+     * @param sb        StringBuilder
+     * @param label     String
+     * @param histogram LatencyHistogram
+     */
+    private static void appendLine(StringBuilder sb, String label, LatencyHistogram histogram) {
+        long count = histogram.getCount();
+        sb.append(label).append(" : ");
+        if (count == 0) {
+            sb.append("-\n");
+            return;
+        }
+        sb.append(String.format(Locale.FRANCE, "p50 %.1f / p95 %.1f / p99 %.1f (n=%d)\n",
+                histogram.getPercentileMs(50), histogram.getPercentileMs(95), histogram.getPercentileMs(99), count));
+    }
+
+}
@@ -0,0 +1,194 @@
+package fr.mysoundbox.audio;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.MediaCodec;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.net.Uri;
+import android.util.Log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Décodeur des formats compressés (MP3, AAC, FLAC, OGG, ...) via MediaExtractor / MediaCodec
+ * Le délai d'encodeur et le bourrage annoncés par l'extracteur sont retirés ici (et non par le codec) : le PCM obtenu boucle sans blanc
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class MediaCodecDecoder implements AudioDecoder {
+
+    /**
+     * Attributs
+     */
+    private static final long TIMEOUT_US = 10000;
+
+    /**
+     * Récupère la durée et la taille du fichier audio de l'Uri, sans le décoder
+     *
+     * @param context Context
+     * @param uri     Uri
+     * @return SampleInfo
+     * @throws TechnicalException TechnicalException
+     */
+    @Override
+    public SampleInfo probe(Context context, Uri uri) throws TechnicalException {
+        MediaExtractor extractor = new MediaExtractor();
+        try {
+            extractor.setDataSource(context, uri, null);
+            MediaFormat format = selectAudioTrack(extractor);
+            if (format == null) {
+                throw new TechnicalException("Aucune piste audio trouvée : " + uri);
+            }
+            long durationUs = format.containsKey(MediaFormat.KEY_DURATION) ? format.getLong(MediaFormat.KEY_DURATION) : -1;
+            long sizeBytes = -1;
+            try (AssetFileDescriptor afd = context.getContentResolver().openAssetFileDescriptor(uri, "r")) {
+                if (afd != null) {
+                    sizeBytes = afd.getLength();
+                }
+            }
+            return new SampleInfo(durationUs, sizeBytes);
+        } catch (IOException | IllegalArgumentException | SecurityException ex) {
+            throw new TechnicalException("Impossible de lire les informations du sample : " + uri);
+        } finally {
+            extractor.release();
+        }
+    }
+
+    /**
+     * Décode le début du fichier audio de l'Uri (au plus maxFrames frames) en transmettant les frames au fil de l'eau
+     *
+     * @param context   Context
+     * @param uri       Uri
+     * @param maxFrames int
+     * @param sink      FrameSink
+     * @return int fréquence d'échantillonnage
+     * @throws TechnicalException TechnicalException
+     */
+    @Override
+    public int decode(Context context, Uri uri, int maxFrames, FrameSink sink) throws TechnicalException {
+        MediaExtractor extractor = new MediaExtractor();
+        MediaCodec codec = null;
+
+        try {
+            // Ouvre la source (android.resource://, file:// et content:// via le ContentResolver)
+            extractor.setDataSource(context, uri, null);
+
+            // Sélectionne la première piste audio
+            MediaFormat format = selectAudioTrack(extractor);
+            if (format == null) {
+                throw new TechnicalException("Aucune piste audio trouvée : " + uri);
+            }
+            String mime = format.getString(MediaFormat.KEY_MIME);
+            int sampleRate = format.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+            int channelCount = format.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+
+            // Délai d'encodeur et bourrage retirés en sortie (désactivés côté codec pour ne pas les retirer deux fois)
+            GaplessTrimmer trimmer = GaplessTrimmer.fromFormat(format, sink);
+            long frameLimit = (long) maxFrames + trimmer.getDelay();
+
+            // Initialise le décodeur
+            codec = MediaCodec.createDecoderByType(mime);
+            codec.configure(format, null, null, 0);
+            codec.start();
+
+            // Décode la piste (jusqu'à maxFrames ou à l'interruption demandée par le récepteur)
+            long decodedFrames = 0;
+            boolean endOfStream = false;
+            MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+            boolean inputDone = false;
+            boolean outputDone = false;
+
+            while (!outputDone && !sink.isCancelled()) {
+                // Alimente le décodeur
+                if (!inputDone) {
+                    int inIndex = codec.dequeueInputBuffer(TIMEOUT_US);
+                    if (inIndex >= 0) {
+                        ByteBuffer inBuffer = codec.getInputBuffer(inIndex);
+                        int size = inBuffer != null ? extractor.readSampleData(inBuffer, 0) : -1;
+                        if (size < 0) {
+                            codec.queueInputBuffer(inIndex, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                            inputDone = true;
+                        } else {
+                            codec.queueInputBuffer(inIndex, 0, size, extractor.getSampleTime(), 0);
+                            extractor.advance();
+                        }
+                    }
+                }
+
+                // Récupère les données PCM
+                int outIndex = codec.dequeueOutputBuffer(info, TIMEOUT_US);
+                if (outIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    MediaFormat outFormat = codec.getOutputFormat();
+                    sampleRate = outFormat.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+                    channelCount = outFormat.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+                } else if (outIndex >= 0) {
+                    ByteBuffer outBuffer = codec.getOutputBuffer(outIndex);
+                    if (outBuffer != null && info.size > 0) {
+                        outBuffer.position(info.offset);
+                        outBuffer.limit(info.offset + info.size);
+                        ShortBuffer shorts = outBuffer.order(ByteOrder.nativeOrder()).asShortBuffer();
+                        int frames = (int) Math.min(shorts.remaining() / channelCount, frameLimit - decodedFrames);
+                        // Convertit en stéréo
+                        for (int f = 0; f < frames; f++) {
+                            short left = shorts.get(f * channelCount);
+                            short right = channelCount > 1 ? shorts.get(f * channelCount + 1) : left;
+                            trimmer.onFrame(left, right);
+                        }
+                        decodedFrames += frames;
+                    }
+                    codec.releaseOutputBuffer(outIndex, false);
+                    endOfStream = (info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0;
+                    if (endOfStream || decodedFrames >= frameLimit) {
+                        outputDone = true;
+                    }
+                }
+            }
+
+            if (!endOfStream && !sink.isCancelled()) {
+                // Décodage partiel : les frames retenues ne sont pas du bourrage
+                trimmer.flush();
+            }
+
+            return sampleRate;
+        } catch (IOException | IllegalStateException | IllegalArgumentException ex) {
+            throw new TechnicalException("Impossible de décoder le sample : " + uri);
+        } finally {
+            if (codec != null) {
+                try {
+                    codec.stop();
+                } catch (IllegalStateException ex) {
+                    Log.e("ERROR", "Impossible d'arrêter correctement le MediaCodec !");
+                }
+                codec.release();
+            }
+            extractor.release();
+        }
+    }
+
+    /**
+     * Sélectionne la première piste audio de l'extracteur
+     *
+     * @param extractor MediaExtractor
+     * @return MediaFormat (ou null si aucune piste audio)
+     */
+    static MediaFormat selectAudioTrack(MediaExtractor extractor) {
+        for (int i = 0; i < extractor.getTrackCount(); i++) {
+            MediaFormat format = extractor.getTrackFormat(i);
+            String mime = format.getString(MediaFormat.KEY_MIME);
+            if (mime != null && mime.startsWith("audio/")) {
+                extractor.selectTrack(i);
+                return format;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,21 @@
+package fr.mysoundbox.audio;
+
+import android.media.MediaPlayer;
+
+/**
+ * Interface de retour de la préparation asynchrone d'un MediaPlayer (appelée sur le thread UI)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public interface MediaPlayerCallback {
+
+    /**
+     * Lorsque le MediaPlayer est préparé
+     *
+     * @param mp MediaPlayer (ou null si la préparation a échoué)
+     */
+    void onMediaPlayerReady(MediaPlayer mp);
+
+}
@@ -0,0 +1,213 @@
+package fr.mysoundbox.audio;
+
+import android.media.MediaPlayer;
+import android.net.Uri;
+import android.util.Log;
+
+import java.util.Objects;
+
+import fr.mysoundbox.bean.Sample;
+
+/**
+ * Pool d'un MediaPlayer déjà préparé par pad
+ * Chaque déclenchement ré-utilise le MediaPlayer du pad (seekTo(0) / start()) au lieu de le recréer
+ * Toutes les méthodes doivent être appelées depuis le thread de l'AudioWorker (préparation asynchrone via prepareAsync)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class MediaPlayerPool {
+
+    /**
+     * Attributs
+     */
+    private final AudioWorker audioWorker;
+    private final MediaPlayer[] players;
+    private final Uri[] uris;
+    private final boolean[] prepared;
+    private final int[] startOffsetsMs;
+    private final boolean[] loops;
+    private final TriggerCallback[] pendingStarts;
+    private volatile PlaybackListener listener;
+
+    /**
+     * Constructeur
+     *
+     * @param audioWorker AudioWorker
+     * @param padCount    int
+     */
+    public MediaPlayerPool(AudioWorker audioWorker, int padCount) {
+        this.audioWorker = audioWorker;
+        this.players = new MediaPlayer[padCount];
+        this.uris = new Uri[padCount];
+        this.prepared = new boolean[padCount];
+        this.startOffsetsMs = new int[padCount];
+        this.loops = new boolean[padCount];
+        this.pendingStarts = new TriggerCallback[padCount];
+    }
+
+    /**
+     * Indique si l'entrée du pad doit être reconstruite pour ce sample
+     *
+     * @param pad    int
+     * @param sample Sample
+     * @return boolean
+     */
+    public boolean needsUpdate(int pad, Sample sample) {
+        return players[pad] == null || !Objects.equals(uris[pad], sample.uri());
+    }
+
+    /**
+     * Définit le décalage de départ du pad (silence initial sauté)
+     *
+     * @param pad           int
+     * @param startOffsetUs long
+     */
+    public void setStartOffset(int pad, long startOffsetUs) {
+        startOffsetsMs[pad] = (int) (startOffsetUs / 1000);
+    }
+
+    /**
+     * Définit le mode de lecture en boucle du pad (repli uniquement : MediaPlayer laisse un blanc à chaque tour sur les MP3)
+     *
+     * @param pad  int
+     * @param loop boolean
+     */
+    public void setLoop(int pad, boolean loop) {
+        loops[pad] = loop;
+    }
+
+    /**
+     * Remplace l'entrée du pad par un nouveau MediaPlayer (l'ancien est libéré) puis lance sa préparation asynchrone
+     *
+     * @param pad    int
+     * @param sample Sample
+     * @param mp     MediaPlayer (source déjà définie, ou null si l'ouverture a échoué)
+     */
+    public void put(int pad, Sample sample, MediaPlayer mp) {
+        releasePlayer(pad);
+        if (mp == null) {
+            return;
+        }
+        players[pad] = mp;
+        uris[pad] = sample.uri();
+        // Fin de préparation : démarre le pad si un déclenchement était en attente
+        mp.setOnPreparedListener(currentMp -> {
+            if (players[pad] == currentMp) {
+                prepared[pad] = true;
+                TriggerCallback pending = pendingStarts[pad];
+                pendingStarts[pad] = null;
+                if (pending != null) {
+                    start(pad, pending);
+                }
+            }
+        });
+        // Erreur : libère l'entrée, elle sera reconstruite au prochain chargement
+        mp.setOnErrorListener((currentMp, what, extra) -> {
+            Log.e("MediaPlayerPool", "Erreur MediaPlayer du pad " + pad + " : " + what);
+            if (players[pad] == currentMp) {
+                releasePlayer(pad);
+            }
+            return true;
+        });
+        // Fin de lecture
+        mp.setOnCompletionListener(currentMp -> audioWorker.postToMain(() -> {
+            PlaybackListener currentListener = listener;
+            if (currentListener != null) {
+                currentListener.onPadCompleted(pad);
+            }
+        }));
+        mp.prepareAsync();
+    }
+
+    /**
+     * Démarre la lecture du pad depuis le début (après le silence initial)
+     * Si le MediaPlayer est encore en préparation, le démarrage est différé jusqu'à la fin de celle-ci
+     *
+     * @param pad      int
+     * @param callback TriggerCallback
+     */
+    public void start(int pad, TriggerCallback callback) {
+        MediaPlayer mp = players[pad];
+        boolean started = false;
+        if (mp != null && !prepared[pad]) {
+            // Préparation en cours
+            pendingStarts[pad] = callback;
+            return;
+        }
+        if (mp != null) {
+            try {
+                mp.seekTo(startOffsetsMs[pad]);
+                mp.setLooping(loops[pad]);
+                mp.start();
+                started = true;
+            } catch (IllegalStateException ex) {
+                // MediaPlayer dans un état invalide, il sera reconstruit au prochain chargement
+                releasePlayer(pad);
+            }
+        }
+        final boolean result = started;
+        audioWorker.postToMain(() -> callback.onTriggered(pad, result));
+    }
+
+    /**
+     * Met en pause le pad et le rembobine, sans le libérer
+     *
+     * @param pad int
+     */
+    public void stop(int pad) {
+        pendingStarts[pad] = null;
+        MediaPlayer mp = players[pad];
+        if (mp != null && prepared[pad] && mp.isPlaying()) {
+            mp.pause();
+            mp.seekTo(startOffsetsMs[pad]);
+        }
+    }
+
+    /**
+     * Met en pause tous les pads
+     */
+    public void stopAll() {
+        for (int pad = 0; pad < players.length; pad++) {
+            stop(pad);
+        }
+    }
+
+    /**
+     * Libère tous les MediaPlayer du pool
+     */
+    public void release() {
+        for (int pad = 0; pad < players.length; pad++) {
+            releasePlayer(pad);
+        }
+        listener = null;
+    }
+
+    /**
+     * Libère le MediaPlayer d'un pad
+     *
+     * @param pad int
+     */
+    private void releasePlayer(int pad) {
+        if (players[pad] != null) {
+            players[pad].release();
+            players[pad] = null;
+            uris[pad] = null;
+            prepared[pad] = false;
+        }
+        TriggerCallback pending = pendingStarts[pad];
+        pendingStarts[pad] = null;
+        if (pending != null) {
+            audioWorker.postToMain(() -> pending.onTriggered(pad, false));
+        }
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public void setListener(PlaybackListener listener) {
+        this.listener = listener;
+    }
+
+}
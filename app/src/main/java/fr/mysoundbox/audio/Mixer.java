@@ -0,0 +1,565 @@
+package fr.mysoundbox.audio;
+
+import java.nio.ShortBuffer;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Mixeur logiciel polyphonique : additionne jusqu'à N voix simultanées dans un seul flux stéréo 16 bits
+ * Quand toutes les voix sont occupées, la voix la plus ancienne est volée
+ * Les commandes (démarrage / arrêt) sont envoyées depuis le thread UI via une file circulaire pré-allouée et appliquées au début de chaque bloc
+ * Le rendu n'alloue aucun objet et ne prend aucun verrou : table de voix de taille fixe en tableaux primitifs et buffer de mixage float pré-alloué
+ * Un pad peut être entièrement décodé en mémoire ou lu en flux (SampleStream) pour les samples longs
+ * Chaque voix est multipliée par le gain de normalisation de son sample (aucun coût de décodage supplémentaire)
+ * Un pad en boucle rejoue son buffer décodé sans interruption (retour au point de départ à la frame près) jusqu'à son arrêt ; un pad lu en flux boucle dans son flux (SampleStream)
+ * Un arrêt n'est pas brutal : la voix sortante décroît linéairement pendant quelques millisecondes (sans clic), la voix entrante démarre immédiatement
+ * Un bloc peut être rendu en plusieurs morceaux (render avec décalage) pour démarrer une voix à une frame précise (séquenceur)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class Mixer {
+
+    /**
+     * Attributs
+     */
+    private static final int COMMAND_CAPACITY = 64;
+    private static final int COMMAND_EMPTY = 0;
+
+    private final AtomicReferenceArray<DecodedSample> slots;
+    private final AtomicReferenceArray<SampleStream> streams;
+    private final AtomicLongArray startOffsetsUs;
+    private final AtomicIntegerArray loops;
+    private final PlaybackListener listener;
+    private final int outputSampleRate;
+    // Durée du fondu de sortie en frames (0 : arrêt immédiat)
+    private volatile int fadeFrames = 0;
+
+    // File circulaire de commandes (un producteur : thread UI, un consommateur : thread de rendu)
+    private final int[] commands = new int[COMMAND_CAPACITY];
+    private final AtomicLong commandWrite = new AtomicLong(0);
+    private final AtomicLong commandRead = new AtomicLong(0);
+
+    // Table de voix de taille fixe (accédée uniquement par le thread de rendu)
+    private final DecodedSample[] voiceSample;
+    private final SampleStream[] voiceStream;
+    private final int[] voicePad;
+    private final double[] voicePosition;
+    private final double[] voiceStep;
+    private final float[] voiceGain;
+    private final boolean[] voiceLoop;
+    private final double[] voiceLoopStart;
+    // Frames restantes du fondu de sortie (0 : voix non en cours d'arrêt) et durée totale du fondu
+    private final int[] voiceFade;
+    private final int[] voiceFadeTotal;
+    private final long[] voiceOrder;
+    private long voiceCounter = 0;
+
+    // Buffer de mixage stéréo entrelacé
+    private final float[] mixBuffer;
+
+    // Pads démarrés depuis le début du dernier bloc (mesure de latence)
+    private final int[] startedPads = new int[COMMAND_CAPACITY];
+    private int startedCount = 0;
+
+    /**
+     * Constructeur
+     *
+     * @param padCount         int
+     * @param maxVoices        int
+     * @param maxFrames        int (taille maximale d'un bloc de rendu)
+     * @param outputSampleRate int
+     * @param listener         PlaybackListener (appelé sur le thread de rendu, ne doit pas allouer)
+     */
+    public Mixer(int padCount, int maxVoices, int maxFrames, int outputSampleRate, PlaybackListener listener) {
+        this.slots = new AtomicReferenceArray<>(padCount);
+        this.streams = new AtomicReferenceArray<>(padCount);
+        this.startOffsetsUs = new AtomicLongArray(padCount);
+        this.loops = new AtomicIntegerArray(padCount);
+        this.outputSampleRate = outputSampleRate;
+        this.listener = listener;
+        this.voiceSample = new DecodedSample[maxVoices];
+        this.voiceStream = new SampleStream[maxVoices];
+        this.voicePad = new int[maxVoices];
+        this.voicePosition = new double[maxVoices];
+        this.voiceStep = new double[maxVoices];
+        this.voiceGain = new float[maxVoices];
+        this.voiceLoop = new boolean[maxVoices];
+        this.voiceLoopStart = new double[maxVoices];
+        this.voiceFade = new int[maxVoices];
+        this.voiceFadeTotal = new int[maxVoices];
+        this.voiceOrder = new long[maxVoices];
+        this.mixBuffer = new float[maxFrames * DecodedSample.CHANNEL_COUNT];
+    }
+
+    /**
+     * Charge le sample décodé d'un pad
+     *
+     * @param pad     int
+     * @param decoded DecodedSample
+     */
+    public void setSample(int pad, DecodedSample decoded) {
+        slots.set(pad, decoded);
+    }
+
+    /**
+     * Définit le décalage de départ d'un pad (silence initial sauté)
+     *
+     * @param pad           int
+     * @param startOffsetUs long
+     */
+    public void setStartOffset(int pad, long startOffsetUs) {
+        startOffsetsUs.set(pad, startOffsetUs);
+    }
+
+    /**
+     * Définit le mode de lecture en boucle d'un pad (pris en compte au prochain démarrage)
+     *
+     * @param pad  int
+     * @param loop boolean
+     */
+    public void setLoop(int pad, boolean loop) {
+        loops.set(pad, loop ? 1 : 0);
+    }
+
+    /**
+     * Définit la durée du fondu de sortie appliqué à l'arrêt d'une voix (et au re-déclenchement d'un pad en mémoire)
+     *
+     * @param frames int (0 : arrêt immédiat)
+     */
+    public void setFadeFrames(int frames) {
+        fadeFrames = Math.max(0, frames);
+    }
+
+    /**
+     * Charge le flux d'un pad (ou null si le pad est entièrement décodé en mémoire)
+     * La tête du flux doit aussi être chargée via setSample
+     *
+     * @param pad    int
+     * @param stream SampleStream
+     */
+    public void setStream(int pad, SampleStream stream) {
+        streams.set(pad, stream);
+    }
+
+    /**
+     * Indique si le sample du pad est chargé
+     *
+     * @param pad int
+     * @return boolean
+     */
+    public boolean isLoaded(int pad) {
+        return slots.get(pad) != null;
+    }
+
+    /**
+     * Demande le démarrage d'un pad
+     *
+     * @param pad int
+     */
+    public void trigger(int pad) {
+        // Les démarrages sont codés en positif (1 pour le pad 0)
+        offerCommand(pad + 1);
+    }
+
+    /**
+     * Demande l'arrêt d'un pad
+     *
+     * @param pad int
+     */
+    public void stop(int pad) {
+        // Les arrêts sont codés en négatif (-1 pour le pad 0)
+        offerCommand(-pad - 1);
+    }
+
+    /**
+     * Ajoute une commande dans la file circulaire (ignorée si la file est pleine)
+     *
+     * @param command int (jamais COMMAND_EMPTY)
+     */
+    private void offerCommand(int command) {
+        long write = commandWrite.get();
+        if (write - commandRead.get() >= COMMAND_CAPACITY) {
+            // File pleine : le thread de rendu est en retard de plus de COMMAND_CAPACITY commandes
+            return;
+        }
+        commands[(int) (write % COMMAND_CAPACITY)] = command;
+        commandWrite.set(write + 1);
+    }
+
+    /**
+     * Coupe toutes les voix et vide les commandes en attente (thread de rendu, à l'arrêt du moteur)
+     */
+    public void reset() {
+        while (pollCommand() != COMMAND_EMPTY) {
+            // Vide la file
+        }
+        for (int v = 0; v < voiceSample.length; v++) {
+            releaseVoice(v);
+        }
+    }
+
+    /**
+     * Récupère la prochaine commande de la file (thread de rendu)
+     *
+     * @return int (COMMAND_EMPTY si aucune)
+     */
+    private int pollCommand() {
+        long read = commandRead.get();
+        if (read == commandWrite.get()) {
+            return COMMAND_EMPTY;
+        }
+        int command = commands[(int) (read % COMMAND_CAPACITY)];
+        commandRead.set(read + 1);
+        return command;
+    }
+
+    /**
+     * Démarre immédiatement une voix pour le pad, à la frame courante du bloc (thread de rendu, séquenceur)
+     * Les pads lus en flux sont ignorés : leur décodage doit être relancé depuis le thread UI avant chaque lecture
+     *
+     * @param pad int
+     */
+    void startScheduled(int pad) {
+        if (pad < slots.length() && streams.get(pad) == null) {
+            // Un pas du motif joue le sample une seule fois, même en boucle
+            startVoice(pad, false);
+        }
+    }
+
+    /**
+     * Remet à zéro les pads démarrés (thread de rendu, au début de chaque bloc, avant le séquenceur et le premier render)
+     */
+    void beginBlock() {
+        startedCount = 0;
+    }
+
+    /**
+     * Calcule un morceau du bloc de sortie stéréo entrelacé (thread de rendu, sans allocation)
+     *
+     * @param block  short[]
+     * @param offset int (première frame du morceau dans le bloc)
+     * @param frames int (offset + frames au plus maxFrames)
+     */
+    public void render(short[] block, int offset, int frames) {
+        // Applique les commandes en attente
+        int command;
+        while ((command = pollCommand()) != COMMAND_EMPTY) {
+            if (command > 0) {
+                startVoice(command - 1, true);
+            } else {
+                stopVoices(-command - 1);
+            }
+        }
+
+        // Remet à zéro le buffer de mixage
+        int samples = frames * DecodedSample.CHANNEL_COUNT;
+        for (int i = 0; i < samples; i++) {
+            mixBuffer[i] = 0f;
+        }
+
+        // Additionne chaque voix active
+        for (int v = 0; v < voiceSample.length; v++) {
+            if (voiceStream[v] != null) {
+                mixStreamVoice(v, frames);
+            } else if (voiceLoop[v] && voiceSample[v] != null) {
+                mixLoopVoice(v, frames);
+            } else if (voiceSample[v] != null) {
+                mixSampleVoice(v, frames);
+            }
+        }
+
+        // Convertit en 16 bits avec écrêtage
+        int start = offset * DecodedSample.CHANNEL_COUNT;
+        for (int i = 0; i < samples; i++) {
+            block[start + i] = clip(mixBuffer[i]);
+        }
+    }
+
+    /**
+     * Additionne une voix entièrement décodée en mémoire (interpolation linéaire si fréquences différentes)
+     *
+     * @param v      int
+     * @param frames int
+     */
+    private void mixSampleVoice(int v, int frames) {
+        DecodedSample sample = voiceSample[v];
+        ShortBuffer pcm = sample.pcm();
+        int lastFrame = sample.frameCount() - 1;
+        double position = voicePosition[v];
+        double step = voiceStep[v];
+        float gain = voiceGain[v];
+        int fade = voiceFade[v];
+        float fadeScale = fade > 0 ? gain / voiceFadeTotal[v] : 0f;
+        for (int f = 0; f < frames; f++) {
+            int index = (int) position;
+            if (index >= lastFrame) {
+                // Fin du sample (pas de notification pour une voix déjà arrêtée)
+                releaseVoice(v);
+                if (fade == 0) {
+                    listener.onPadCompleted(voicePad[v]);
+                }
+                return;
+            }
+            float g = gain;
+            if (fade > 0) {
+                // Fondu de sortie
+                g = fade * fadeScale;
+                if (--fade == 0) {
+                    releaseVoice(v);
+                    return;
+                }
+            }
+            float frac = (float) (position - index);
+            int i = index * DecodedSample.CHANNEL_COUNT;
+            int o = f * DecodedSample.CHANNEL_COUNT;
+            short left = pcm.get(i);
+            short right = pcm.get(i + 1);
+            mixBuffer[o] += (left + (pcm.get(i + 2) - left) * frac) * g;
+            mixBuffer[o + 1] += (right + (pcm.get(i + 3) - right) * frac) * g;
+            position += step;
+        }
+        voicePosition[v] = position;
+        voiceFade[v] = fade;
+    }
+
+    /**
+     * Additionne une voix en boucle : à la fin du buffer, la lecture reprend au point de départ sans blanc (l'interpolation relie la dernière frame à la première)
+     *
+     * @param v      int
+     * @param frames int
+     */
+    private void mixLoopVoice(int v, int frames) {
+        DecodedSample sample = voiceSample[v];
+        ShortBuffer pcm = sample.pcm();
+        int frameCount = sample.frameCount();
+        double loopStart = voiceLoopStart[v];
+        double loopLength = frameCount - loopStart;
+        int loopStartIndex = (int) loopStart;
+        double position = voicePosition[v];
+        double step = voiceStep[v];
+        float gain = voiceGain[v];
+        int fade = voiceFade[v];
+        float fadeScale = fade > 0 ? gain / voiceFadeTotal[v] : 0f;
+        for (int f = 0; f < frames; f++) {
+            if (position >= frameCount) {
+                position -= loopLength;
+            }
+            float g = gain;
+            if (fade > 0) {
+                // Fondu de sortie
+                g = fade * fadeScale;
+                if (--fade == 0) {
+                    releaseVoice(v);
+                    return;
+                }
+            }
+            int index = (int) position;
+            int next = index + 1 < frameCount ? index + 1 : loopStartIndex;
+            float frac = (float) (position - index);
+            int i = index * DecodedSample.CHANNEL_COUNT;
+            int n = next * DecodedSample.CHANNEL_COUNT;
+            int o = f * DecodedSample.CHANNEL_COUNT;
+            short left = pcm.get(i);
+            short right = pcm.get(i + 1);
+            mixBuffer[o] += (left + (pcm.get(n) - left) * frac) * g;
+            mixBuffer[o + 1] += (right + (pcm.get(n + 1) - right) * frac) * g;
+            position += step;
+        }
+        voicePosition[v] = position;
+        voiceFade[v] = fade;
+    }
+
+    /**
+     * Additionne une voix lue en flux : en cas de sous-alimentation du buffer circulaire, la voix reste silencieuse sans avancer
+     *
+     * @param v      int
+     * @param frames int
+     */
+    private void mixStreamVoice(int v, int frames) {
+        SampleStream stream = voiceStream[v];
+        long available = stream.getAvailableFrames();
+        boolean ended = stream.isEnded();
+        double position = voicePosition[v];
+        double step = voiceStep[v];
+        float gain = voiceGain[v];
+        int fade = voiceFade[v];
+        float fadeScale = fade > 0 ? gain / voiceFadeTotal[v] : 0f;
+        for (int f = 0; f < frames; f++) {
+            long index = (long) position;
+            if (index + 1 >= available) {
+                if (ended || fade > 0) {
+                    // Fin du flux (ou flux arrêté en cours de fondu : plus rien ne sera décodé)
+                    releaseVoice(v);
+                    if (fade == 0) {
+                        listener.onPadCompleted(voicePad[v]);
+                    }
+                    return;
+                }
+                break;
+            }
+            float g = gain;
+            if (fade > 0) {
+                // Fondu de sortie
+                g = fade * fadeScale;
+                if (--fade == 0) {
+                    releaseVoice(v);
+                    return;
+                }
+            }
+            float frac = (float) (position - index);
+            int o = f * DecodedSample.CHANNEL_COUNT;
+            short left = stream.get(index, 0);
+            short right = stream.get(index, 1);
+            mixBuffer[o] += (left + (stream.get(index + 1, 0) - left) * frac) * g;
+            mixBuffer[o + 1] += (right + (stream.get(index + 1, 1) - right) * frac) * g;
+            position += step;
+        }
+        voicePosition[v] = position;
+        voiceFade[v] = fade;
+        stream.setConsumedFrames((long) position);
+    }
+
+    /**
+     * Démarre une voix pour le pad (la voix du pad si elle joue déjà, sinon une voix libre, sinon la plus ancienne)
+     * La voix mise en fondu enchaîné par ce démarrage n'est volée qu'en dernier recours (sinon le fondu redevient une coupure)
+     *
+     * @param pad       int
+     * @param allowLoop boolean (false : lecture unique même si le pad est en boucle)
+     */
+    private void startVoice(int pad, boolean allowLoop) {
+        DecodedSample sample = slots.get(pad);
+        if (sample == null) {
+            return;
+        }
+        int fade = fadeFrames;
+        int target = -1;
+        int free = -1;
+        int fading = -1;
+        int oldest = -1;
+        int crossfaded = -1;
+        for (int v = 0; v < voiceSample.length; v++) {
+            if (voiceSample[v] == null) {
+                if (free < 0) {
+                    free = v;
+                }
+                continue;
+            }
+            if (voicePad[v] == pad && voiceFade[v] == 0) {
+                if (fade > 0 && voiceStream[v] == null) {
+                    // Re-déclenchement du même pad : fondu enchaîné entre l'ancienne voix et la nouvelle
+                    beginFade(v, fade);
+                    crossfaded = v;
+                    continue;
+                } else {
+                    // Re-déclenchement sans fondu (un flux est relancé depuis le début, l'ancienne position n'est plus lisible)
+                    target = v;
+                }
+            }
+            if (voiceFade[v] > 0) {
+                if (fading < 0) {
+                    fading = v;
+                }
+            } else if (oldest < 0 || voiceOrder[v] < voiceOrder[oldest]) {
+                oldest = v;
+            }
+        }
+        if (target < 0) {
+            target = free;
+        }
+        if (target < 0) {
+            // Vol d'une voix en cours d'arrêt, sinon de la plus ancienne, sinon de la voix en fondu enchaîné
+            target = fading >= 0 ? fading : oldest >= 0 ? oldest : crossfaded;
+            if (voiceFade[target] == 0) {
+                listener.onPadCompleted(voicePad[target]);
+            }
+        }
+        voiceFade[target] = 0;
+        voiceSample[target] = sample;
+        voiceStream[target] = streams.get(pad);
+        voicePad[target] = pad;
+        // Démarre après le silence initial (sans dépasser la fin du sample)
+        double startFrame = startOffsetsUs.get(pad) * (double) sample.sampleRate() / 1_000_000.0;
+        voicePosition[target] = Math.min(startFrame, Math.max(0, sample.frameCount() - 2));
+        // Boucle sur [départ, fin] (un flux en boucle ne se termine pas : il reprend lui-même au point de boucle)
+        voiceLoop[target] = allowLoop && loops.get(pad) != 0 && voiceStream[target] == null && sample.frameCount() - voicePosition[target] >= 2;
+        voiceLoopStart[target] = voicePosition[target];
+        voiceStep[target] = (double) sample.sampleRate() / outputSampleRate;
+        voiceGain[target] = sample.gain();
+        voiceOrder[target] = ++voiceCounter;
+        if (startedCount < startedPads.length) {
+            startedPads[startedCount++] = pad;
+        }
+    }
+
+    /**
+     * Arrête toutes les voix du pad (avec fondu de sortie si configuré)
+     *
+     * @param pad int
+     */
+    private void stopVoices(int pad) {
+        int fade = fadeFrames;
+        for (int v = 0; v < voiceSample.length; v++) {
+            if (voiceSample[v] != null && voicePad[v] == pad && voiceFade[v] == 0) {
+                if (fade > 0) {
+                    beginFade(v, fade);
+                } else {
+                    releaseVoice(v);
+                }
+            }
+        }
+    }
+
+    /**
+     * Démarre le fondu de sortie d'une voix (elle est libérée à la fin du fondu)
+     *
+     * @param v      int
+     * @param frames int
+     */
+    private void beginFade(int v, int frames) {
+        voiceFade[v] = frames;
+        voiceFadeTotal[v] = frames;
+    }
+
+    /**
+     * Libère une voix
+     *
+     * @param v int
+     */
+    private void releaseVoice(int v) {
+        voiceSample[v] = null;
+        voiceStream[v] = null;
+        voiceFade[v] = 0;
+    }
+
+    /**
+     * Limite la somme des voix à l'intervalle 16 bits
+     *
+     * @param value float
+     * @return short
+     */
+    private static short clip(float value) {
+        if (value > Short.MAX_VALUE) {
+            return Short.MAX_VALUE;
+        }
+        if (value < Short.MIN_VALUE) {
+            return Short.MIN_VALUE;
+        }
+        return (short) value;
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public int getStartedCount() {
+        return startedCount;
+    }
+
+    public int getStartedPad(int index) {
+        return startedPads[index];
+    }
+
+}
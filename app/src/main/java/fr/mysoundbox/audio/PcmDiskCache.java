@@ -0,0 +1,277 @@
+package fr.mysoundbox.audio;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.AssetFileDescriptor;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.DocumentsContract;
+import android.provider.OpenableColumns;
+import android.util.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Cache disque des samples décodés (dans les datas privées de l'application)
+ * Chaque Uri est décodée une seule fois en fichier PCM brut, identifié par l'Uri + la taille + la date de modification de la source
+ * Les lancements suivants projettent le fichier en mémoire (mmap) : la lecture démarre sans aucun décodage
+ * Le sample est ré-échantillonné à la fréquence native du périphérique avant l'écriture : la conversion n'a lieu qu'une seule fois
+ * Le gain de normalisation est calculé lors de l'écriture de l'entrée et enregistré dans son en-tête : l'analyse n'est refaite que pour un fichier nouveau ou modifié
+ * Le chargement d'une entrée est sérialisé par clé : deux threads demandant le même sample ne l'écrivent pas en même temps, le second projette le fichier écrit par le premier
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class PcmDiskCache {
+
+    /**
+     * Attributs
+     */
+    private static final String DIRECTORY = "pcm";
+    private static final String EXTENSION = ".pcm";
+    private static final int MAGIC = 0x4D534250; // 'MSBP'
+    // Version 3 : délai d'encodeur et bourrage retirés au décodage (les entrées antérieures sont reconstruites)
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 20;
+    // Verrou par entrée (nom de fichier), partagé par toutes les instances du cache
+    private static final Map<String, Object> ENTRY_LOCKS = new ConcurrentHashMap<>();
+
+    private final File directory;
+    private final int outputSampleRate;
+    private final Resampler.Quality quality;
+
+    /**
+     * Constructeur
+     *
+     * @param context          Context
+     * @param outputSampleRate int (fréquence native du périphérique)
+     * @param quality          Resampler.Quality
+     */
+    public PcmDiskCache(Context context, int outputSampleRate, Resampler.Quality quality) {
+        this.directory = new File(context.getFilesDir(), DIRECTORY);
+        this.outputSampleRate = outputSampleRate;
+        this.quality = quality;
+    }
+
+    /**
+     * Récupère le sample décodé depuis le cache, ou le décode puis l'enregistre dans le cache
+     * Dans les deux cas, le sample renvoyé est projeté en mémoire depuis le fichier cache
+     *
+     * @param context Context
+     * @param uri     Uri
+     * @return DecodedSample
+     * @throws TechnicalException TechnicalException
+     */
+    public DecodedSample load(Context context, Uri uri) throws TechnicalException {
+        // La fréquence et la qualité font partie de la clé : un changement de sortie ou de qualité produit une nouvelle entrée
+        File file = new File(directory, getSourceKey(context, uri) + "_" + outputSampleRate + "_" + quality.name().toLowerCase(Locale.ROOT) + EXTENSION);
+        synchronized (ENTRY_LOCKS.computeIfAbsent(file.getName(), name -> new Object())) {
+            // Vérifié sous le verrou : l'entrée a pu être écrite par un autre thread pendant l'attente
+            if (file.exists()) {
+                try {
+                    return map(file);
+                } catch (IOException ioex) {
+                    // Entrée corrompue : supprimée puis re-décodée
+                    Log.e("ERROR", "Entrée du cache PCM invalide : " + file.getName());
+                    deleteFile(file);
+                }
+            }
+            // Décode le sample, le ré-échantillonne, analyse sa loudness puis l'enregistre
+            DecodedSample decoded = SampleDecoder.decode(context, uri);
+            decoded = Resampler.resample(decoded, outputSampleRate, quality);
+            decoded = decoded.withGain(SampleAnalyzer.computeGain(decoded));
+            try {
+                // Supprime les anciennes versions de cette Uri
+                invalidate(uri, file);
+                write(file, decoded);
+                return map(file);
+            } catch (IOException ioex) {
+                // Cache indisponible : le sample reste sur le tas
+                Log.e("ERROR", "Impossible d'écrire le cache PCM : " + file.getName());
+                return decoded;
+            }
+        }
+    }
+
+    /**
+     * Supprime toutes les entrées du cache d'une Uri
+     *
+     * @param uri Uri
+     */
+    public void invalidate(Uri uri) {
+        invalidate(uri, null);
+    }
+
+    /**
+     * Supprime les entrées du cache d'une Uri, sauf l'entrée conservée et les fichiers temporaires (écritures en cours d'autres entrées)
+     *
+     * @param uri  Uri
+     * @param kept File (ou null)
+     */
+    private void invalidate(Uri uri, File kept) {
+        String prefix = hash(uri.toString()) + "_";
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(prefix) && name.endsWith(EXTENSION) && !file.equals(kept)) {
+                    deleteFile(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ecris le sample décodé dans le fichier cache (fichier temporaire propre à l'entrée puis renommage, sous le verrou de l'entrée)
+     *
+     * @param file    File
+     * @param decoded DecodedSample
+     * @throws IOException IOException
+     */
+    private void write(File file, DecodedSample decoded) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Impossible de créer le répertoire du cache PCM");
+        }
+        File tmp = new File(directory, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            // En-tête (big endian)
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(decoded.sampleRate());
+            out.writeInt(decoded.frameCount());
+            out.writeFloat(decoded.gain());
+            // Données PCM (little endian)
+            ShortBuffer pcm = decoded.pcm();
+            int samples = decoded.frameCount() * DecodedSample.CHANNEL_COUNT;
+            for (int i = 0; i < samples; i++) {
+                short value = pcm.get(i);
+                out.write(value & 0xFF);
+                out.write((value >> 8) & 0xFF);
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            deleteFile(tmp);
+            throw new IOException("Impossible de renommer le fichier du cache PCM");
+        }
+    }
+
+    /**
+     * Projette le fichier cache en mémoire
+     *
+     * @param file File
+     * @return DecodedSample
+     * @throws IOException IOException
+     */
+    private DecodedSample map(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            if (raf.readInt() != MAGIC || raf.readInt() != VERSION) {
+                throw new IOException("En-tête du cache PCM invalide");
+            }
+            int sampleRate = raf.readInt();
+            int frameCount = raf.readInt();
+            float gain = raf.readFloat();
+            long length = (long) frameCount * DecodedSample.CHANNEL_COUNT * 2;
+            if (HEADER_SIZE + length != channel.size()) {
+                throw new IOException("Taille du cache PCM invalide");
+            }
+            // La projection reste valide après la fermeture du canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, length);
+            ShortBuffer pcm = buffer.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+            return new DecodedSample(pcm, frameCount, sampleRate, gain);
+        }
+    }
+
+    /**
+     * Construit la clé d'une source (nom des entrées de cache) : hash de l'Uri + taille + date de modification de la source
+     *
+     * @param context Context
+     * @param uri     Uri
+     * @return String
+     */
+    static String getSourceKey(Context context, Uri uri) {
+        long size = -1;
+        long modified = -1;
+        String scheme = uri.getScheme();
+        try {
+            if (ContentResolver.SCHEME_ANDROID_RESOURCE.equals(scheme)) {
+                // Ressource interne : change uniquement avec une mise à jour de l'application
+                try (AssetFileDescriptor afd = context.getContentResolver().openAssetFileDescriptor(uri, "r")) {
+                    if (afd != null) {
+                        size = afd.getLength();
+                    }
+                }
+                modified = context.getPackageManager().getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+            } else if (ContentResolver.SCHEME_FILE.equals(scheme) && uri.getPath() != null) {
+                File source = new File(uri.getPath());
+                size = source.length();
+                modified = source.lastModified();
+            } else {
+                try (Cursor cursor = context.getContentResolver().query(uri, null, null, null, null)) {
+                    if (cursor != null && cursor.moveToFirst()) {
+                        int sizeIndex = cursor.getColumnIndex(OpenableColumns.SIZE);
+                        if (sizeIndex >= 0 && !cursor.isNull(sizeIndex)) {
+                            size = cursor.getLong(sizeIndex);
+                        }
+                        int modifiedIndex = cursor.getColumnIndex(DocumentsContract.Document.COLUMN_LAST_MODIFIED);
+                        if (modifiedIndex >= 0 && !cursor.isNull(modifiedIndex)) {
+                            modified = cursor.getLong(modifiedIndex);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | PackageManager.NameNotFoundException | SecurityException ex) {
+            Log.e("ERROR", "Impossible de lire les informations de la source : " + uri);
+        }
+        return hash(uri.toString()) + "_" + size + "_" + modified;
+    }
+
+    /**
+     * Calcule le hash SHA-1 (hexadécimal) d'une chaîne
+     *
+     * @param value String
+     * @return String
+     */
+    static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest(value.getBytes(StandardCharsets.UTF_8))) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            return Integer.toHexString(value.hashCode());
+        }
+    }
+
+    /**
+     * Supprime un fichier du cache
+     *
+     * @param file File
+     */
+    private static void deleteFile(File file) {
+        if (!file.delete()) {
+            Log.e("ERROR", "Impossible de supprimer le fichier du cache PCM : " + file.getName());
+        }
+    }
+
+}
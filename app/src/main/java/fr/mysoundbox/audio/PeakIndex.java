@@ -0,0 +1,164 @@
+package fr.mysoundbox.audio;
+
+import java.util.Arrays;
+
+/**
+ * Index multi-résolution des crêtes (min / max) d'un sample, pour l'affichage de sa forme d'onde
+ * Le niveau 0 résume des blocs de BASE_BLOCK_FRAMES frames, chaque niveau suivant fusionne deux entrées du précédent
+ * L'affichage choisit le niveau adapté à sa largeur : le coût de rendu ne dépend pas de la durée du sample
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class PeakIndex {
+
+    /**
+     * Attributs
+     */
+    public static final int BASE_BLOCK_FRAMES = 64;
+
+    private final short[][] mins;
+    private final short[][] maxs;
+
+    /**
+     * Constructeur
+     *
+     * @param mins short[][] (par niveau)
+     * @param maxs short[][] (par niveau)
+     */
+    public PeakIndex(short[][] mins, short[][] maxs) {
+        this.mins = mins;
+        this.maxs = maxs;
+    }
+
+    /**
+     * Construit les niveaux supérieurs à partir du niveau 0
+     *
+     * @param baseMins short[]
+     * @param baseMaxs short[]
+     * @return PeakIndex
+     */
+    static PeakIndex fromBaseLevel(short[] baseMins, short[] baseMaxs) {
+        int levelCount = 1;
+        for (int count = baseMins.length; count > 1; count = (count + 1) / 2) {
+            levelCount++;
+        }
+        short[][] mins = new short[levelCount][];
+        short[][] maxs = new short[levelCount][];
+        mins[0] = baseMins;
+        maxs[0] = baseMaxs;
+        for (int level = 1; level < levelCount; level++) {
+            short[] previousMins = mins[level - 1];
+            short[] previousMaxs = maxs[level - 1];
+            int count = (previousMins.length + 1) / 2;
+            mins[level] = new short[count];
+            maxs[level] = new short[count];
+            for (int i = 0; i < count; i++) {
+                int a = i * 2;
+                int b = Math.min(a + 1, previousMins.length - 1);
+                mins[level][i] = (short) Math.min(previousMins[a], previousMins[b]);
+                maxs[level][i] = (short) Math.max(previousMaxs[a], previousMaxs[b]);
+            }
+        }
+        return new PeakIndex(mins, maxs);
+    }
+
+    /**
+     * Sélectionne le niveau le plus grossier comportant au moins autant d'entrées que de colonnes à afficher
+     *
+     * @param columns int
+     * @return int
+     */
+    public int selectLevel(int columns) {
+        for (int level = mins.length - 1; level > 0; level--) {
+            if (mins[level].length >= columns) {
+                return level;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Nombre de niveaux
+     *
+     * @return int
+     */
+    public int getLevelCount() {
+        return mins.length;
+    }
+
+    /**
+     * Nombre d'entrées d'un niveau
+     *
+     * @param level int
+     * @return int
+     */
+    public int getCount(int level) {
+        return mins[level].length;
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public short getMin(int level, int index) {
+        return mins[level][index];
+    }
+
+    public short getMax(int level, int index) {
+        return maxs[level][index];
+    }
+
+    /**
+     * Construction du niveau 0 au fil du décodage (la forme d'onde d'un fichier long n'est jamais entièrement en mémoire)
+     */
+    public static class Builder implements FrameSink {
+
+        private short[] baseMins = new short[1024];
+        private short[] baseMaxs = new short[1024];
+        private int count = 0;
+        private int blockFrames = 0;
+        private short blockMin = Short.MAX_VALUE;
+        private short blockMax = Short.MIN_VALUE;
+
+        @Override
+        public void onFrame(short left, short right) {
+            blockMin = (short) Math.min(blockMin, Math.min(left, right));
+            blockMax = (short) Math.max(blockMax, Math.max(left, right));
+            if (++blockFrames == BASE_BLOCK_FRAMES) {
+                flushBlock();
+            }
+        }
+
+        /**
+         * Termine le dernier bloc puis construit l'index
+         *
+         * @return PeakIndex
+         */
+        public PeakIndex build() {
+            if (blockFrames > 0 || count == 0) {
+                flushBlock();
+            }
+            return fromBaseLevel(Arrays.copyOf(baseMins, count), Arrays.copyOf(baseMaxs, count));
+        }
+
+        /**
+         * Ajoute le bloc en cours au niveau 0
+         */
+        private void flushBlock() {
+            if (count == baseMins.length) {
+                baseMins = Arrays.copyOf(baseMins, count * 2);
+                baseMaxs = Arrays.copyOf(baseMaxs, count * 2);
+            }
+            // Bloc vide (sample vide) : crête nulle
+            baseMins[count] = blockFrames > 0 ? blockMin : 0;
+            baseMaxs[count] = blockFrames > 0 ? blockMax : 0;
+            count++;
+            blockFrames = 0;
+            blockMin = Short.MAX_VALUE;
+            blockMax = Short.MIN_VALUE;
+        }
+
+    }
+
+}
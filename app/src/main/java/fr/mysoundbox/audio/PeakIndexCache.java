@@ -0,0 +1,161 @@
+package fr.mysoundbox.audio;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Cache disque des index de crêtes (dans les datas privées de l'application, à côté du fichier des samples)
+ * Chaque entrée est identifiée comme celles du cache PCM (Uri + taille + date de modification) : l'index n'est reconstruit que pour un fichier nouveau ou modifié
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class PeakIndexCache {
+
+    /**
+     * Attributs
+     */
+    private static final String DIRECTORY = "peaks";
+    private static final String EXTENSION = ".peaks";
+    private static final int MAGIC = 0x4D53424B; // 'MSBK'
+    private static final int VERSION = 1;
+
+    private final File directory;
+
+    /**
+     * Constructeur
+     *
+     * @param context Context
+     */
+    public PeakIndexCache(Context context) {
+        this.directory = new File(context.getFilesDir(), DIRECTORY);
+    }
+
+    /**
+     * Récupère l'index de crêtes depuis le cache, ou le construit en décodant le sample au fil de l'eau puis l'enregistre
+     *
+     * @param context Context
+     * @param uri     Uri
+     * @return PeakIndex
+     * @throws TechnicalException TechnicalException
+     */
+    public PeakIndex load(Context context, Uri uri) throws TechnicalException {
+        File file = new File(directory, PcmDiskCache.getSourceKey(context, uri) + EXTENSION);
+        if (file.exists()) {
+            try {
+                return read(file);
+            } catch (IOException ioex) {
+                // Entrée corrompue : supprimée puis reconstruite
+                Log.e("ERROR", "Entrée du cache des crêtes invalide : " + file.getName());
+                deleteFile(file);
+            }
+        }
+        PeakIndex.Builder builder = new PeakIndex.Builder();
+        SampleDecoder.decode(context, uri, Integer.MAX_VALUE, builder);
+        PeakIndex peakIndex = builder.build();
+        try {
+            invalidate(uri);
+            write(file, peakIndex);
+        } catch (IOException ioex) {
+            Log.e("ERROR", "Impossible d'écrire le cache des crêtes : " + file.getName());
+        }
+        return peakIndex;
+    }
+
+    /**
+     * Supprime toutes les entrées du cache d'une Uri
+     *
+     * @param uri Uri
+     */
+    public void invalidate(Uri uri) {
+        String prefix = PcmDiskCache.hash(uri.toString()) + "_";
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().startsWith(prefix)) {
+                    deleteFile(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ecris l'index de crêtes dans le fichier cache (fichier temporaire puis renommage)
+     *
+     * @param file      File
+     * @param peakIndex PeakIndex
+     * @throws IOException IOException
+     */
+    private void write(File file, PeakIndex peakIndex) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Impossible de créer le répertoire du cache des crêtes");
+        }
+        File tmp = new File(directory, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            // Seul le niveau 0 est enregistré, les niveaux supérieurs sont recalculés à la lecture
+            int count = peakIndex.getCount(0);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                out.writeShort(peakIndex.getMin(0, i));
+                out.writeShort(peakIndex.getMax(0, i));
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            deleteFile(tmp);
+            throw new IOException("Impossible de renommer le fichier du cache des crêtes");
+        }
+    }
+
+    /**
+     * Lit l'index de crêtes du fichier cache
+     *
+     * @param file File
+     * @return PeakIndex
+     * @throws IOException IOException
+     */
+    private PeakIndex read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("En-tête du cache des crêtes invalide");
+            }
+            int count = in.readInt();
+            if (count <= 0 || count * 4L + 12 != file.length()) {
+                throw new IOException("Taille du cache des crêtes invalide");
+            }
+            short[] mins = new short[count];
+            short[] maxs = new short[count];
+            for (int i = 0; i < count; i++) {
+                mins[i] = in.readShort();
+                maxs[i] = in.readShort();
+            }
+            return PeakIndex.fromBaseLevel(mins, maxs);
+        }
+    }
+
+    /**
+     * Supprime un fichier du cache
+     *
+     * @param file File
+     */
+    private static void deleteFile(File file) {
+        if (!file.delete()) {
+            Log.e("ERROR", "Impossible de supprimer le fichier du cache des crêtes : " + file.getName());
+        }
+    }
+
+}
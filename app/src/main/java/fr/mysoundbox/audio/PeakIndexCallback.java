@@ -0,0 +1,22 @@
+package fr.mysoundbox.audio;
+
+import android.net.Uri;
+
+/**
+ * Interface de retour du chargement de l'index de crêtes d'un sample (appelée sur le thread UI)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public interface PeakIndexCallback {
+
+    /**
+     * Lors de la fin du chargement de l'index
+     *
+     * @param uri       Uri
+     * @param peakIndex PeakIndex (ou null si le sample n'a pas pu être décodé)
+     */
+    void onPeakIndexLoaded(Uri uri, PeakIndex peakIndex);
+
+}
@@ -0,0 +1,19 @@
+package fr.mysoundbox.audio;
+
+/**
+ * Interface de notification de la fin de lecture d'un pad (appelée sur le thread UI)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public interface PlaybackListener {
+
+    /**
+     * Lors de la fin de lecture du pad
+     *
+     * @param pad int (0 à 11)
+     */
+    void onPadCompleted(int pad);
+
+}
@@ -0,0 +1,22 @@
+package fr.mysoundbox.audio;
+
+/**
+ * Modes de lecture des pads
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public enum PlaybackMode {
+
+    /**
+     * Samples pré-décodés en PCM et joués via l'AudioTrack du moteur (le pool sert de repli tant qu'un sample n'est pas décodé)
+     */
+    AUDIO_TRACK,
+
+    /**
+     * Un MediaPlayer déjà préparé par pad, ré-utilisé à chaque déclenchement
+     */
+    MEDIA_PLAYER_POOL
+
+}
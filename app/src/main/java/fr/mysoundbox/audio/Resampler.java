@@ -0,0 +1,160 @@
+package fr.mysoundbox.audio;
+
+import java.nio.ShortBuffer;
+
+/**
+ * Conversion de fréquence d'échantillonnage d'un sample décodé, effectuée une seule fois lors de la mise en cache
+ * Le sample est ainsi joué à la fréquence native du périphérique : pas de ré-échantillonnage par le mixeur Android (chemin 'fast mixer' conservé)
+ * Deux qualités : interpolation linéaire (rapide) ou sinus cardinal fenêtré (Blackman, table polyphase)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class Resampler {
+
+    /**
+     * Qualité de ré-échantillonnage
+     */
+    public enum Quality {
+        LINEAR,
+        SINC
+    }
+
+    /**
+     * Attributs
+     */
+    // Demi-largeur du filtre (en échantillons source) et nombre de phases de la table
+    private static final int SINC_HALF_TAPS = 16;
+    private static final int SINC_PHASES = 512;
+
+    /**
+     * Ré-échantillonne un sample à la fréquence cible (le sample est renvoyé tel quel si les fréquences sont identiques)
+     *
+     * @param decoded    DecodedSample
+     * @param targetRate int
+     * @param quality    Quality
+     * @return DecodedSample (sur le tas Java)
+     */
+    public static DecodedSample resample(DecodedSample decoded, int targetRate, Quality quality) {
+        if (decoded.sampleRate() == targetRate || decoded.frameCount() < 2) {
+            return decoded;
+        }
+        int outFrames = (int) ((long) decoded.frameCount() * targetRate / decoded.sampleRate());
+        short[] out = new short[outFrames * DecodedSample.CHANNEL_COUNT];
+        if (quality == Quality.SINC) {
+            resampleSinc(decoded, targetRate, out, outFrames);
+        } else {
+            resampleLinear(decoded, targetRate, out, outFrames);
+        }
+        return new DecodedSample(ShortBuffer.wrap(out), outFrames, targetRate, decoded.gain());
+    }
+
+    /**
+     * Interpolation linéaire entre les deux frames source encadrantes
+     *
+     * @param decoded    DecodedSample
+     * @param targetRate int
+     * @param out        short[]
+     * @param outFrames  int
+     */
+    private static void resampleLinear(DecodedSample decoded, int targetRate, short[] out, int outFrames) {
+        ShortBuffer pcm = decoded.pcm();
+        int lastFrame = decoded.frameCount() - 1;
+        double step = (double) decoded.sampleRate() / targetRate;
+        for (int f = 0; f < outFrames; f++) {
+            double position = f * step;
+            int index = Math.min((int) position, lastFrame - 1);
+            float frac = (float) (position - index);
+            int i = index * DecodedSample.CHANNEL_COUNT;
+            for (int c = 0; c < DecodedSample.CHANNEL_COUNT; c++) {
+                short a = pcm.get(i + c);
+                short b = pcm.get(i + DecodedSample.CHANNEL_COUNT + c);
+                out[f * DecodedSample.CHANNEL_COUNT + c] = clip(a + (b - a) * frac);
+            }
+        }
+    }
+
+    /**
+     * Convolution par un sinus cardinal fenêtré (Blackman), coupé sous la plus petite des deux fréquences de Nyquist (anti-repliement)
+     *
+     * @param decoded    DecodedSample
+     * @param targetRate int
+     * @param out        short[]
+     * @param outFrames  int
+     */
+    private static void resampleSinc(DecodedSample decoded, int targetRate, short[] out, int outFrames) {
+        ShortBuffer pcm = decoded.pcm();
+        int frameCount = decoded.frameCount();
+        double step = (double) decoded.sampleRate() / targetRate;
+        // Fréquence de coupure relative (sous-échantillonnage : filtre élargi d'autant)
+        double cutoff = Math.min(1.0, 1.0 / step) * 0.95;
+        int halfTaps = (int) Math.ceil(SINC_HALF_TAPS / Math.min(1.0, 1.0 / step));
+        float[][] table = buildSincTable(halfTaps, cutoff);
+        for (int f = 0; f < outFrames; f++) {
+            double position = f * step;
+            int index = (int) position;
+            float[] taps = table[(int) ((position - index) * SINC_PHASES)];
+            float left = 0;
+            float right = 0;
+            for (int t = 0; t < taps.length; t++) {
+                int source = index - halfTaps + 1 + t;
+                if (source < 0 || source >= frameCount) {
+                    continue;
+                }
+                int i = source * DecodedSample.CHANNEL_COUNT;
+                left += pcm.get(i) * taps[t];
+                right += pcm.get(i + 1) * taps[t];
+            }
+            out[f * DecodedSample.CHANNEL_COUNT] = clip(left);
+            out[f * DecodedSample.CHANNEL_COUNT + 1] = clip(right);
+        }
+    }
+
+    /**
+     * Pré-calcule les coefficients du filtre pour chaque phase (décalage fractionnaire) : aucun sinus / cosinus dans la boucle de conversion
+     *
+     * @param halfTaps int
+     * @param cutoff   double
+     * @return float[][] (phase, coefficient)
+     */
+    private static float[][] buildSincTable(int halfTaps, double cutoff) {
+        int taps = halfTaps * 2;
+        float[][] table = new float[SINC_PHASES][taps];
+        for (int p = 0; p < SINC_PHASES; p++) {
+            double frac = (double) p / SINC_PHASES;
+            double sum = 0;
+            for (int t = 0; t < taps; t++) {
+                // Distance entre la frame source et la position à calculer
+                double x = (t - halfTaps + 1) - frac;
+                double sinc = x == 0 ? 1.0 : Math.sin(Math.PI * cutoff * x) / (Math.PI * cutoff * x);
+                double window = 0.42 + 0.5 * Math.cos(Math.PI * x / halfTaps) + 0.08 * Math.cos(2 * Math.PI * x / halfTaps);
+                double value = Math.abs(x) >= halfTaps ? 0 : sinc * window;
+                table[p][t] = (float) value;
+                sum += value;
+            }
+            // Gain unitaire pour chaque phase
+            for (int t = 0; t < taps; t++) {
+                table[p][t] /= (float) sum;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Convertit en 16 bits avec écrêtage
+     *
+     * @param value float
+     * @return short
+     */
+    private static short clip(float value) {
+        if (value > Short.MAX_VALUE) {
+            return Short.MAX_VALUE;
+        }
+        if (value < Short.MIN_VALUE) {
+            return Short.MIN_VALUE;
+        }
+        return (short) value;
+    }
+
+}
@@ -0,0 +1,154 @@
+package fr.mysoundbox.audio;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import java.nio.ShortBuffer;
+
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Analyse hors ligne d'un sample (thread d'arrière-plan uniquement)
+ * - détection du silence en début de fichier, pour démarrer la lecture directement sur le son
+ * - mesure de loudness (RMS par blocs avec portes absolue et relative, à la manière de la norme LUFS sans pondération K) et gain de normalisation
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class SampleAnalyzer {
+
+    /**
+     * Attributs
+     */
+    // Seuil de silence : environ -48 dBFS
+    private static final int SILENCE_THRESHOLD = 130;
+    // Durée maximale de silence recherchée, au-delà le silence est considéré comme voulu
+    private static final int MAX_LEADING_SILENCE_MS = 1000;
+    // Marge conservée avant le premier son, pour ne pas couper l'attaque
+    private static final int PRE_ROLL_MS = 5;
+    private static final int MAX_SAMPLE_RATE = 192000;
+    // Loudness cible et bornes du gain de normalisation
+    private static final double TARGET_LOUDNESS_DBFS = -18.0;
+    private static final double ABSOLUTE_GATE_DBFS = -70.0;
+    private static final double RELATIVE_GATE_DB = -10.0;
+    private static final int BLOCK_MS = 50;
+    private static final float MIN_GAIN = 0.1f;
+    private static final float MAX_GAIN = 4f;
+    // Crête maximale après normalisation (environ -0,3 dBFS)
+    private static final double MAX_PEAK = 0.966;
+
+    /**
+     * Détecte la première frame non silencieuse du sample
+     *
+     * @param context Context
+     * @param uri     Uri
+     * @return long décalage de départ en microsecondes (0 si aucun silence significatif)
+     * @throws TechnicalException TechnicalException
+     */
+    public static long findStartOffsetUs(Context context, Uri uri) throws TechnicalException {
+        // Décode uniquement le début du fichier (la fréquence réelle est connue après décodage)
+        DecodedSample head = SampleDecoder.decode(context, uri, MAX_SAMPLE_RATE * MAX_LEADING_SILENCE_MS / 1000);
+        int maxFrames = Math.min(head.frameCount(), head.sampleRate() * MAX_LEADING_SILENCE_MS / 1000);
+        ShortBuffer pcm = head.pcm();
+        int firstFrame = -1;
+        for (int f = 0; f < maxFrames && firstFrame < 0; f++) {
+            int i = f * DecodedSample.CHANNEL_COUNT;
+            if (Math.abs(pcm.get(i)) > SILENCE_THRESHOLD || Math.abs(pcm.get(i + 1)) > SILENCE_THRESHOLD) {
+                firstFrame = f;
+            }
+        }
+        if (firstFrame <= 0) {
+            // Son dès le début, ou silence trop long pour être un défaut d'édition
+            return 0;
+        }
+        int startFrame = Math.max(0, firstFrame - head.sampleRate() * PRE_ROLL_MS / 1000);
+        long startOffsetUs = startFrame * 1_000_000L / head.sampleRate();
+        Log.e("INFO", "Silence initial détecté : " + startOffsetUs / 1000 + " ms (" + uri + ")");
+        return startOffsetUs;
+    }
+
+    /**
+     * Calcule le gain de normalisation d'un sample décodé
+     * La loudness est la moyenne quadratique des blocs de 50 ms au-dessus de la porte absolue puis de la porte relative (les silences et queues de réverbération sont ignorés)
+     * Le gain est limité pour que la crête du sample ne sature pas
+     *
+     * @param decoded DecodedSample
+     * @return float (1 si le sample est silencieux)
+     */
+    public static float computeGain(DecodedSample decoded) {
+        ShortBuffer pcm = decoded.pcm();
+        int blockFrames = Math.max(1, decoded.sampleRate() * BLOCK_MS / 1000);
+        int blockCount = (decoded.frameCount() + blockFrames - 1) / blockFrames;
+        if (blockCount == 0) {
+            return 1f;
+        }
+        // Energie moyenne de chaque bloc et crête du sample
+        double[] blockEnergies = new double[blockCount];
+        int peak = 0;
+        for (int b = 0; b < blockCount; b++) {
+            int first = b * blockFrames;
+            int last = Math.min(decoded.frameCount(), first + blockFrames);
+            double sum = 0;
+            for (int f = first; f < last; f++) {
+                int i = f * DecodedSample.CHANNEL_COUNT;
+                int left = pcm.get(i);
+                int right = pcm.get(i + 1);
+                sum += (double) left * left + (double) right * right;
+                peak = Math.max(peak, Math.max(Math.abs(left), Math.abs(right)));
+            }
+            blockEnergies[b] = sum / ((last - first) * DecodedSample.CHANNEL_COUNT * 32768.0 * 32768.0);
+        }
+        // Porte absolue puis porte relative
+        double absoluteGate = fromDb(ABSOLUTE_GATE_DBFS);
+        double gatedEnergy = gatedMean(blockEnergies, absoluteGate);
+        if (gatedEnergy <= 0) {
+            return 1f;
+        }
+        double relativeGate = Math.max(absoluteGate, gatedEnergy * fromDb(RELATIVE_GATE_DB));
+        double loudnessEnergy = gatedMean(blockEnergies, relativeGate);
+        if (loudnessEnergy <= 0) {
+            loudnessEnergy = gatedEnergy;
+        }
+        double loudnessDbfs = 10 * Math.log10(loudnessEnergy);
+        // Gain vers la cible, limité par la crête
+        double gain = Math.pow(10, (TARGET_LOUDNESS_DBFS - loudnessDbfs) / 20);
+        if (peak > 0) {
+            gain = Math.min(gain, MAX_PEAK * 32768.0 / peak);
+        }
+        float result = (float) Math.max(MIN_GAIN, Math.min(MAX_GAIN, gain));
+        Log.e("INFO", "Loudness : " + Math.round(loudnessDbfs * 10) / 10.0 + " dBFS, gain : " + result);
+        return result;
+    }
+
+    /**
+     * Moyenne des énergies des blocs au-dessus d'une porte
+     *
+     * @param blockEnergies double[]
+     * @param gate          double
+     * @return double (0 si aucun bloc)
+     */
+    private static double gatedMean(double[] blockEnergies, double gate) {
+        double sum = 0;
+        int count = 0;
+        for (double energy : blockEnergies) {
+            if (energy > gate) {
+                sum += energy;
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : 0;
+    }
+
+    /**
+     * Convertit un niveau en dB en rapport d'énergie
+     *
+     * @param db double
+     * @return double
+     */
+    private static double fromDb(double db) {
+        return Math.pow(10, db / 10);
+    }
+
+}
@@ -0,0 +1,116 @@
+package fr.mysoundbox.audio;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Classe en charge de décoder un fichier audio en PCM 16 bits stéréo, via le décodeur adapté au fichier :
+ * - WavDecoder (pur Java, sans codec) pour les fichiers WAV PCM
+ * - MediaCodecDecoder pour les formats compressés (MP3, AAC, FLAC, ...)
+ * Les frames peuvent être conservées en mémoire ou transmises au fil de l'eau à un FrameSink (fichiers longs)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class SampleDecoder {
+
+    /**
+     * Attributs
+     */
+    private static final int INITIAL_CAPACITY = 44100 * DecodedSample.CHANNEL_COUNT;
+    private static final AudioDecoder WAV_DECODER = new WavDecoder();
+    private static final AudioDecoder MEDIA_CODEC_DECODER = new MediaCodecDecoder();
+
+    /**
+     * Sélectionne le décodeur adapté au fichier audio de l'Uri
+     *
+     * @param context Context
+     * @param uri     Uri
+     * @return AudioDecoder
+     */
+    public static AudioDecoder getDecoder(Context context, Uri uri) {
+        return WavDecoder.isSupported(context, uri) ? WAV_DECODER : MEDIA_CODEC_DECODER;
+    }
+
+    /**
+     * Récupère la durée et la taille du fichier audio de l'Uri, sans le décoder
+     *
+     * @param context Context
+     * @param uri     Uri
+     * @return SampleInfo
+     * @throws TechnicalException TechnicalException
+     */
+    public static SampleInfo probe(Context context, Uri uri) throws TechnicalException {
+        return getDecoder(context, uri).probe(context, uri);
+    }
+
+    /**
+     * Décode entièrement le fichier audio de l'Uri
+     *
+     * @param context Context
+     * @param uri     Uri
+     * @return DecodedSample
+     * @throws TechnicalException TechnicalException
+     */
+    public static DecodedSample decode(Context context, Uri uri) throws TechnicalException {
+        return decode(context, uri, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Décode le début du fichier audio de l'Uri, au plus maxFrames frames
+     *
+     * @param context   Context
+     * @param uri       Uri
+     * @param maxFrames int
+     * @return DecodedSample
+     * @throws TechnicalException TechnicalException
+     */
+    public static DecodedSample decode(Context context, Uri uri, int maxFrames) throws TechnicalException {
+        PcmAccumulator accumulator = new PcmAccumulator();
+        int sampleRate = decode(context, uri, maxFrames, accumulator);
+        Log.e("INFO", "Sample décodé : " + uri);
+        return new DecodedSample(ShortBuffer.wrap(accumulator.pcm, 0, accumulator.length).slice(), accumulator.length / DecodedSample.CHANNEL_COUNT, sampleRate);
+    }
+
+    /**
+     * Décode le début du fichier audio de l'Uri (au plus maxFrames frames) en transmettant les frames au fil de l'eau, sans les conserver en mémoire
+     *
+     * @param context   Context
+     * @param uri       Uri
+     * @param maxFrames int
+     * @param sink      FrameSink
+     * @return int fréquence d'échantillonnage
+     * @throws TechnicalException TechnicalException
+     */
+    public static int decode(Context context, Uri uri, int maxFrames, FrameSink sink) throws TechnicalException {
+        return getDecoder(context, uri).decode(context, uri, maxFrames, sink);
+    }
+
+    /**
+     * Accumulateur des frames décodées dans un tableau stéréo entrelacé extensible
+     */
+    private static class PcmAccumulator implements FrameSink {
+
+        private short[] pcm = new short[INITIAL_CAPACITY];
+        private int length = 0;
+
+        @Override
+        public void onFrame(short left, short right) {
+            // Agrandit le tableau si besoin
+            if (length + DecodedSample.CHANNEL_COUNT > pcm.length) {
+                pcm = Arrays.copyOf(pcm, pcm.length * 2);
+            }
+            pcm[length++] = left;
+            pcm[length++] = right;
+        }
+
+    }
+
+}
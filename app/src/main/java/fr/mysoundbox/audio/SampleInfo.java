@@ -0,0 +1,23 @@
+package fr.mysoundbox.audio;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Classe modèle des informations d'un fichier audio avant décodage (durée et taille de la source)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public record SampleInfo(long durationUs, long sizeBytes) {
+
+    /**
+     * ToString
+     */
+    @NonNull
+    @Override
+    public String toString() {
+        return "{ Duration : " + durationUs + " us , Size : " + sizeBytes + " }";
+    }
+
+}
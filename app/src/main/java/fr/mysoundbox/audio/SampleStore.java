@@ -0,0 +1,193 @@
+package fr.mysoundbox.audio;
+
+import android.net.Uri;
+import android.util.Log;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Magasin des samples décodés hors du tas Java (ByteBuffer direct ou projection du cache disque), sous un budget mémoire en octets
+ * Lorsque le budget est dépassé, les samples les moins récemment déclenchés sont évincés
+ * L'ordre d'éviction est l'ordre d'insertion de la table : un déclenchement ré-insère le sample en dernier, une simple consultation (peek) ne le déplace pas
+ * Les informations des fichiers (durée, taille) sont aussi conservées par Uri : un changement de banque ne ré-interroge pas chaque fichier
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class SampleStore {
+
+    /**
+     * Attributs
+     */
+    private final LinkedHashMap<Uri, DecodedSample> entries = new LinkedHashMap<>();
+    private final Map<Uri, SampleInfo> infos = new HashMap<>();
+    private long budgetBytes;
+    private long usedBytes = 0;
+
+    /**
+     * Constructeur
+     *
+     * @param budgetBytes long
+     */
+    public SampleStore(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Récupère le sample d'une Uri (sans le marquer comme déclenché)
+     *
+     * @param uri Uri
+     * @return DecodedSample (ou null si absent / évincé)
+     */
+    public synchronized DecodedSample peek(Uri uri) {
+        return entries.get(uri);
+    }
+
+    /**
+     * Marque le sample d'une Uri comme déclenché (le plus récent pour l'éviction)
+     *
+     * @param uri Uri
+     * @return boolean (false si le sample a été évincé)
+     */
+    public synchronized boolean touch(Uri uri) {
+        DecodedSample decoded = entries.remove(uri);
+        if (decoded == null) {
+            return false;
+        }
+        entries.put(uri, decoded);
+        return true;
+    }
+
+    /**
+     * Ajoute un sample (copié hors du tas si besoin) puis évince les samples les moins récemment déclenchés si le budget est dépassé
+     *
+     * @param uri     Uri
+     * @param decoded DecodedSample
+     * @return List<Uri> des samples évincés
+     */
+    public synchronized List<Uri> put(Uri uri, DecodedSample decoded) {
+        DecodedSample stored = toDirect(decoded);
+        // Retire l'ancienne version pour placer le sample en dernier dans l'ordre d'éviction
+        DecodedSample previous = entries.remove(uri);
+        entries.put(uri, stored);
+        if (previous != null) {
+            usedBytes -= sizeOf(previous);
+        }
+        usedBytes += sizeOf(stored);
+        return evict(uri);
+    }
+
+    /**
+     * Récupère les informations (durée, taille) d'une Uri déjà lues
+     *
+     * @param uri Uri
+     * @return SampleInfo (ou null si le fichier n'a pas encore été lu)
+     */
+    public synchronized SampleInfo getInfo(Uri uri) {
+        return infos.get(uri);
+    }
+
+    /**
+     * Conserve les informations (durée, taille) d'une Uri
+     *
+     * @param uri  Uri
+     * @param info SampleInfo
+     */
+    public synchronized void putInfo(Uri uri, SampleInfo info) {
+        infos.put(uri, info);
+    }
+
+    /**
+     * Supprime le sample et les informations d'une Uri
+     *
+     * @param uri Uri
+     */
+    public synchronized void remove(Uri uri) {
+        infos.remove(uri);
+        DecodedSample previous = entries.remove(uri);
+        if (previous != null) {
+            usedBytes -= sizeOf(previous);
+        }
+    }
+
+    /**
+     * Vide le magasin (les informations des fichiers, de petite taille, sont conservées)
+     */
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Evince les samples les moins récemment déclenchés jusqu'à repasser sous le budget (le sample ajouté est conservé)
+     *
+     * @param kept Uri
+     * @return List<Uri> des samples évincés
+     */
+    private List<Uri> evict(Uri kept) {
+        List<Uri> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Uri, DecodedSample>> iterator = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && iterator.hasNext()) {
+            Map.Entry<Uri, DecodedSample> entry = iterator.next();
+            if (!entry.getKey().equals(kept)) {
+                usedBytes -= sizeOf(entry.getValue());
+                evicted.add(entry.getKey());
+                iterator.remove();
+            }
+        }
+        if (!evicted.isEmpty()) {
+            Log.e("INFO", "SampleStore : " + evicted.size() + " sample(s) évincé(s), " + usedBytes + " / " + budgetBytes + " octets");
+        }
+        return evicted;
+    }
+
+    /**
+     * Copie les données PCM dans un ByteBuffer direct si elles sont sur le tas Java
+     *
+     * @param decoded DecodedSample
+     * @return DecodedSample
+     */
+    private static DecodedSample toDirect(DecodedSample decoded) {
+        if (decoded.pcm().isDirect()) {
+            return decoded;
+        }
+        int samples = decoded.frameCount() * DecodedSample.CHANNEL_COUNT;
+        ShortBuffer direct = ByteBuffer.allocateDirect(samples * 2).order(ByteOrder.nativeOrder()).asShortBuffer();
+        ShortBuffer source = decoded.pcm().duplicate();
+        source.limit(samples);
+        direct.put(source);
+        direct.clear();
+        return new DecodedSample(direct, decoded.frameCount(), decoded.sampleRate(), decoded.gain());
+    }
+
+    /**
+     * Taille en octets des données PCM d'un sample
+     *
+     * @param decoded DecodedSample
+     * @return long
+     */
+    private static long sizeOf(DecodedSample decoded) {
+        return (long) decoded.frameCount() * DecodedSample.CHANNEL_COUNT * 2;
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+}
@@ -0,0 +1,252 @@
+package fr.mysoundbox.audio;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Process;
+import android.util.Log;
+
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Lecture en flux d'un sample long : seul le début (tête) est décodé en mémoire, la suite est décodée à la volée
+ * par un thread de décodage qui maintient un buffer circulaire borné en avance sur la tête de lecture
+ * La mémoire utilisée reste constante quelle que soit la durée du fichier
+ * La suite est produite par le même AudioDecoder que la tête (WavDecoder ou MediaCodecDecoder, délai et bourrage retirés) : elle reprend exactement à la frame qui suit la tête
+ * Les frames sont écrites une à une : quand le buffer est plein, le décodeur attend que la lecture avance (aucune frame non lue n'est écrasée, quelle que soit la taille des blocs du codec)
+ * Un flux en boucle ne se termine pas : en fin de fichier, le décodage reprend au point de boucle et les frames suivent sans blanc dans le buffer circulaire
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class SampleStream {
+
+    /**
+     * Attributs
+     */
+    private static final long FULL_WAIT_MS = 5;
+
+    private final Context context;
+    private final Uri uri;
+    private final DecodedSample head;
+    private final short[] ring;
+    private final int ringFrames;
+    private final RingWriter writer = new RingWriter();
+
+    // Frames absolues disponibles (tête comprise) et position de lecture (thread de rendu)
+    private volatile long availableFrames;
+    private volatile long consumedFrames = 0;
+    private volatile boolean ended = false;
+
+    // Frames décodées à sauter (tête déjà en mémoire), position d'écriture et génération décodée (thread de décodage)
+    private long skipFrames = 0;
+    private long writeFrame = 0;
+    private int currentGeneration = -1;
+
+    // Contrôle du thread de décodage
+    private Thread thread = null;
+    private boolean active = false;
+    private boolean loop = false;
+    private long loopStartFrame = 0;
+    private volatile int generation = 0;
+
+    /**
+     * Constructeur
+     *
+     * @param context    Context
+     * @param uri        Uri
+     * @param head       DecodedSample (début du sample déjà décodé)
+     * @param ringFrames int (taille du buffer circulaire en frames)
+     */
+    public SampleStream(Context context, Uri uri, DecodedSample head, int ringFrames) {
+        this.context = context.getApplicationContext();
+        this.uri = uri;
+        this.head = head;
+        this.ringFrames = ringFrames;
+        this.ring = new short[ringFrames * DecodedSample.CHANNEL_COUNT];
+        this.availableFrames = head.frameCount();
+    }
+
+    /**
+     * Relance le décodage depuis la fin de la tête (à appeler avant chaque déclenchement du pad)
+     *
+     * @param loop           boolean (true : le fichier est rejoué depuis le point de boucle jusqu'à l'arrêt)
+     * @param loopStartFrame long (point de boucle, en frames depuis le début du fichier)
+     */
+    public synchronized void restart(boolean loop, long loopStartFrame) {
+        generation++;
+        active = true;
+        this.loop = loop;
+        this.loopStartFrame = Math.max(0, loopStartFrame);
+        ended = false;
+        consumedFrames = 0;
+        availableFrames = head.frameCount();
+        if (thread == null) {
+            thread = new Thread(this::decodeLoop, "SampleStream");
+            thread.start();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Arrête le décodage (le décodeur en cours s'interrompt au bloc suivant, le thread se termine)
+     */
+    public synchronized void stop() {
+        generation++;
+        active = false;
+        notifyAll();
+    }
+
+    /**
+     * Récupère une valeur PCM à une frame absolue (thread de rendu, frame < getAvailableFrames())
+     *
+     * @param frame   long
+     * @param channel int (0 ou 1)
+     * @return short
+     */
+    public short get(long frame, int channel) {
+        if (frame < head.frameCount()) {
+            return head.pcm().get((int) frame * DecodedSample.CHANNEL_COUNT + channel);
+        }
+        return ring[(int) (frame % ringFrames) * DecodedSample.CHANNEL_COUNT + channel];
+    }
+
+    /**
+     * Boucle du thread de décodage : un décodage complet du fichier par déclenchement (répété en boucle si demandé), interrompu par un redémarrage ou un arrêt
+     */
+    private void decodeLoop() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_AUDIO);
+        AudioDecoder decoder = SampleDecoder.getDecoder(context, uri);
+        try {
+            boolean looping = false;
+            long loopStart = 0;
+            while (true) {
+                // Attend un redémarrage une fois le fichier entièrement décodé, puis prend en compte la nouvelle génération
+                synchronized (this) {
+                    while (active && ended && generation == currentGeneration) {
+                        wait();
+                    }
+                    if (!active) {
+                        // Libéré sous le verrou : un restart() qui suit démarre un nouveau thread
+                        thread = null;
+                        return;
+                    }
+                    if (generation != currentGeneration) {
+                        currentGeneration = generation;
+                        looping = loop;
+                        loopStart = loopStartFrame;
+                        skipFrames = head.frameCount();
+                        writeFrame = head.frameCount();
+                    }
+                }
+                long passStart = writeFrame;
+                boolean failed = false;
+                try {
+                    decoder.decode(context, uri, Integer.MAX_VALUE, writer);
+                } catch (TechnicalException tex) {
+                    Log.e("ERROR", "Impossible de lire le sample en flux : " + uri);
+                    failed = true;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                synchronized (this) {
+                    if (generation != currentGeneration) {
+                        // Redémarré ou arrêté pendant le décodage
+                        continue;
+                    }
+                    if (looping && !failed && writeFrame > passStart) {
+                        // Fin du fichier en boucle : nouveau décodage depuis le début, seules les frames avant le point de boucle sont sautées
+                        skipFrames = loopStart;
+                        continue;
+                    }
+                    // Fin du fichier (ou erreur) : les frames restantes sont lues puis la voix se termine
+                    ended = true;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (this) {
+                if (thread == Thread.currentThread()) {
+                    thread = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Récepteur des frames du décodeur : écrit dans le buffer circulaire en sautant la tête déjà en mémoire (thread de décodage)
+     */
+    private class RingWriter implements FrameSink {
+
+        /**
+         * Ecris une frame dans le buffer circulaire, après avoir attendu qu'une place se libère
+         *
+         * @param left  short
+         * @param right short
+         */
+        @Override
+        public void onFrame(short left, short right) {
+            if (skipFrames > 0) {
+                skipFrames--;
+                return;
+            }
+            while (writeFrame - consumedFrames >= ringFrames) {
+                // Buffer plein : la frame en cours de lecture ne doit pas être écrasée
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    Thread.sleep(FULL_WAIT_MS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (isCancelled()) {
+                return;
+            }
+            int i = (int) (writeFrame % ringFrames) * DecodedSample.CHANNEL_COUNT;
+            ring[i] = left;
+            ring[i + 1] = right;
+            writeFrame++;
+            availableFrames = writeFrame;
+        }
+
+        /**
+         * Interrompt le décodage d'une génération périmée (redémarrage ou arrêt du flux)
+         *
+         * @return boolean
+         */
+        @Override
+        public boolean isCancelled() {
+            return generation != currentGeneration || Thread.currentThread().isInterrupted();
+        }
+
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public Uri getUri() {
+        return uri;
+    }
+
+    public DecodedSample getHead() {
+        return head;
+    }
+
+    public long getAvailableFrames() {
+        return availableFrames;
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+
+    public void setConsumedFrames(long consumedFrames) {
+        this.consumedFrames = consumedFrames;
+    }
+
+}
@@ -0,0 +1,142 @@
+package fr.mysoundbox.audio;
+
+import fr.mysoundbox.bean.SequencerPattern;
+
+/**
+ * Séquenceur pas à pas exécuté dans la boucle de rendu : chaque pas démarre ses pads à la frame exacte où il tombe, y compris au milieu d'un bloc
+ * Le bloc de rendu est découpé aux limites des pas, aucun Handler / Timer n'intervient (pas de gigue liée au thread UI)
+ * L'intervalle entre deux pas est fractionnaire : le reste est reporté d'un pas à l'autre, le tempo ne dérive pas
+ * Le motif est recopié dans un instantané immuable lors de setPattern, le thread de rendu ne lit que cet instantané (aucune allocation ni verrou)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class Sequencer {
+
+    /**
+     * Attributs
+     */
+    // Un pas = une double-croche
+    private static final int STEPS_PER_BEAT = 4;
+
+    private final int outputSampleRate;
+    private volatile Program program;
+    private volatile boolean playing = false;
+    // Incrémenté à chaque démarrage (un arrêt / redémarrage rapproché repart bien du premier pas)
+    private volatile int generation = 0;
+
+    // Etat de lecture (accédé uniquement par le thread de rendu)
+    private boolean active = false;
+    private int activeGeneration = 0;
+    private int step = 0;
+    private double framesUntilStep = 0;
+
+    /**
+     * Constructeur
+     *
+     * @param outputSampleRate int
+     */
+    public Sequencer(int outputSampleRate) {
+        this.outputSampleRate = outputSampleRate;
+    }
+
+    /**
+     * Remplace le motif joué (pris en compte au pas suivant)
+     *
+     * @param pattern SequencerPattern
+     */
+    public void setPattern(SequencerPattern pattern) {
+        int[] masks = new int[pattern.getLength()];
+        for (int s = 0; s < masks.length; s++) {
+            masks[s] = pattern.getStepMask(s);
+        }
+        double framesPerStep = outputSampleRate * 60.0 / (pattern.getTempo() * STEPS_PER_BEAT);
+        program = new Program(masks, framesPerStep);
+    }
+
+    /**
+     * Démarre la lecture du motif (depuis le premier pas)
+     */
+    public void start() {
+        generation++;
+        playing = true;
+    }
+
+    /**
+     * Arrête la lecture du motif (les voix déjà démarrées se terminent normalement)
+     */
+    public void stop() {
+        playing = false;
+    }
+
+    /**
+     * Démarre les pads des pas atteints puis renvoi le nombre de frames à rendre avant le prochain pas (thread de rendu)
+     *
+     * @param mixer     Mixer
+     * @param maxFrames int (frames restantes dans le bloc)
+     * @return int (entre 1 et maxFrames)
+     */
+    int process(Mixer mixer, int maxFrames) {
+        Program current = program;
+        if (!playing || current == null) {
+            active = false;
+            return maxFrames;
+        }
+        int currentGeneration = generation;
+        if (!active || activeGeneration != currentGeneration) {
+            // Démarrage : premier pas immédiatement
+            active = true;
+            activeGeneration = currentGeneration;
+            step = 0;
+            framesUntilStep = 0;
+        }
+        while (framesUntilStep <= 0) {
+            if (step >= current.masks.length) {
+                // Motif raccourci en cours de lecture
+                step = 0;
+            }
+            int mask = current.masks[step];
+            for (int pad = 0; mask != 0; pad++, mask >>>= 1) {
+                if ((mask & 1) != 0) {
+                    mixer.startScheduled(pad);
+                }
+            }
+            step = (step + 1) % current.masks.length;
+            framesUntilStep += current.framesPerStep;
+        }
+        return (int) Math.min(maxFrames, Math.ceil(framesUntilStep));
+    }
+
+    /**
+     * Avance la position de lecture des frames rendues (thread de rendu)
+     *
+     * @param frames int
+     */
+    void advance(int frames) {
+        if (active) {
+            framesUntilStep -= frames;
+        }
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    /**
+     * Instantané immuable d'un motif
+     */
+    private static class Program {
+        private final int[] masks;
+        private final double framesPerStep;
+
+        private Program(int[] masks, double framesPerStep) {
+            this.masks = masks;
+            this.framesPerStep = framesPerStep;
+        }
+    }
+
+}
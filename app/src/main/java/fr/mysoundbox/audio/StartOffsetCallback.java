@@ -0,0 +1,22 @@
+package fr.mysoundbox.audio;
+
+import android.net.Uri;
+
+/**
+ * Interface de retour de la détection du silence initial d'un sample (appelée sur le thread UI)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public interface StartOffsetCallback {
+
+    /**
+     * Lors de la fin de l'analyse du sample
+     *
+     * @param uri           Uri
+     * @param startOffsetUs long (0 si aucun silence ou si l'analyse a échoué)
+     */
+    void onStartOffsetAnalyzed(Uri uri, long startOffsetUs);
+
+}
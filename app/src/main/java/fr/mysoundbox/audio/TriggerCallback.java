@@ -0,0 +1,20 @@
+package fr.mysoundbox.audio;
+
+/**
+ * Interface de retour du déclenchement d'un pad (appelée sur le thread UI)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public interface TriggerCallback {
+
+    /**
+     * Lors du résultat du déclenchement du pad
+     *
+     * @param pad     int (0 à 11)
+     * @param started boolean
+     */
+    void onTriggered(int pad, boolean started);
+
+}
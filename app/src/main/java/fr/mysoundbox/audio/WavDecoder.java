@@ -0,0 +1,361 @@
+package fr.mysoundbox.audio;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.net.Uri;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Décodeur pur Java des fichiers WAV PCM (8 / 16 / 24 / 32 bits entiers et 32 bits flottants), sans passer par MediaCodec
+ * Le décodage d'un flux (decode(InputStream, ...)) ne dépend d'aucune classe Android et peut donc être exécuté sur une JVM classique
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class WavDecoder implements AudioDecoder {
+
+    /**
+     * Attributs
+     */
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_FLOAT = 3;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+    private static final int HEADER_PEEK_SIZE = 4096;
+    private static final int BUFFER_FRAMES = 1024;
+
+    /**
+     * Indique si l'Uri désigne un fichier WAV pris en charge par ce décodeur
+     *
+     * @param context Context
+     * @param uri     Uri
+     * @return boolean
+     */
+    public static boolean isSupported(Context context, Uri uri) {
+        try (InputStream in = context.getContentResolver().openInputStream(uri)) {
+            return in != null && isSupported(in);
+        } catch (IOException | SecurityException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Indique si le flux commence par un en-tête WAV pris en charge par ce décodeur
+     *
+     * @param in InputStream
+     * @return boolean
+     */
+    public static boolean isSupported(InputStream in) {
+        try {
+            readHeader(new BufferedInputStream(in, HEADER_PEEK_SIZE));
+            return true;
+        } catch (IOException ioex) {
+            return false;
+        }
+    }
+
+    /**
+     * Récupère la durée et la taille du fichier audio de l'Uri, en lisant uniquement son en-tête
+     *
+     * @param context Context
+     * @param uri     Uri
+     * @return SampleInfo
+     * @throws TechnicalException TechnicalException
+     */
+    @Override
+    public SampleInfo probe(Context context, Uri uri) throws TechnicalException {
+        try (InputStream in = context.getContentResolver().openInputStream(uri)) {
+            if (in == null) {
+                throw new IOException("Flux indisponible");
+            }
+            Header header = readHeader(new BufferedInputStream(in, HEADER_PEEK_SIZE));
+            long durationUs = header.dataSize > 0 ? header.dataSize / header.blockAlign * 1_000_000L / header.sampleRate : -1;
+            long sizeBytes = -1;
+            try (AssetFileDescriptor afd = context.getContentResolver().openAssetFileDescriptor(uri, "r")) {
+                if (afd != null) {
+                    sizeBytes = afd.getLength();
+                }
+            }
+            return new SampleInfo(durationUs, sizeBytes);
+        } catch (IOException | SecurityException ex) {
+            throw new TechnicalException("Impossible de lire les informations du sample : " + uri);
+        }
+    }
+
+    /**
+     * Décode le début du fichier WAV de l'Uri (au plus maxFrames frames) en transmettant les frames au fil de l'eau
+     *
+     * @param context   Context
+     * @param uri       Uri
+     * @param maxFrames int
+     * @param sink      FrameSink
+     * @return int fréquence d'échantillonnage
+     * @throws TechnicalException TechnicalException
+     */
+    @Override
+    public int decode(Context context, Uri uri, int maxFrames, FrameSink sink) throws TechnicalException {
+        try (InputStream in = context.getContentResolver().openInputStream(uri)) {
+            if (in == null) {
+                throw new IOException("Flux indisponible");
+            }
+            return decode(in, maxFrames, sink);
+        } catch (IOException | SecurityException ex) {
+            throw new TechnicalException("Impossible de décoder le sample : " + uri);
+        }
+    }
+
+    /**
+     * Décode un flux WAV (au plus maxFrames frames) en transmettant les frames au fil de l'eau
+     *
+     * @param in        InputStream
+     * @param maxFrames int
+     * @param sink      FrameSink
+     * @return int fréquence d'échantillonnage
+     * @throws IOException IOException
+     */
+    public static int decode(InputStream in, int maxFrames, FrameSink sink) throws IOException {
+        InputStream buffered = new BufferedInputStream(in);
+        Header header = readHeader(buffered);
+        int bytesPerSample = header.bitsPerSample / 8;
+        byte[] buffer = new byte[header.blockAlign * BUFFER_FRAMES];
+        // Taille inconnue (flux en cours d'enregistrement) : lecture jusqu'à la fin du fichier
+        long remainingBytes = header.dataSize > 0 ? header.dataSize : Long.MAX_VALUE;
+        int decodedFrames = 0;
+        while (decodedFrames < maxFrames && remainingBytes >= header.blockAlign && !sink.isCancelled()) {
+            int wanted = (int) Math.min(buffer.length, remainingBytes - remainingBytes % header.blockAlign);
+            int read = readBlock(buffered, buffer, wanted);
+            int frames = Math.min(read / header.blockAlign, maxFrames - decodedFrames);
+            for (int f = 0; f < frames; f++) {
+                int offset = f * header.blockAlign;
+                short left = toShort(buffer, offset, header);
+                short right = header.channels > 1 ? toShort(buffer, offset + bytesPerSample, header) : left;
+                sink.onFrame(left, right);
+            }
+            decodedFrames += frames;
+            remainingBytes -= read;
+            if (read < wanted) {
+                // Fin du fichier (en-tête annonçant plus de données que présentes)
+                break;
+            }
+        }
+        return header.sampleRate;
+    }
+
+    /**
+     * Lit l'en-tête RIFF / WAVE jusqu'au début du bloc 'data'
+     *
+     * @param in InputStream
+     * @return Header
+     * @throws IOException IOException (fichier non WAV ou format non pris en charge)
+     */
+    private static Header readHeader(InputStream in) throws IOException {
+        if (readTag(in) != tag("RIFF")) {
+            throw new IOException("Fichier non RIFF");
+        }
+        readInt(in);
+        if (readTag(in) != tag("WAVE")) {
+            throw new IOException("Fichier non WAVE");
+        }
+        Header header = null;
+        while (true) {
+            int chunkId = readTag(in);
+            long chunkSize = readInt(in) & 0xFFFFFFFFL;
+            if (chunkId == tag("fmt ")) {
+                header = readFormat(in, chunkSize);
+            } else if (chunkId == tag("data")) {
+                if (header == null) {
+                    throw new IOException("Bloc 'fmt ' manquant");
+                }
+                header.dataSize = chunkSize == 0xFFFFFFFFL ? 0 : chunkSize;
+                return header;
+            } else {
+                // Bloc ignoré (LIST, fact, cue, ...), aligné sur 2 octets
+                skipFully(in, chunkSize + (chunkSize & 1));
+            }
+        }
+    }
+
+    /**
+     * Lit le bloc 'fmt ' et vérifie que le format est pris en charge
+     *
+     * @param in        InputStream
+     * @param chunkSize long
+     * @return Header
+     * @throws IOException IOException
+     */
+    private static Header readFormat(InputStream in, long chunkSize) throws IOException {
+        if (chunkSize < 16) {
+            throw new IOException("Bloc 'fmt ' invalide");
+        }
+        Header header = new Header();
+        int audioFormat = readShort(in);
+        header.channels = readShort(in);
+        header.sampleRate = readInt(in);
+        readInt(in);
+        header.blockAlign = readShort(in);
+        header.bitsPerSample = readShort(in);
+        long consumed = 16;
+        if (audioFormat == FORMAT_EXTENSIBLE && chunkSize >= 40) {
+            // Extension : le vrai format est dans les 2 premiers octets du sous-format
+            readShort(in);
+            readShort(in);
+            readInt(in);
+            audioFormat = readShort(in);
+            consumed += 10;
+        }
+        skipFully(in, chunkSize - consumed + (chunkSize & 1));
+        header.floatingPoint = audioFormat == FORMAT_FLOAT;
+        boolean supported = (audioFormat == FORMAT_PCM && (header.bitsPerSample == 8 || header.bitsPerSample == 16 || header.bitsPerSample == 24 || header.bitsPerSample == 32))
+                || (audioFormat == FORMAT_FLOAT && header.bitsPerSample == 32);
+        if (!supported || header.channels < 1 || header.sampleRate <= 0 || header.blockAlign != header.channels * header.bitsPerSample / 8) {
+            throw new IOException("Format WAV non pris en charge");
+        }
+        return header;
+    }
+
+    /**
+     * Convertit un échantillon en 16 bits signé
+     *
+     * @param buffer byte[]
+     * @param offset int
+     * @param header Header
+     * @return short
+     */
+    private static short toShort(byte[] buffer, int offset, Header header) {
+        switch (header.bitsPerSample) {
+            case 8:
+                // 8 bits non signé
+                return (short) (((buffer[offset] & 0xFF) - 128) << 8);
+            case 16:
+                return (short) ((buffer[offset] & 0xFF) | (buffer[offset + 1] << 8));
+            case 24:
+                // Conserve les 16 bits de poids fort
+                return (short) ((buffer[offset + 1] & 0xFF) | (buffer[offset + 2] << 8));
+            default:
+                if (header.floatingPoint) {
+                    int bits = (buffer[offset] & 0xFF) | (buffer[offset + 1] & 0xFF) << 8 | (buffer[offset + 2] & 0xFF) << 16 | buffer[offset + 3] << 24;
+                    float value = Float.intBitsToFloat(bits) * 32767f;
+                    return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+                }
+                return (short) ((buffer[offset + 2] & 0xFF) | (buffer[offset + 3] << 8));
+        }
+    }
+
+    /**
+     * Lit jusqu'à length octets (moins uniquement en fin de flux)
+     *
+     * @param in     InputStream
+     * @param buffer byte[]
+     * @param length int
+     * @return int nombre d'octets lus
+     * @throws IOException IOException
+     */
+    private static int readBlock(InputStream in, byte[] buffer, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int read = in.read(buffer, total, length - total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Saute exactement count octets
+     *
+     * @param in    InputStream
+     * @param count long
+     * @throws IOException IOException
+     */
+    private static void skipFully(InputStream in, long count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    throw new EOFException("Fin de fichier WAV inattendue");
+                }
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+    /**
+     * Lit un octet (erreur en fin de flux)
+     *
+     * @param in InputStream
+     * @return int
+     * @throws IOException IOException
+     */
+    private static int readByte(InputStream in) throws IOException {
+        int value = in.read();
+        if (value < 0) {
+            throw new EOFException("Fin de fichier WAV inattendue");
+        }
+        return value;
+    }
+
+    /**
+     * Lit un entier 16 bits non signé little endian
+     *
+     * @param in InputStream
+     * @return int
+     * @throws IOException IOException
+     */
+    private static int readShort(InputStream in) throws IOException {
+        return readByte(in) | readByte(in) << 8;
+    }
+
+    /**
+     * Lit un entier 32 bits little endian
+     *
+     * @param in InputStream
+     * @return int
+     * @throws IOException IOException
+     */
+    private static int readInt(InputStream in) throws IOException {
+        return readShort(in) | readShort(in) << 16;
+    }
+
+    /**
+     * Lit un identifiant de bloc (4 caractères ASCII)
+     *
+     * @param in InputStream
+     * @return int
+     * @throws IOException IOException
+     */
+    private static int readTag(InputStream in) throws IOException {
+        return readByte(in) << 24 | readByte(in) << 16 | readByte(in) << 8 | readByte(in);
+    }
+
+    /**
+     * Convertit un identifiant de bloc en entier (même ordre que readTag)
+     *
+     * @param value String
+     * @return int
+     */
+    private static int tag(String value) {
+        return value.charAt(0) << 24 | value.charAt(1) << 16 | value.charAt(2) << 8 | value.charAt(3);
+    }
+
+    /**
+     * En-tête d'un fichier WAV
+     */
+    private static class Header {
+        private int channels;
+        private int sampleRate;
+        private int blockAlign;
+        private int bitsPerSample;
+        private boolean floatingPoint;
+        private long dataSize;
+    }
+
+}
@@ -0,0 +1,52 @@
+package fr.mysoundbox.bean;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Classe modèle d'un fichier audio de la bibliothèque (dossier accordé par l'utilisateur)
+ * La date de modification et la taille permettent de ne ré-analyser que les fichiers modifiés lors d'un nouveau parcours du dossier
+ * Un fichier illisible est conservé avec une durée UNREADABLE : il n'est pas ré-analysé tant qu'il est inchangé
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public record LibraryEntry(Uri uri, String name, long sizeBytes, long lastModified, long durationUs) {
+
+    /**
+     * Attributs
+     */
+    public static final long UNREADABLE = -1;
+
+    /**
+     * Test si le fichier est inchangé depuis son indexation
+     *
+     * @param sizeBytes    long
+     * @param lastModified long
+     * @return boolean
+     */
+    public boolean isUnchanged(long sizeBytes, long lastModified) {
+        return this.sizeBytes == sizeBytes && this.lastModified == lastModified;
+    }
+
+    /**
+     * Test si le fichier a pu être analysé (sinon il n'est pas proposé à l'utilisateur)
+     *
+     * @return boolean
+     */
+    public boolean isReadable() {
+        return durationUs != UNREADABLE;
+    }
+
+    /**
+     * ToString
+     */
+    @NonNull
+    @Override
+    public String toString() {
+        return "{ Name : " + name + " , Uri : " + uri + " , Size : " + sizeBytes + " , Last modified : " + lastModified + " , Duration : " + durationUs + " us }";
+    }
+
+}
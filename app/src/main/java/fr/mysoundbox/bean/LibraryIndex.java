@@ -0,0 +1,27 @@
+package fr.mysoundbox.bean;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Classe modèle de l'index de la bibliothèque : le dossier accordé par l'utilisateur et les fichiers audio qu'il contient
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public record LibraryIndex(Uri treeUri, List<LibraryEntry> entries) {
+
+    /**
+     * ToString
+     */
+    @NonNull
+    @Override
+    public String toString() {
+        return "{ Tree : " + treeUri + " , Entries : " + entries.size() + " }";
+    }
+
+}
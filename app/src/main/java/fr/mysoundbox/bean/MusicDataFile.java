@@ -11,17 +11,18 @@ import org.json.JSONObject;
 import java.util.List;
 
 /**
- * Classe modèle d'un fichier permettant de sauvegarder 12 samples
+ * Classe modèle d'un fichier permettant de sauvegarder des banques de 12 samples (une banque de 12 pads pour le MusicDataFile par défaut)
  * <p>
  * Author: Jonathan B.
  * Created: 20/05/2018
- * Last Updated: 30/05/2018
+ * Last Updated: 18/10/2026
  */
 public class MusicDataFile {
 
     /**
      * Attributs
      */
+    public static final int BANK_SIZE = 12;
     private final List<Sample> listSample;
 
     /**
@@ -41,7 +42,7 @@ public class MusicDataFile {
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("MusicDataFile : [ ");
-        if (listSample == null || listSample.size() != 12) {
+        if (!isValid()) {
             sb.append("null");
         } else {
             for (Sample sample : listSample) {
@@ -57,9 +58,9 @@ public class MusicDataFile {
      */
     public JSONObject toJSONObject() {
         JSONObject json = new JSONObject();
-        // Vérifie que l'objet comporte bien une liste de 12 samples
+        // Vérifie que l'objet comporte bien une ou plusieurs banques de 12 samples
         try {
-            if (listSample != null && listSample.size() == 12) {
+            if (isValid()) {
                 JSONArray listJSONSample = new JSONArray();
                 // Ajoute chaque sample à la JSONArray
                 for (Sample sample : listSample) {
@@ -68,7 +69,7 @@ public class MusicDataFile {
                 // Ajoute la JSONArray au JSONObject
                 json.put("samples", listJSONSample);
             } else {
-                throw new JSONException("L'objet MusicDataFile ne comporte pas 12 samples !");
+                throw new JSONException("L'objet MusicDataFile ne comporte pas de banques de 12 samples !");
             }
         } catch (JSONException jsonex) {
             Log.e("ERROR", "Impossible de créer le JSON MusicDataFile !");
@@ -77,9 +78,22 @@ public class MusicDataFile {
         return json;
     }
 
+    /**
+     * Test si la liste comporte une ou plusieurs banques complètes de 12 samples
+     *
+     * @return boolean
+     */
+    public boolean isValid() {
+        return listSample != null && !listSample.isEmpty() && listSample.size() % BANK_SIZE == 0;
+    }
+
     /**
      * Getter / Setter
      */
+    public List<Sample> getListSample() {
+        return listSample;
+    }
+
     public Sample getSample(int sampleId) {
         return listSample.get(sampleId - 1);
     }
@@ -10,12 +10,14 @@ import org.json.JSONObject;
 
 /**
  * Classe modèle d'un sample
+ * Le décalage de départ (en microsecondes) permet de sauter le silence en début de fichier lors de la lecture
+ * Un sample en boucle est rejoué sans interruption jusqu'à son arrêt
  * <p>
  * Author: Jonathan B.
  * Created: 22/05/2018
- * Last Updated: 30/05/2018
+ * Last Updated: 18/10/2026
  */
-public record Sample(int index, String name, String filename, Uri uri) {
+public record Sample(int index, String name, String filename, Uri uri, long startOffsetUs, boolean loop) {
 
     /**
      * Constructeur
@@ -23,13 +25,47 @@ public record Sample(int index, String name, String filename, Uri uri) {
     public Sample {
     }
 
+    /**
+     * Constructeur (sans décalage de départ)
+     */
+    public Sample(int index, String name, String filename, Uri uri) {
+        this(index, name, filename, uri, 0, false);
+    }
+
+    /**
+     * Constructeur (sans lecture en boucle)
+     */
+    public Sample(int index, String name, String filename, Uri uri, long startOffsetUs) {
+        this(index, name, filename, uri, startOffsetUs, false);
+    }
+
+    /**
+     * Copie du sample avec un nouveau décalage de départ
+     *
+     * @param startOffsetUs long
+     * @return Sample
+     */
+    public Sample withStartOffsetUs(long startOffsetUs) {
+        return new Sample(index, name, filename, uri, startOffsetUs, loop);
+    }
+
+    /**
+     * Copie du sample avec un nouveau mode de lecture en boucle
+     *
+     * @param loop boolean
+     * @return Sample
+     */
+    public Sample withLoop(boolean loop) {
+        return new Sample(index, name, filename, uri, startOffsetUs, loop);
+    }
+
     /**
      * ToString
      */
     @NonNull
     @Override
     public String toString() {
-        return "{ Index : " + index + " , Name : " + name + " , Filename : " + filename + " , Uri : '" + uri.toString() + "' }";
+        return "{ Index : " + index + " , Name : " + name + " , Filename : " + filename + " , Uri : '" + uri.toString() + "' , StartOffsetUs : " + startOffsetUs + " , Loop : " + loop + " }";
     }
 
     /**
@@ -42,6 +78,8 @@ public record Sample(int index, String name, String filename, Uri uri) {
             json.put("name", name);
             json.put("filename", filename);
             json.put("uri", uri);
+            json.put("startOffsetUs", startOffsetUs);
+            json.put("loop", loop);
         } catch (JSONException jsonex) {
             Log.e("ERROR", "Impossible de créer le JSON Sample !");
             json = null;
@@ -0,0 +1,146 @@
+package fr.mysoundbox.bean;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Classe modèle d'un motif du séquenceur : tempo, longueur (en pas de double-croche) et pads déclenchés à chaque pas
+ * Chaque pas est un masque de bits des 12 pads (bit 0 pour le pad 1) : les bits au-delà du pad 12 sont ignorés
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class SequencerPattern {
+
+    /**
+     * Attributs
+     */
+    public static final int MAX_STEPS = 32;
+    public static final int MIN_TEMPO = 40;
+    public static final int MAX_TEMPO = 240;
+    private static final int DEFAULT_TEMPO = 120;
+    private static final int DEFAULT_LENGTH = 16;
+    private static final int PAD_MASK = (1 << MusicDataFile.BANK_SIZE) - 1;
+
+    private int tempo;
+    private int length;
+    private final int[] steps;
+
+    /**
+     * Constructeur (motif vide par défaut)
+     */
+    public SequencerPattern() {
+        this(DEFAULT_TEMPO, DEFAULT_LENGTH, new int[MAX_STEPS]);
+    }
+
+    /**
+     * Constructeur (motif lu depuis un fichier : les valeurs sont vérifiées, le moteur de lecture ne doit jamais recevoir un pad inexistant)
+     *
+     * @param tempo  int (battements par minute, MIN_TEMPO à MAX_TEMPO)
+     * @param length int (nombre de pas, 1 à MAX_STEPS)
+     * @param steps  int[] (masque des pads de chaque pas, MAX_STEPS éléments)
+     * @throws IllegalArgumentException tempo, longueur ou nombre de pas invalide
+     */
+    public SequencerPattern(int tempo, int length, int[] steps) {
+        if (tempo < MIN_TEMPO || tempo > MAX_TEMPO) {
+            throw new IllegalArgumentException("Tempo invalide : " + tempo);
+        }
+        if (length < 1 || length > MAX_STEPS) {
+            throw new IllegalArgumentException("Longueur invalide : " + length);
+        }
+        if (steps.length != MAX_STEPS) {
+            throw new IllegalArgumentException("Nombre de pas invalide : " + steps.length);
+        }
+        this.tempo = tempo;
+        this.length = length;
+        this.steps = new int[MAX_STEPS];
+        for (int step = 0; step < MAX_STEPS; step++) {
+            this.steps[step] = steps[step] & PAD_MASK;
+        }
+    }
+
+    /**
+     * Indique si le pad est déclenché au pas donné
+     *
+     * @param pad  int (0 à 11)
+     * @param step int
+     * @return boolean
+     */
+    public boolean isActive(int pad, int step) {
+        return (steps[step] & (1 << pad)) != 0;
+    }
+
+    /**
+     * Active ou désactive le déclenchement du pad au pas donné
+     *
+     * @param pad    int (0 à 11)
+     * @param step   int
+     * @param active boolean
+     */
+    public void setActive(int pad, int step, boolean active) {
+        if (active) {
+            steps[step] |= 1 << pad;
+        } else {
+            steps[step] &= ~(1 << pad);
+        }
+    }
+
+    /**
+     * ToString
+     */
+    @NonNull
+    @Override
+    public String toString() {
+        return "SequencerPattern : [ Tempo : " + tempo + " , Length : " + length + " ]";
+    }
+
+    /**
+     * ToJSON
+     */
+    public JSONObject toJSONObject() {
+        JSONObject json = new JSONObject();
+        try {
+            json.put("tempo", tempo);
+            json.put("length", length);
+            JSONArray jsonSteps = new JSONArray();
+            for (int step : steps) {
+                jsonSteps.put(step);
+            }
+            json.put("steps", jsonSteps);
+        } catch (JSONException jsonex) {
+            Log.e("ERROR", "Impossible de créer le JSON SequencerPattern !");
+            json = null;
+        }
+        return json;
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public int getTempo() {
+        return tempo;
+    }
+
+    public void setTempo(int tempo) {
+        this.tempo = Math.max(MIN_TEMPO, Math.min(MAX_TEMPO, tempo));
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public void setLength(int length) {
+        this.length = Math.max(1, Math.min(MAX_STEPS, length));
+    }
+
+    public int getStepMask(int step) {
+        return steps[step];
+    }
+
+}
@@ -1,55 +1,146 @@
 package fr.mysoundbox.controller;
 
 import android.content.Context;
-import android.content.res.AssetFileDescriptor;
 import android.media.MediaPlayer;
 import android.net.Uri;
 import android.util.Log;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
+import fr.mysoundbox.MySoundBoxApplication;
+import fr.mysoundbox.audio.AudioSession;
+import fr.mysoundbox.audio.MediaPlayerCallback;
+import fr.mysoundbox.audio.PeakIndexCallback;
+import fr.mysoundbox.audio.PlaybackListener;
+import fr.mysoundbox.audio.PlaybackMode;
+import fr.mysoundbox.audio.Resampler;
+import fr.mysoundbox.audio.Sequencer;
+import fr.mysoundbox.audio.StartOffsetCallback;
+import fr.mysoundbox.audio.TriggerCallback;
 import fr.mysoundbox.bean.MusicDataFile;
 import fr.mysoundbox.bean.Sample;
+import fr.mysoundbox.bean.SequencerPattern;
 import fr.mysoundbox.exception.TechnicalException;
-import fr.mysoundbox.tools.MusicDataTools;
+import fr.mysoundbox.tools.SampleChangeListener;
+import fr.mysoundbox.tools.SampleRepository;
+import fr.mysoundbox.tools.SequencerDataTools;
+import fr.mysoundbox.tools.SettingsTools;
 
 /**
  * Controller en charge de la gestion des samples
  * <p>
  * Author: Jonathan B.
  * Created: 31/05/2018
- * Last Updated: 31/05/2018
+ * Last Updated: 18/10/2026
  */
 public class MusicController {
 
     /**
      * Attributs
      */
+    private static final int PAD_COUNT = 12;
     private MusicDataFile musicDataFile;
     private MusicDataFile musicDataDefaultFile;
+    private SequencerPattern sequencerPattern;
+    // Session audio de l'application (moteur, pool, threads), acquise au premier besoin et libérée par releaseAudioEngine
+    private AudioSession audioSession;
+    private PlaybackListener playbackListener;
+    private PlaybackMode playbackMode = PlaybackMode.AUDIO_TRACK;
+    private final long[] padTouchesMs = new long[PAD_COUNT];
+    private final SampleChangeListener repositoryListener = this::onRepositorySampleChanged;
+    private SampleChangeListener sampleChangeListener;
+    private int bank = 0;
 
     /**
-     * Initialise les 2 MusicDataFiles (par défaut et personnalisé)
+     * Initialise les 2 MusicDataFiles (par défaut et personnalisé, celui de la banque courante) depuis le dépôt des samples de l'application
+     * Les fichiers ne sont lus qu'au premier appel : les activités suivantes reçoivent une copie des listes en mémoire
      *
      * @param context Context
      */
     public void initMusicDataFiles(Context context) throws TechnicalException {
+        SampleRepository sampleRepository = MySoundBoxApplication.getSampleRepository(context);
         // Récupère le MusicDataFile par défaut
-        musicDataDefaultFile = MusicDataTools.readDefaultFile(context);
+        musicDataDefaultFile = new MusicDataFile(sampleRepository.getDefaultSamples());
+        // Récupère le MusicDataFile de la banque courante de l'utilisateur (copie modifiable)
+        bank = sampleRepository.getCurrentBank();
+        musicDataFile = new MusicDataFile(new ArrayList<>(sampleRepository.getBank(bank)));
+    }
+
+    /**
+     * Change de banque : charge ses 12 samples dans les pads puis pré-charge en arrière-plan les banques voisines
+     * Les pads en cours de lecture sont arrêtés
+     *
+     * @param context Context
+     * @param newBank int
+     * @return List<Sample> samples utilisés de la nouvelle banque
+     * @throws TechnicalException TechnicalException (banque inexistante ou illisible)
+     */
+    public List<Sample> selectBank(Context context, int newBank) throws TechnicalException {
+        SampleRepository sampleRepository = MySoundBoxApplication.getSampleRepository(context);
+        musicDataFile = new MusicDataFile(new ArrayList<>(sampleRepository.getBank(newBank)));
+        bank = newBank;
+        sampleRepository.setCurrentBank(newBank);
+        List<Sample> listSample = getSamples();
+        if (audioSession != null) {
+            for (int pad = 0; pad < PAD_COUNT; pad++) {
+                stopSample(pad);
+                audioSession.loadPad(pad, listSample.get(pad));
+            }
+        }
+        prewarmBank(context, newBank - 1);
+        prewarmBank(context, newBank + 1);
+        return listSample;
+    }
+
+    /**
+     * Ajoute une banque (initialisée avec les samples par défaut) puis la sélectionne
+     *
+     * @param context Context
+     * @return List<Sample> samples utilisés de la nouvelle banque
+     * @throws TechnicalException TechnicalException
+     */
+    public List<Sample> addBank(Context context) throws TechnicalException {
+        return selectBank(context, MySoundBoxApplication.getSampleRepository(context).addBank());
+    }
+
+    /**
+     * Récupère le nombre de banques de l'utilisateur
+     *
+     * @param context Context
+     * @return int
+     * @throws TechnicalException TechnicalException
+     */
+    public int getBankCount(Context context) throws TechnicalException {
+        return MySoundBoxApplication.getSampleRepository(context).getBankCount();
+    }
+
+    /**
+     * Pré-charge en arrière-plan les samples d'une banque dans le cache disque PCM (décodage et ré-échantillonnage faits d'avance)
+     * Les samples ne sont pas ajoutés au magasin : ils n'évincent pas ceux des pads courants, et seront projetés en mémoire au changement de banque
+     *
+     * @param context Context
+     * @param target  int (ignoré si la banque n'existe pas)
+     */
+    public void prewarmBank(Context context, int target) {
+        List<Sample> listSample;
         try {
-            // Récupère le MusicDataFile de l'utilisateur si il existe
-            musicDataFile = MusicDataTools.readFile(context);
+            SampleRepository sampleRepository = MySoundBoxApplication.getSampleRepository(context);
+            if (target < 0 || target >= sampleRepository.getBankCount()) {
+                return;
+            }
+            listSample = sampleRepository.getBank(target);
         } catch (TechnicalException tex) {
-            // Sinon l'initialise
-            musicDataFile = musicDataDefaultFile;
-            // Puis l'enregistre
-            MusicDataTools.writeFile(context, musicDataFile);
+            Log.e("MusicController", tex.getMessage());
+            return;
         }
+        getAudioSession(context).prewarm(listSample);
     }
 
     /**
-     * Ré-initialise un nouveau fichier MusicDataFile par défaut et renvoi un boolean pour confirmer succès ou non
+     * Ré-initialise les samples de la banque courante par défaut et renvoi un boolean pour confirmer succès ou non
+     * L'écriture du fichier est différée (MusicDataPersister)
      *
      * @param context Context
      * @return boolean
@@ -57,11 +148,11 @@ public class MusicController {
     public boolean resetMusicDataFile(Context context) {
         boolean status;
         // Création du nouveau MusicDataFile par défaut
-        musicDataFile = musicDataDefaultFile;
+        musicDataFile = new MusicDataFile(new ArrayList<>(musicDataDefaultFile.getListSample()));
 
         try {
-            // Enregistrement du nouveau fichier MusicDataFile
-            MusicDataTools.writeFile(context.getApplicationContext(), musicDataFile);
+            // Enregistrement (différé) du nouveau fichier MusicDataFile
+            MySoundBoxApplication.getSampleRepository(context).setBank(bank, musicDataFile.getListSample());
             status = true;
         } catch (TechnicalException tex) {
             status = false;
@@ -117,10 +208,16 @@ public class MusicController {
     public void reinitSample(Context context, int sampleId) throws TechnicalException {
         // Initialise le sample par défaut
         Sample newSample = musicDataDefaultFile.getSample(sampleId);
+        // Invalide le cache PCM de l'ancien sample si besoin
+        invalidateReplacedSample(context, getSample(sampleId), newSample);
         // Remplace l'ancien sample perso par celui-ci
         musicDataFile.setSample(sampleId, newSample);
-        // Sauvegarde le fichier
-        MusicDataTools.writeFile(context.getApplicationContext(), musicDataFile);
+        // Sauvegarde le fichier (écriture différée)
+        MySoundBoxApplication.getSampleRepository(context).setBank(bank, musicDataFile.getListSample());
+        // Reconstruit l'entrée du pool pour ce pad uniquement
+        if (audioSession != null) {
+            audioSession.updatePooledPlayer(sampleId - 1, getSample(sampleId));
+        }
     }
 
     /**
@@ -131,53 +228,395 @@ public class MusicController {
      * @param newSample Sample
      */
     public void saveSample(Context context, int sampleId, Sample newSample) throws TechnicalException {
+        // Invalide le cache PCM de l'ancien sample si besoin
+        invalidateReplacedSample(context, getSample(sampleId), newSample);
         // Remplace l'ancien sample perso par celui-ci
         musicDataFile.setSample(sampleId, newSample);
-        // Sauvegarde le fichier
-        MusicDataTools.writeFile(context.getApplicationContext(), musicDataFile);
+        // Sauvegarde le fichier (écriture différée)
+        MySoundBoxApplication.getSampleRepository(context).setBank(bank, musicDataFile.getListSample());
+        // Reconstruit l'entrée du pool pour ce pad uniquement
+        if (audioSession != null) {
+            audioSession.updatePooledPlayer(sampleId - 1, getSample(sampleId));
+        }
     }
 
     /**
-     * Créer le MediaPlayer en fonction du sample
+     * Ecris immédiatement les modifications des samples en attente d'enregistrement (à appeler à l'arrêt de l'activité)
      *
      * @param context Context
-     * @param sample  Sample
+     * @throws TechnicalException TechnicalException
      */
-    public MediaPlayer createMediaPlayer(Context context, Sample sample) {
-        MediaPlayer mp = null;
-        try {
-            Uri uri = sample.uri();
-            String scheme = uri.getScheme();
-
-            // Création du MediaPlayer
-            mp = new MediaPlayer();
-
-            // Traitement selon le schéma URI
-            if ("android.resource".equals(scheme)) {
-                // Pour les ressources internes
-                try (AssetFileDescriptor afd = context.getContentResolver().openAssetFileDescriptor(uri, "r")) {
-                    if (afd != null) {
-                        mp.setDataSource(afd.getFileDescriptor(), afd.getStartOffset(), afd.getLength());
-                    }
-                }
-            } else if ("file".equals(scheme)) {
-                // Pour les URI de type file://
-                mp.setDataSource(uri.getPath());
-            } else {
-                // Pour content:// et autres schémas
-                mp.setDataSource(context, uri);
-            }
+    public void flushMusicDataFile(Context context) throws TechnicalException {
+        MySoundBoxApplication.getSampleRepository(context).flush();
+    }
+
+    /**
+     * Abonne l'écran aux changements des samples, quelle que soit l'activité qui les modifie
+     * Le controller met d'abord à jour sa liste et le pad concerné du moteur de lecture, puis notifie l'écran
+     *
+     * @param context  Context
+     * @param listener SampleChangeListener
+     */
+    public void setSampleChangeListener(Context context, SampleChangeListener listener) {
+        sampleChangeListener = listener;
+        MySoundBoxApplication.getSampleRepository(context).addListener(repositoryListener);
+    }
+
+    /**
+     * Désabonne l'écran des changements des samples
+     *
+     * @param context Context
+     */
+    public void removeSampleChangeListener(Context context) {
+        MySoundBoxApplication.getSampleRepository(context).removeListener(repositoryListener);
+        sampleChangeListener = null;
+    }
 
-            // Préparation commune
-            mp.prepare();
-        } catch (Exception e) {
-            Log.e("MusicController", "Erreur MediaPlayer: " + e.getMessage());
-            if (mp != null) {
-                mp.release();
+    /**
+     * Lors du changement du sample d'un pad dans le dépôt (ignoré s'il concerne une autre banque ou s'il vient de ce controller, déjà à jour)
+     *
+     * @param changedBank int
+     * @param pad         int (0 à 11)
+     * @param oldSample   Sample
+     * @param newSample   Sample
+     */
+    private void onRepositorySampleChanged(int changedBank, int pad, Sample oldSample, Sample newSample) {
+        if (musicDataFile == null || changedBank != bank || newSample.equals(musicDataFile.getSample(pad + 1))) {
+            return;
+        }
+        Sample oldUsed = getSample(pad + 1);
+        musicDataFile.setSample(pad + 1, newSample);
+        Sample newUsed = getSample(pad + 1);
+        // Recharge uniquement ce pad
+        if (audioSession != null) {
+            audioSession.loadPad(pad, newUsed);
+        }
+        if (sampleChangeListener != null) {
+            sampleChangeListener.onSampleChanged(changedBank, pad, oldUsed, newUsed);
+        }
+    }
+
+    /**
+     * Supprime (en arrière-plan) le cache PCM de l'ancien sample d'un pad lorsqu'un nouveau fichier lui est assigné
+     * Les ressources par défaut et les fichiers encore utilisés par un autre pad sont conservés
+     *
+     * @param context   Context
+     * @param oldSample Sample
+     * @param newSample Sample
+     */
+    private void invalidateReplacedSample(Context context, Sample oldSample, Sample newSample) {
+        if (oldSample == null || oldSample.uri() == null || oldSample.uri().equals(newSample.uri())) {
+            return;
+        }
+        Uri oldUri = oldSample.uri();
+        if ("android.resource".equals(oldUri.getScheme())) {
+            return;
+        }
+        int usages = 0;
+        for (Sample sample : getSamples()) {
+            if (oldUri.equals(sample.uri())) {
+                usages++;
             }
-            mp = null;
         }
-        return mp;
+        if (usages <= 1) {
+            getAudioSession(context).invalidate(oldUri);
+        }
+    }
+
+    /**
+     * Détecte en arrière-plan le silence en début de fichier d'un sample importé
+     * Le callback reçoit le décalage de départ sur le thread UI
+     *
+     * @param context  Context
+     * @param uri      Uri
+     * @param callback StartOffsetCallback
+     */
+    public void analyzeStartOffset(Context context, Uri uri, StartOffsetCallback callback) {
+        getAudioSession(context).analyzeStartOffset(uri, callback);
+    }
+
+    /**
+     * Charge en arrière-plan l'index de crêtes d'un sample (construit puis mis en cache au premier appel)
+     * Le callback reçoit l'index sur le thread UI
+     *
+     * @param context  Context
+     * @param uri      Uri
+     * @param callback PeakIndexCallback
+     */
+    public void loadPeakIndex(Context context, Uri uri, PeakIndexCallback callback) {
+        getAudioSession(context).loadPeakIndex(uri, callback);
+    }
+
+    /**
+     * Récupère la session audio de l'application, acquise par ce controller au premier appel
+     *
+     * @param context Context
+     * @return AudioSession
+     */
+    private AudioSession getAudioSession(Context context) {
+        if (audioSession == null) {
+            audioSession = MySoundBoxApplication.getAudioSession(context);
+            audioSession.acquire();
+        }
+        return audioSession;
+    }
+
+    /**
+     * Créer et prépare le MediaPlayer en fonction du sample sur le thread de travail audio
+     * Le callback reçoit le MediaPlayer préparé (ou null) sur le thread UI
+     *
+     * @param context  Context
+     * @param sample   Sample
+     * @param callback MediaPlayerCallback
+     */
+    public void createMediaPlayerAsync(Context context, Sample sample, MediaPlayerCallback callback) {
+        getAudioSession(context).createMediaPlayerAsync(sample, callback);
+    }
+
+    /**
+     * Arrête et libère un MediaPlayer sur le thread de travail audio
+     *
+     * @param mp MediaPlayer
+     */
+    public void releaseMediaPlayer(MediaPlayer mp) {
+        if (audioSession != null) {
+            audioSession.releaseMediaPlayer(mp);
+        }
+    }
+
+    /**
+     * Initialise le moteur de lecture basse latence de l'application puis lance le chargement en arrière-plan des samples qui ne sont pas dans le magasin
+     * Le moteur est partagé : si une autre activité l'a déjà chargé, seuls les pads modifiés sont rechargés
+     *
+     * @param context    Context
+     * @param listSample List<Sample>
+     */
+    public void initAudioEngine(Context context, List<Sample> listSample) {
+        getAudioSession(context).loadPads(listSample);
+    }
+
+    /**
+     * Démarre le moteur de lecture (s'il ne tourne pas déjà pour une autre activité) et lui transmet l'écran à notifier
+     * Le mode de lecture enregistré (écran de gestion) est relu à chaque démarrage de l'écran
+     *
+     * @param context  Context
+     * @param listener PlaybackListener
+     */
+    public void startAudioEngine(Context context, PlaybackListener listener) {
+        playbackMode = SettingsTools.getPlaybackMode(context);
+        if (audioSession != null && playbackListener == null) {
+            playbackListener = listener;
+            audioSession.start(listener);
+        }
+    }
+
+    /**
+     * Arrête les pads en cours de lecture, puis le moteur et le pool si aucune autre activité ne les utilise
+     */
+    public void stopAudioEngine() {
+        if (audioSession != null && playbackListener != null) {
+            audioSession.stop(playbackListener);
+            playbackListener = null;
+        }
+    }
+
+    /**
+     * Libère la session audio de l'application : le moteur, le pool et les threads ne sont libérés qu'au départ de la dernière activité
+     * Le magasin des samples, partagé par l'application, est conservé
+     */
+    public void releaseAudioEngine() {
+        stopAudioEngine();
+        if (audioSession != null) {
+            audioSession.release();
+            audioSession = null;
+        }
+    }
+
+    /**
+     * Démarre la lecture d'un pad selon le mode de lecture, sans bloquer le thread UI
+     * En mode AUDIO_TRACK, le pool sert de repli tant que le sample n'est pas décodé
+     * La latence n'est mesurée que pour une voix démarrée par le moteur (l'horodatage du toucher est consommé dans tous les cas)
+     * Le callback reçoit le résultat du déclenchement sur le thread UI
+     *
+     * @param pad      int (0 à 11)
+     * @param callback TriggerCallback
+     */
+    public void playSample(int pad, TriggerCallback callback) {
+        long touchMs = padTouchesMs[pad];
+        padTouchesMs[pad] = 0;
+        if (audioSession != null) {
+            audioSession.play(pad, playbackMode, touchMs, callback);
+        } else {
+            callback.onTriggered(pad, false);
+        }
+    }
+
+    /**
+     * Arrête la lecture d'un pad, sans bloquer le thread UI
+     *
+     * @param pad int (0 à 11)
+     */
+    public void stopSample(int pad) {
+        // Un arrêt n'est pas mesuré : l'horodatage du toucher est abandonné
+        padTouchesMs[pad] = 0;
+        if (audioSession != null) {
+            audioSession.stopPad(pad);
+        }
+    }
+
+    /**
+     * Récupère le motif du séquenceur enregistré (ou un motif vide s'il n'existe pas encore) puis le transmet au moteur
+     *
+     * @param context Context
+     */
+    public void initSequencer(Context context) {
+        try {
+            sequencerPattern = SequencerDataTools.readFile(context);
+        } catch (TechnicalException tex) {
+            sequencerPattern = new SequencerPattern();
+        }
+        updateSequencer();
+    }
+
+    /**
+     * Transmet le motif courant au séquenceur du moteur (pris en compte au pas suivant)
+     */
+    public void updateSequencer() {
+        Sequencer sequencer = getSequencer();
+        if (sequencer != null && sequencerPattern != null) {
+            sequencer.setPattern(sequencerPattern);
+        }
+    }
+
+    /**
+     * Enregistre le motif courant du séquenceur
+     *
+     * @param context Context
+     * @throws TechnicalException TechnicalException
+     */
+    public void saveSequencerPattern(Context context) throws TechnicalException {
+        SequencerDataTools.writeFile(context.getApplicationContext(), sequencerPattern);
+    }
+
+    /**
+     * Démarre la lecture du motif par le moteur (renvoi false si le moteur n'est pas utilisé)
+     * Les samples des pads du motif sont marqués comme utilisés, ou rechargés s'ils ont été évincés du magasin
+     *
+     * @return boolean
+     */
+    public boolean startSequencer() {
+        Sequencer sequencer = getSequencer();
+        if (playbackMode != PlaybackMode.AUDIO_TRACK || sequencer == null || sequencerPattern == null) {
+            return false;
+        }
+        int usedPads = 0;
+        for (int step = 0; step < sequencerPattern.getLength(); step++) {
+            usedPads |= sequencerPattern.getStepMask(step);
+        }
+        audioSession.preparePads(usedPads);
+        updateSequencer();
+        sequencer.start();
+        return true;
+    }
+
+    /**
+     * Arrête la lecture du motif
+     */
+    public void stopSequencer() {
+        Sequencer sequencer = getSequencer();
+        if (sequencer != null) {
+            sequencer.stop();
+        }
+    }
+
+    /**
+     * Indique si le motif est en cours de lecture
+     *
+     * @return boolean
+     */
+    public boolean isSequencerPlaying() {
+        Sequencer sequencer = getSequencer();
+        return sequencer != null && sequencer.isPlaying();
+    }
+
+    /**
+     * Récupère le séquenceur du moteur de lecture
+     *
+     * @return Sequencer (ou null si le moteur n'est pas initialisé)
+     */
+    private Sequencer getSequencer() {
+        return audioSession != null ? audioSession.getSequencer() : null;
+    }
+
+    /**
+     * Horodate l'évènement tactile d'un pad (début de la mesure de latence toucher -> son)
+     * L'horodatage n'est transmis au moniteur que si le toucher démarre une voix du moteur (voir playSample)
+     *
+     * @param pad         int (0 à 11)
+     * @param eventTimeMs long (MotionEvent.getEventTime())
+     */
+    public void markTouch(int pad, long eventTimeMs) {
+        padTouchesMs[pad] = eventTimeMs;
+    }
+
+    /**
+     * Récupère le rapport des latences toucher -> son par pad
+     *
+     * @param context Context
+     * @return String
+     */
+    public String getLatencyReport(Context context) {
+        return MySoundBoxApplication.getAudioSession(context).getLatencyMonitor().getReport();
+    }
+
+    /**
+     * Enregistre le rapport des latences toucher -> son dans un fichier
+     *
+     * @param context Context
+     * @return File
+     * @throws TechnicalException TechnicalException
+     */
+    public File dumpLatencyReport(Context context) throws TechnicalException {
+        return MySoundBoxApplication.getAudioSession(context).getLatencyMonitor().dump(context.getApplicationContext());
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public int getBank() {
+        return bank;
+    }
+
+    public SequencerPattern getSequencerPattern() {
+        return sequencerPattern;
+    }
+
+    public PlaybackMode getPlaybackMode(Context context) {
+        return SettingsTools.getPlaybackMode(context);
+    }
+
+    public void setPlaybackMode(Context context, PlaybackMode playbackMode) {
+        // Enregistré, appliqué par chaque écran à son prochain démarrage (startAudioEngine)
+        this.playbackMode = playbackMode;
+        SettingsTools.setPlaybackMode(context, playbackMode);
+    }
+
+    public int getFadeOutMs(Context context) {
+        return MySoundBoxApplication.getAudioSession(context).getFadeOutMs();
+    }
+
+    public void setFadeOutMs(Context context, int fadeOutMs) {
+        MySoundBoxApplication.getAudioSession(context).setFadeOutMs(fadeOutMs);
+        SettingsTools.setFadeOutMs(context, fadeOutMs);
+    }
+
+    public Resampler.Quality getResampleQuality(Context context) {
+        return MySoundBoxApplication.getAudioSession(context).getResampleQuality();
+    }
+
+    public void setResampleQuality(Context context, Resampler.Quality resampleQuality) {
+        MySoundBoxApplication.getAudioSession(context).setResampleQuality(resampleQuality);
+        SettingsTools.setResampleQuality(context, resampleQuality);
     }
 
 }
@@ -0,0 +1,72 @@
+package fr.mysoundbox.tools;
+
+import android.net.Uri;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import fr.mysoundbox.bean.Sample;
+
+/**
+ * Table des samples par défaut (seule définition de la banque par défaut : un fichier MP3 de 'res/raw' par pad)
+ * Les samples par défaut ne changent pas à l'exécution : ils sont construits directement, sans lecture de ressource ni analyse JSON
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class DefaultSamples {
+
+    /**
+     * Attributs
+     */
+    static final String EXTENSION = ".mp3";
+    private static final String URI_PREFIX = "android.resource://fr.mysoundbox/raw/";
+    // Nom de la ressource de 'res/raw' et titre de chaque pad, dans l'ordre des pads (sans classe Android : vérifiable par un test JVM)
+    static final String[][] ENTRIES = {
+            {"oss_117_mossad", "OSS 117 - Le Mossad"},
+            {"matrix_pillules", "Matrix - Les pillules"},
+            {"demolition_man_coquillages", "Demolition Man - Les 3 coquillages"},
+            {"oss_117_secretaire", "OSS 117 - La secrétaire"},
+            {"snatch_chiens", "Snatch - Les chiens"},
+            {"bernie_hyenes", "Bernie - Les hyènes"},
+            {"oss_117_amicale_ancien_nazi", "OSS 117 - L'amicale d'ancien Nazi"},
+            {"full_metal_jacket_deuxieme_pompe", "Full Metal Jacket - Deuxième pompe"},
+            {"la_haine_cest_a_moi_que_tu_parles", "La Haine - C'est à moi que tu parles ?"},
+            {"pulp_fiction_ezechiel", "Pulp Fiction - Ezchiel 25 Verset 10"},
+            {"nos_jours_heureux_roi_des_cons", "Nos jours heureux - Le roi des cons"},
+            {"le_cinquieme_element_multipass", "Le 5ème élément - Multipass"}
+    };
+
+    /**
+     * Récupère les samples par défaut
+     *
+     * @return List<Sample> (non modifiable)
+     */
+    public static List<Sample> getSamples() {
+        return Holder.SAMPLES;
+    }
+
+    /**
+     * Construit les samples par défaut à partir de la table
+     *
+     * @return List<Sample> (non modifiable)
+     */
+    private static List<Sample> buildSamples() {
+        List<Sample> listSample = new ArrayList<>(ENTRIES.length);
+        for (int pad = 0; pad < ENTRIES.length; pad++) {
+            String resource = ENTRIES[pad][0];
+            listSample.add(new Sample(pad, ENTRIES[pad][1], resource + EXTENSION, Uri.parse(URI_PREFIX + resource)));
+        }
+        return Collections.unmodifiableList(listSample);
+    }
+
+    /**
+     * Samples construits au premier accès (la table reste lisible sans initialiser les Uri)
+     */
+    private static class Holder {
+        private static final List<Sample> SAMPLES = buildSamples();
+    }
+
+}
@@ -0,0 +1,21 @@
+package fr.mysoundbox.tools;
+
+import fr.mysoundbox.bean.LibraryIndex;
+
+/**
+ * Interface de retour du chargement ou du parcours de la bibliothèque (appelée sur le thread UI)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public interface LibraryCallback {
+
+    /**
+     * Lors de la fin du chargement ou du parcours
+     *
+     * @param libraryIndex LibraryIndex (ou null si aucun dossier n'est indexé ou s'il n'a pas pu être lu)
+     */
+    void onLibraryLoaded(LibraryIndex libraryIndex);
+
+}
@@ -0,0 +1,116 @@
+package fr.mysoundbox.tools;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.mysoundbox.bean.LibraryEntry;
+import fr.mysoundbox.bean.LibraryIndex;
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Classe en charge d'écrire et de lire l'index de la bibliothèque dans un fichier binaire (dans les datas privées)
+ * Format : MAGIC, VERSION, Uri du dossier, nombre de fichiers puis pour chaque fichier : Uri et nom (chaînes préfixées par leur longueur), taille, date de modification et durée (long)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class LibraryIndexTools {
+
+    /**
+     * Attributs
+     */
+    private static final String filename = "library.bin";
+    private static final int MAGIC = 0x4D53424C; // 'MSBL'
+    private static final int VERSION = 1;
+
+    /**
+     * Ecris l'index de la bibliothèque (fichier temporaire puis renommage)
+     *
+     * @param context      Context
+     * @param libraryIndex LibraryIndex
+     * @throws TechnicalException TechnicalException
+     */
+    public static void writeFile(Context context, LibraryIndex libraryIndex) throws TechnicalException {
+        File file = new File(context.getFilesDir(), filename);
+        File tmp = new File(context.getFilesDir(), filename + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(libraryIndex.treeUri().toString());
+            out.writeInt(libraryIndex.entries().size());
+            for (LibraryEntry entry : libraryIndex.entries()) {
+                out.writeUTF(entry.uri().toString());
+                out.writeUTF(entry.name());
+                out.writeLong(entry.sizeBytes());
+                out.writeLong(entry.lastModified());
+                out.writeLong(entry.durationUs());
+            }
+        } catch (IOException ioex) {
+            deleteFile(tmp);
+            throw new TechnicalException("Impossible d'écrire l'index de la bibliothèque !");
+        }
+        if (!tmp.renameTo(file)) {
+            deleteFile(tmp);
+            throw new TechnicalException("Impossible de renommer l'index de la bibliothèque !");
+        }
+        Log.e("INFO", "Index de la bibliothèque enregistré : " + libraryIndex.entries().size() + " fichier(s)");
+    }
+
+    /**
+     * Lit l'index de la bibliothèque
+     *
+     * @param context Context
+     * @return LibraryIndex (ou null si aucun dossier n'a encore été indexé)
+     * @throws TechnicalException TechnicalException (index invalide)
+     */
+    public static LibraryIndex readFile(Context context) throws TechnicalException {
+        File file = new File(context.getFilesDir(), filename);
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("En-tête invalide");
+            }
+            Uri treeUri = Uri.parse(in.readUTF());
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Nombre de fichiers invalide : " + count);
+            }
+            List<LibraryEntry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Uri uri = Uri.parse(in.readUTF());
+                String name = in.readUTF();
+                entries.add(new LibraryEntry(uri, name, in.readLong(), in.readLong(), in.readLong()));
+            }
+            return new LibraryIndex(treeUri, entries);
+        } catch (IOException ioex) {
+            throw new TechnicalException("Impossible de lire l'index de la bibliothèque !");
+        }
+    }
+
+    /**
+     * Supprime un fichier
+     *
+     * @param file File
+     */
+    private static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            Log.e("ERROR", "Impossible de supprimer le fichier : " + file.getName());
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package fr.mysoundbox.tools;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import fr.mysoundbox.bean.LibraryIndex;
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Chargement et parcours de la bibliothèque sur un thread dédié (un parcours long ne retarde ni le thread UI ni le décodage des pads)
+ * Les résultats sont renvoyés sur le thread UI
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class LibraryLoader {
+
+    /**
+     * Attributs
+     */
+    private final Context context;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Constructeur
+     *
+     * @param context Context
+     */
+    public LibraryLoader(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Charge en arrière-plan l'index enregistré de la bibliothèque
+     * Le callback reçoit l'index sur le thread UI (null si aucun dossier n'a encore été indexé)
+     *
+     * @param callback LibraryCallback
+     */
+    public void load(LibraryCallback callback) {
+        executor.execute(() -> {
+            LibraryIndex libraryIndex = null;
+            try {
+                libraryIndex = LibraryIndexTools.readFile(context);
+            } catch (TechnicalException tex) {
+                Log.e("LibraryLoader", tex.getMessage());
+            }
+            final LibraryIndex result = libraryIndex;
+            mainHandler.post(() -> callback.onLibraryLoaded(result));
+        });
+    }
+
+    /**
+     * Parcourt en arrière-plan le dossier de la bibliothèque puis enregistre son index
+     * Seuls les fichiers nouveaux ou modifiés depuis le dernier parcours du même dossier sont analysés
+     * Le callback reçoit le nouvel index sur le thread UI (null en cas d'erreur)
+     *
+     * @param treeUri  Uri (dossier accordé, ou null pour parcourir à nouveau le dossier déjà indexé)
+     * @param callback LibraryCallback
+     */
+    public void scan(Uri treeUri, LibraryCallback callback) {
+        executor.execute(() -> {
+            LibraryIndex libraryIndex = null;
+            try {
+                LibraryIndex previous = null;
+                try {
+                    previous = LibraryIndexTools.readFile(context);
+                } catch (TechnicalException tex) {
+                    // Index illisible : parcours complet
+                    Log.e("LibraryLoader", tex.getMessage());
+                }
+                Uri scannedUri = treeUri != null ? treeUri : previous != null ? previous.treeUri() : null;
+                if (scannedUri == null) {
+                    throw new TechnicalException("Aucun dossier de bibliothèque à parcourir !");
+                }
+                libraryIndex = LibraryScanner.scan(context, scannedUri, previous);
+                LibraryIndexTools.writeFile(context, libraryIndex);
+            } catch (TechnicalException tex) {
+                Log.e("LibraryLoader", tex.getMessage());
+            }
+            final LibraryIndex result = libraryIndex;
+            mainHandler.post(() -> callback.onLibraryLoaded(result));
+        });
+    }
+
+    /**
+     * Arrête le thread une fois les tâches en attente exécutées (un parcours en cours se termine, son index reste enregistré)
+     */
+    public void release() {
+        executor.shutdown();
+    }
+
+}
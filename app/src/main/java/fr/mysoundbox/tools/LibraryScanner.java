@@ -0,0 +1,128 @@
+package fr.mysoundbox.tools;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.DocumentsContract;
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import fr.mysoundbox.audio.SampleDecoder;
+import fr.mysoundbox.bean.LibraryEntry;
+import fr.mysoundbox.bean.LibraryIndex;
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Parcours d'un dossier accordé par l'utilisateur (ACTION_OPEN_DOCUMENT_TREE) et de ses sous-dossiers pour en indexer les fichiers audio
+ * Le parcours est incrémental : un fichier déjà indexé avec la même taille et la même date de modification est repris tel quel, seuls les fichiers nouveaux ou modifiés sont analysés (durée)
+ * Opération longue : à exécuter hors du thread UI
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class LibraryScanner {
+
+    /**
+     * Attributs
+     */
+    private static final String[] PROJECTION = {
+            DocumentsContract.Document.COLUMN_DOCUMENT_ID,
+            DocumentsContract.Document.COLUMN_DISPLAY_NAME,
+            DocumentsContract.Document.COLUMN_MIME_TYPE,
+            DocumentsContract.Document.COLUMN_SIZE,
+            DocumentsContract.Document.COLUMN_LAST_MODIFIED
+    };
+
+    /**
+     * Parcourt le dossier et construit son index
+     *
+     * @param context  Context
+     * @param treeUri  Uri (dossier accordé, permission persistante déjà prise)
+     * @param previous LibraryIndex (index précédent, ou null)
+     * @return LibraryIndex (fichiers triés par nom)
+     * @throws TechnicalException TechnicalException (dossier illisible ou permission révoquée)
+     */
+    public static LibraryIndex scan(Context context, Uri treeUri, LibraryIndex previous) throws TechnicalException {
+        // Fichiers déjà indexés du même dossier
+        Map<Uri, LibraryEntry> known = new HashMap<>();
+        if (previous != null && previous.treeUri().equals(treeUri)) {
+            for (LibraryEntry entry : previous.entries()) {
+                known.put(entry.uri(), entry);
+            }
+        }
+        ContentResolver resolver = context.getContentResolver();
+        List<LibraryEntry> entries = new ArrayList<>();
+        int analyzed = 0;
+        // Parcours en largeur des dossiers (pas de récursion : arborescences profondes)
+        Deque<String> directories = new ArrayDeque<>();
+        directories.add(DocumentsContract.getTreeDocumentId(treeUri));
+        while (!directories.isEmpty()) {
+            Uri childrenUri = DocumentsContract.buildChildDocumentsUriUsingTree(treeUri, directories.poll());
+            try (Cursor cursor = resolver.query(childrenUri, PROJECTION, null, null, null)) {
+                if (cursor == null) {
+                    throw new TechnicalException("Impossible de parcourir le dossier de la bibliothèque !");
+                }
+                while (cursor.moveToNext()) {
+                    String documentId = cursor.getString(0);
+                    String name = cursor.getString(1);
+                    String mimeType = cursor.getString(2);
+                    if (DocumentsContract.Document.MIME_TYPE_DIR.equals(mimeType)) {
+                        directories.add(documentId);
+                        continue;
+                    }
+                    if (mimeType == null || !mimeType.startsWith("audio/") || name == null) {
+                        continue;
+                    }
+                    long sizeBytes = cursor.isNull(3) ? 0 : cursor.getLong(3);
+                    long lastModified = cursor.isNull(4) ? 0 : cursor.getLong(4);
+                    Uri uri = DocumentsContract.buildDocumentUriUsingTree(treeUri, documentId);
+                    LibraryEntry entry = known.get(uri);
+                    if (entry == null || !entry.isUnchanged(sizeBytes, lastModified)) {
+                        // Fichier nouveau ou modifié : analyse de sa durée
+                        entry = analyze(context, uri, name, sizeBytes, lastModified);
+                        analyzed++;
+                    }
+                    entries.add(entry);
+                }
+            } catch (SecurityException sex) {
+                // Permission du dossier révoquée
+                throw new TechnicalException("Accès au dossier de la bibliothèque refusé !");
+            }
+        }
+        Collections.sort(entries, (a, b) -> a.name().toLowerCase(Locale.ROOT).compareTo(b.name().toLowerCase(Locale.ROOT)));
+        Log.e("INFO", "Bibliothèque parcourue : " + entries.size() + " fichier(s) (dont illisibles), " + analyzed + " analysé(s)");
+        return new LibraryIndex(treeUri, entries);
+    }
+
+    /**
+     * Analyse un fichier audio (durée lue dans l'en-tête, sans décodage)
+     *
+     * @param context      Context
+     * @param uri          Uri
+     * @param name         String
+     * @param sizeBytes    long
+     * @param lastModified long
+     * @return LibraryEntry (durée UNREADABLE si le fichier n'est pas lisible : conservé pour ne pas être ré-analysé à chaque parcours)
+     */
+    private static LibraryEntry analyze(Context context, Uri uri, String name, long sizeBytes, long lastModified) {
+        try {
+            // Durée inconnue (en-tête incomplet) : fichier lisible, durée non affichée
+            long durationUs = Math.max(0, SampleDecoder.probe(context, uri).durationUs());
+            return new LibraryEntry(uri, name, sizeBytes, lastModified, durationUs);
+        } catch (TechnicalException tex) {
+            Log.e("ERROR", "Fichier de la bibliothèque illisible : " + name);
+            return new LibraryEntry(uri, name, sizeBytes, lastModified, LibraryEntry.UNREADABLE);
+        }
+    }
+
+}
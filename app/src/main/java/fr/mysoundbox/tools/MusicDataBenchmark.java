@@ -0,0 +1,184 @@
+package fr.mysoundbox.tools;
+
+import android.content.Context;
+import android.net.Uri;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import fr.mysoundbox.bean.Sample;
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Comparaison du temps de lecture (lecture du fichier + analyse) des listes de samples au format JSON et au format binaire (MusicDataCodec)
+ * Mesure aussi l'ouverture paresseuse (SampleLibraryReader) limitée aux 12 samples affichés
+ * Exécuté sur le périphérique (Uri est une classe Android), dans le cache de l'application, pour 12, 1 000 et 100 000 samples
+ * Lancé uniquement depuis l'écran de débogage (DebugActivity, builds de débogage), sur son thread de travail
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class MusicDataBenchmark {
+
+    /**
+     * Attributs
+     */
+    private static final int[] SAMPLE_COUNTS = {12, 1_000, 100_000};
+    private static final int MEASURED_RUNS = 3;
+    private static final int DISPLAYED_SAMPLES = 12;
+    private static final String CHARSET = "UTF-8";
+
+    /**
+     * Mesure chaque format pour chaque taille de liste (opération longue : à exécuter hors du thread UI)
+     *
+     * @param context Context
+     * @return String rapport
+     * @throws TechnicalException TechnicalException
+     */
+    public static String run(Context context) throws TechnicalException {
+        File jsonFile = new File(context.getCacheDir(), "benchmark_uris.json");
+        File binaryFile = new File(context.getCacheDir(), "benchmark_uris.bin");
+        StringBuilder sb = new StringBuilder();
+        try {
+            for (int count : SAMPLE_COUNTS) {
+                List<Sample> listSample = buildSamples(count);
+                writeJson(jsonFile, listSample);
+                writeBinary(binaryFile, listSample);
+                long bestJson = Long.MAX_VALUE;
+                long bestBinary = Long.MAX_VALUE;
+                long bestLazy = Long.MAX_VALUE;
+                for (int i = 0; i < MEASURED_RUNS; i++) {
+                    long start = System.nanoTime();
+                    readJson(jsonFile);
+                    bestJson = Math.min(bestJson, System.nanoTime() - start);
+                    start = System.nanoTime();
+                    readBinary(binaryFile);
+                    bestBinary = Math.min(bestBinary, System.nanoTime() - start);
+                    start = System.nanoTime();
+                    readDisplayed(binaryFile);
+                    bestLazy = Math.min(bestLazy, System.nanoTime() - start);
+                }
+                sb.append(String.format(Locale.FRANCE, "%d samples :\n  JSON %.1f ms (%d Ko)\n  Binaire %.1f ms (%d Ko)\n  Binaire, %d premiers %.2f ms\n",
+                        count, bestJson / 1_000_000.0, jsonFile.length() / 1024, bestBinary / 1_000_000.0, binaryFile.length() / 1024,
+                        DISPLAYED_SAMPLES, bestLazy / 1_000_000.0));
+            }
+        } catch (IOException | JSONException | TechnicalException ex) {
+            throw new TechnicalException("Impossible d'exécuter la mesure des formats MusicDataFile !");
+        } finally {
+            if (!jsonFile.delete() || !binaryFile.delete()) {
+                sb.append("Fichiers de mesure non supprimés\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Construit une liste de samples de test
+     *
+     * @param count int
+     * @return List<Sample>
+     */
+    private static List<Sample> buildSamples(int count) {
+        List<Sample> listSample = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Uri uri = Uri.parse("content://com.android.providers.media.documents/document/audio%3A" + (100_000 + i));
+            listSample.add(new Sample(i, "Sample " + i, "sample_" + i + ".mp3", uri, i * 10L, i % 7 == 0));
+        }
+        return listSample;
+    }
+
+    /**
+     * Ecris la liste au format JSON (même structure que le fichier MusicDataFile)
+     *
+     * @param file       File
+     * @param listSample List<Sample>
+     * @throws IOException   IOException
+     * @throws JSONException JSONException
+     */
+    private static void writeJson(File file, List<Sample> listSample) throws IOException, JSONException {
+        JSONArray jsonArraySample = new JSONArray();
+        for (Sample sample : listSample) {
+            jsonArraySample.put(sample.toJSONObject());
+        }
+        JSONObject json = new JSONObject();
+        json.put("samples", jsonArraySample);
+        try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(file), CHARSET)) {
+            writer.write(json.toString());
+        }
+    }
+
+    /**
+     * Ecris la liste au format binaire
+     *
+     * @param file       File
+     * @param listSample List<Sample>
+     * @throws IOException IOException
+     */
+    private static void writeBinary(File file, List<Sample> listSample) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            MusicDataCodec.write(out, listSample);
+        }
+    }
+
+    /**
+     * Lit la liste au format JSON (lecture en flux, comme la migration de l'ancien fichier)
+     *
+     * @param file File
+     * @return List<Sample>
+     * @throws IOException        IOException
+     * @throws TechnicalException TechnicalException
+     */
+    private static List<Sample> readJson(File file) throws IOException, TechnicalException {
+        try (InputStreamReader reader = new InputStreamReader(new BufferedInputStream(new FileInputStream(file)), CHARSET)) {
+            return MusicDataTools.parseJsonSamples(reader);
+        }
+    }
+
+    /**
+     * Lit la liste au format binaire
+     *
+     * @param file File
+     * @return List<Sample>
+     * @throws IOException IOException
+     */
+    private static List<Sample> readBinary(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return MusicDataCodec.read(in);
+        }
+    }
+
+    /**
+     * Lit les premiers samples au format binaire, sans lire le reste du fichier
+     *
+     * @param file File
+     * @return List<Sample>
+     * @throws IOException IOException
+     */
+    private static List<Sample> readDisplayed(File file) throws IOException {
+        try (SampleLibraryReader reader = new SampleLibraryReader(file)) {
+            int count = Math.min(DISPLAYED_SAMPLES, reader.getCount());
+            List<Sample> listSample = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                listSample.add(reader.get(i));
+            }
+            return listSample;
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+package fr.mysoundbox.tools;
+
+import android.net.Uri;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.mysoundbox.bean.Sample;
+
+/**
+ * Encodage binaire versionné d'une liste de samples (remplace le JSON du fichier MusicDataFile)
+ * Format : MAGIC, VERSION, nombre de samples, table des positions (long, une par sample) puis pour chaque sample :
+ * index (int), nom, nom du fichier et Uri (chaînes préfixées par leur longueur), décalage de départ (long) et lecture en boucle (boolean)
+ * La table des positions permet de lire un sample sans parcourir les précédents (voir SampleLibraryReader)
+ * Aucune analyse de texte à la lecture : chaque champ est lu directement à sa place
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class MusicDataCodec {
+
+    /**
+     * Attributs
+     */
+    static final int MAGIC = 0x4D534244; // 'MSBD'
+    // Version 2 : ajout de la table des positions (la version 1, sans table, reste lisible)
+    static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_TABLE = 1;
+    static final int HEADER_SIZE = 12;
+    static final int TABLE_ENTRY_SIZE = 8;
+
+    /**
+     * Ecris la liste des samples
+     *
+     * @param out        DataOutputStream
+     * @param listSample List<Sample>
+     * @throws IOException IOException
+     */
+    public static void write(DataOutputStream out, List<Sample> listSample) throws IOException {
+        // Encode les samples à part pour connaître leurs positions avant d'écrire la table
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream recordsOut = new DataOutputStream(records);
+        long[] positions = new long[listSample.size()];
+        long tableEnd = HEADER_SIZE + (long) TABLE_ENTRY_SIZE * listSample.size();
+        for (int i = 0; i < listSample.size(); i++) {
+            positions[i] = tableEnd + recordsOut.size();
+            writeSample(recordsOut, listSample.get(i));
+        }
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(listSample.size());
+        for (long position : positions) {
+            out.writeLong(position);
+        }
+        records.writeTo(out);
+    }
+
+    /**
+     * Lit la liste complète des samples
+     *
+     * @param in DataInputStream
+     * @return List<Sample>
+     * @throws IOException IOException (en-tête, version ou contenu invalide)
+     */
+    public static List<Sample> read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Fichier MusicDataFile binaire invalide");
+        }
+        int version = in.readInt();
+        if (version != VERSION && version != VERSION_WITHOUT_TABLE) {
+            throw new IOException("Version du fichier MusicDataFile non prise en charge : " + version);
+        }
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Nombre de samples invalide : " + count);
+        }
+        if (version == VERSION) {
+            // Table des positions inutile pour une lecture séquentielle
+            for (int i = 0; i < count; i++) {
+                in.readLong();
+            }
+        }
+        List<Sample> listSample = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            listSample.add(readSample(in));
+        }
+        return listSample;
+    }
+
+    /**
+     * Ecris un sample
+     *
+     * @param out    DataOutputStream
+     * @param sample Sample
+     * @throws IOException IOException
+     */
+    private static void writeSample(DataOutputStream out, Sample sample) throws IOException {
+        out.writeInt(sample.index());
+        out.writeUTF(sample.name());
+        out.writeUTF(sample.filename());
+        out.writeUTF(sample.uri().toString());
+        out.writeLong(sample.startOffsetUs());
+        out.writeBoolean(sample.loop());
+    }
+
+    /**
+     * Lit un sample
+     *
+     * @param in DataInput
+     * @return Sample
+     * @throws IOException IOException
+     */
+    static Sample readSample(DataInput in) throws IOException {
+        int index = in.readInt();
+        String name = in.readUTF();
+        String filename = in.readUTF();
+        Uri uri = Uri.parse(in.readUTF());
+        long startOffsetUs = Math.max(0, in.readLong());
+        boolean loop = in.readBoolean();
+        return new Sample(index, name, filename, uri, startOffsetUs, loop);
+    }
+
+}
@@ -0,0 +1,152 @@
+package fr.mysoundbox.tools;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.mysoundbox.bean.MusicDataFile;
+import fr.mysoundbox.bean.Sample;
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Enregistrement différé des banques de l'utilisateur, sur un thread dédié
+ * Les modifications rapprochées sont regroupées : seul le dernier état est écrit, une fois le délai écoulé sans nouvelle modification
+ * Les banques jamais lues sont recopiées depuis le fichier au moment de l'écriture : le thread appelant ne relit rien
+ * L'écriture reste atomique (fichier temporaire puis renommage, voir MusicDataTools.writeBanks)
+ * Utilisé par le SampleRepository de l'application, prévenu après chaque écriture réussie
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+class MusicDataPersister {
+
+    /**
+     * Attributs
+     */
+    private static final long WRITE_DELAY_MS = 500;
+    private final Context context;
+    private final Runnable onWritten;
+    private final Handler handler;
+    private final Runnable writeTask = this::writePending;
+    // Verrou des écritures : le thread dédié et un flush() sur le thread appelant n'écrivent jamais en même temps
+    private final Object writeLock = new Object();
+    private List<List<Sample>> pending;
+
+    /**
+     * Constructeur
+     *
+     * @param context   Context (de l'application)
+     * @param onWritten Runnable (exécuté sur le thread de l'écriture, après chaque écriture réussie)
+     */
+    MusicDataPersister(Context context, Runnable onWritten) {
+        this.context = context;
+        this.onWritten = onWritten;
+        HandlerThread thread = new HandlerThread("MusicDataPersister", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        this.handler = new Handler(thread.getLooper());
+    }
+
+    /**
+     * Programme l'enregistrement des banques (remplace un enregistrement en attente)
+     * Une copie de la liste est enregistrée : les modifications suivantes de la liste ne l'affectent pas (les banques sont non modifiables)
+     *
+     * @param listBank List<List<Sample>> (une liste de 12 samples par banque, ou null pour une banque jamais lue)
+     * @throws TechnicalException TechnicalException (liste invalide)
+     */
+    void schedule(List<List<Sample>> listBank) throws TechnicalException {
+        if (listBank.isEmpty()) {
+            throw new TechnicalException("L'objet MusicDataFile ne comporte pas de banques de 12 samples !");
+        }
+        for (List<Sample> listSample : listBank) {
+            if (listSample != null && listSample.size() != MusicDataFile.BANK_SIZE) {
+                throw new TechnicalException("L'objet MusicDataFile ne comporte pas de banques de 12 samples !");
+            }
+        }
+        synchronized (this) {
+            pending = new ArrayList<>(listBank);
+        }
+        handler.removeCallbacks(writeTask);
+        handler.postDelayed(writeTask, WRITE_DELAY_MS);
+    }
+
+    /**
+     * Ecris immédiatement, sur le thread appelant, l'enregistrement en attente s'il y en a un
+     * En cas d'échec, l'enregistrement reste en attente (sauf si une modification plus récente l'a remplacé)
+     *
+     * @throws TechnicalException TechnicalException
+     */
+    void flush() throws TechnicalException {
+        handler.removeCallbacks(writeTask);
+        synchronized (writeLock) {
+            List<List<Sample>> listBank = takePending();
+            if (listBank == null) {
+                return;
+            }
+            try {
+                MusicDataTools.writeBanks(context, listBank);
+            } catch (TechnicalException tex) {
+                restorePending(listBank);
+                throw tex;
+            }
+            onWritten.run();
+        }
+    }
+
+    /**
+     * Ecris l'enregistrement en attente (thread dédié)
+     */
+    private void writePending() {
+        synchronized (writeLock) {
+            List<List<Sample>> listBank = takePending();
+            if (listBank == null) {
+                return;
+            }
+            try {
+                MusicDataTools.writeBanks(context, listBank);
+                onWritten.run();
+            } catch (TechnicalException tex) {
+                Log.e("ERROR", tex.getMessage());
+                restorePending(listBank);
+            }
+        }
+    }
+
+    /**
+     * Test si un enregistrement est en attente
+     *
+     * @return boolean
+     */
+    synchronized boolean hasPending() {
+        return pending != null;
+    }
+
+    /**
+     * Récupère et retire l'enregistrement en attente
+     *
+     * @return List<List<Sample>> (null si aucun)
+     */
+    private synchronized List<List<Sample>> takePending() {
+        List<List<Sample>> listBank = pending;
+        pending = null;
+        return listBank;
+    }
+
+    /**
+     * Remet en attente un enregistrement dont l'écriture a échoué, pour le prochain flush()
+     * Ignoré si une modification plus récente a été programmée entre-temps : elle contient déjà cet état
+     *
+     * @param listBank List<List<Sample>>
+     */
+    private synchronized void restorePending(List<List<Sample>> listBank) {
+        if (pending == null) {
+            pending = listBank;
+        }
+    }
+
+}
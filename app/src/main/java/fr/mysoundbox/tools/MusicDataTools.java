@@ -5,33 +5,35 @@ import android.content.Context;
 import android.database.Cursor;
 import android.net.Uri;
 import android.provider.OpenableColumns;
+import android.util.JsonReader;
 import android.util.Log;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
-import fr.mysoundbox.R;
 import fr.mysoundbox.bean.MusicDataFile;
 import fr.mysoundbox.bean.Sample;
 import fr.mysoundbox.exception.TechnicalException;
 
 /**
- * Classe en charge d'écrire le MusicDataFile dans un fichier (dans les datas privées) et de le lire ainsi que le MusicDataFile par défaut dans les ressources
+ * Classe en charge d'écrire le MusicDataFile dans un fichier (dans les datas privées) et de le lire (le MusicDataFile par défaut est la table DefaultSamples)
  * Les MusicDataFile permettent de sauvegarder les informations des samples (par défaut ou de l'utilisateur)
+ * Le fichier de l'utilisateur est enregistré au format binaire (MusicDataCodec), l'ancien fichier JSON n'est plus lu que pour sa migration
+ * Toutes les écritures du fichier (dépôt, écriture différée, migrations) passent par un même verrou : le fichier temporaire n'a jamais deux auteurs
  * <p>
  * Author: Jonathan B.
  * Created: 20/05/2018
- * Last Updated: 22/05/2018
+ * Last Updated: 18/10/2026
  */
 public class MusicDataTools {
 
@@ -39,8 +41,10 @@ public class MusicDataTools {
      * Attributs
      */
     private static final String filename = "uris.data";
+    private static final String binaryFilename = "uris.bin";
     private static final String CHARSET = "UTF-8";
-    private static final int BUFFER_SIZE = 2048;
+    // Verrou des écritures du fichier binaire (toujours pris en dernier : aucun autre verrou n'est demandé en le détenant)
+    private static final Object FILE_LOCK = new Object();
 
     /**
      * Récupère le nom du fichier à partir de son Uri
@@ -62,192 +66,314 @@ public class MusicDataTools {
     }
 
     /**
-     * Ecris le MusicDataFile dans le fichier 'filename', dans la mémoire privée de l'application
+     * Récupère le fichier binaire du MusicDataFile de l'utilisateur
+     *
+     * @param context Context
+     * @return File
+     */
+    public static File getFile(Context context) {
+        return new File(context.getFilesDir(), binaryFilename);
+    }
+
+    /**
+     * Ecris le MusicDataFile dans le fichier binaire 'binaryFilename', dans la mémoire privée de l'application (fichier temporaire puis renommage)
      *
      * @param context       Context
      * @param musicDataFile MusicDataFile
      * @throws TechnicalException TechnicalException
      */
     public static void writeFile(Context context, MusicDataFile musicDataFile) throws TechnicalException {
-        FileOutputStream fout = null;
-        OutputStreamWriter writer = null;
-
+        if (!musicDataFile.isValid()) {
+            throw new TechnicalException("L'objet MusicDataFile ne comporte pas de banques de 12 samples !");
+        }
         try {
-            fout = context.openFileOutput(filename, Context.MODE_PRIVATE);
-            writer = new OutputStreamWriter(fout, CHARSET);
-            JSONObject jsonMusicData = musicDataFile.toJSONObject();
-            String rawMusicData = jsonMusicData.toString();
-            writer.write(rawMusicData);
-            writer.flush();
-            Log.e("INFO", "Fichier MusicDataFile enregistré");
+            writeBinary(getFile(context), musicDataFile.getListSample());
         } catch (IOException ioex) {
             throw new TechnicalException("Impossible d'écrire le fichier MusicDataFile !");
-        } finally {
-            if (writer != null) {
-                try {
-                    writer.close();
-                } catch (IOException ex) {
-                    Log.e("ERROR", "Impossible de fermer correctement l'OutputStreamWriter !");
+        }
+        Log.e("INFO", "Fichier MusicDataFile enregistré");
+    }
+
+    /**
+     * Ecris les banques de l'utilisateur dans le fichier binaire 'binaryFilename' (fichier temporaire puis renommage)
+     * Les banques absentes (null : jamais lues, donc inchangées) sont recopiées depuis le fichier actuel, sous le verrou des écritures
+     *
+     * @param context  Context
+     * @param listBank List<List<Sample>> (une liste de 12 samples ou null par banque)
+     * @throws TechnicalException TechnicalException
+     */
+    public static void writeBanks(Context context, List<List<Sample>> listBank) throws TechnicalException {
+        synchronized (FILE_LOCK) {
+            List<Sample> listSample = new ArrayList<>(listBank.size() * MusicDataFile.BANK_SIZE);
+            try (SampleLibraryReader reader = listBank.contains(null) ? openFileLocked(context) : null) {
+                for (int bank = 0; bank < listBank.size(); bank++) {
+                    List<Sample> samples = listBank.get(bank);
+                    if (samples != null) {
+                        listSample.addAll(samples);
+                        continue;
+                    }
+                    for (int pad = 0; pad < MusicDataFile.BANK_SIZE; pad++) {
+                        listSample.add(reader.get(bank * MusicDataFile.BANK_SIZE + pad));
+                    }
                 }
+            } catch (IOException ioex) {
+                throw new TechnicalException("Impossible de relire les banques inchangées du fichier MusicDataFile !");
             }
-            if (fout != null) {
-                try {
-                    fout.close();
-                } catch (IOException ex) {
-                    Log.e("ERROR", "Impossible de fermer correctement le FileOutputStream !");
-                }
+            writeFile(context, new MusicDataFile(listSample));
+        }
+    }
+
+    /**
+     * Ecris une liste de samples dans un fichier binaire (fichier temporaire puis renommage)
+     * Le fichier temporaire est synchronisé sur le disque avant le renommage : une coupure ne peut pas laisser un fichier renommé mais vide
+     *
+     * @param file       File
+     * @param listSample List<Sample>
+     * @throws IOException IOException
+     */
+    private static void writeBinary(File file, List<Sample> listSample) throws IOException {
+        synchronized (FILE_LOCK) {
+            File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+            try (FileOutputStream fos = new FileOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+                MusicDataCodec.write(out, listSample);
+                out.flush();
+                fos.getFD().sync();
+            } catch (IOException ioex) {
+                deleteFile(tmp);
+                throw ioex;
+            }
+            if (!tmp.renameTo(file)) {
+                deleteFile(tmp);
+                throw new IOException("Impossible de renommer le fichier MusicDataFile");
             }
         }
     }
 
     /**
-     * Lit le MusicDataFile du fichier 'res/raw/default_samples.json'
+     * Ouvre le fichier binaire 'binaryFilename' de la mémoire privée de l'application pour une lecture à la demande (SampleLibraryReader)
+     * Seul l'en-tête est lu, quelle que soit la taille du fichier
+     * Un fichier de l'ancienne version binaire (sans table des positions) est d'abord ré-écrit dans la version courante
+     * S'il n'existe pas encore, l'ancien fichier JSON 'filename' est lu puis migré au format binaire
+     * L'ouverture détient le verrou des écritures : une migration ne peut ni croiser ni écraser une écriture en cours
      *
      * @param context Context
-     * @return MusicDataFile
+     * @return SampleLibraryReader (à fermer)
      * @throws TechnicalException TechnicalException
      */
-    public static MusicDataFile readDefaultFile(Context context) throws TechnicalException {
-        MusicDataFile musicDataFile;
-
-        StringBuilder sb = new StringBuilder();
-        Scanner scanner = new Scanner(context.getResources().openRawResource(R.raw.default_samples));
+    public static SampleLibraryReader openFile(Context context) throws TechnicalException {
+        synchronized (FILE_LOCK) {
+            return openFileLocked(context);
+        }
+    }
 
-        while (scanner.hasNextLine()) {
-            sb.append(scanner.nextLine());
-            sb.append("\n");
+    /**
+     * Ouvre le fichier binaire (verrou des écritures détenu)
+     *
+     * @param context Context
+     * @return SampleLibraryReader (à fermer)
+     * @throws TechnicalException TechnicalException
+     */
+    private static SampleLibraryReader openFileLocked(Context context) throws TechnicalException {
+        File file = getFile(context);
+        if (file.exists()) {
+            try {
+                return openReader(file);
+            } catch (IOException ioex) {
+                Log.e("ERROR", "Fichier MusicDataFile binaire invalide : " + ioex.getMessage());
+                if (!context.getFileStreamPath(filename).exists()) {
+                    throw new TechnicalException("Impossible de lire le fichier MusicDataFile !");
+                }
+            }
+        }
+        // Migration de l'ancien fichier JSON
+        MusicDataFile musicDataFile = readJsonFile(context);
+        writeFile(context, musicDataFile);
+        if (!context.deleteFile(filename)) {
+            Log.e("ERROR", "Impossible de supprimer l'ancien fichier MusicDataFile JSON !");
+        }
+        Log.e("INFO", "MusicDataFile migré au format binaire");
+        try {
+            return new SampleLibraryReader(file);
+        } catch (IOException ioex) {
+            throw new TechnicalException("Impossible de lire le fichier MusicDataFile !");
         }
+    }
 
-        // Test si récupération ok
-        String rawData = sb.toString();
-        if (!rawData.trim().isEmpty()) {
-            // Parse le String récupéré en MusicDataFile
-            musicDataFile = getMusicDataFileFromString(rawData);
-            Log.e("INFO", "MusicDataFile par défaut récupéré");
-        } else {
-            throw new TechnicalException("Le fichier MusicDataFile par défaut récupéré est vide !");
+    /**
+     * Ouvre un fichier binaire, après l'avoir ré-écrit s'il est de l'ancienne version (sans table des positions)
+     *
+     * @param file File
+     * @return SampleLibraryReader
+     * @throws IOException IOException (fichier invalide)
+     */
+    private static SampleLibraryReader openReader(File file) throws IOException {
+        try {
+            return new SampleLibraryReader(file);
+        } catch (IOException ioex) {
+            List<Sample> listSample;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                listSample = MusicDataCodec.read(in);
+            } catch (IOException ex) {
+                throw ioex;
+            }
+            writeBinary(file, listSample);
+            Log.e("INFO", "MusicDataFile ré-écrit avec sa table des positions");
+            return new SampleLibraryReader(file);
         }
-        return musicDataFile;
     }
 
     /**
-     * Lit le MusicDataFile du fichier 'filename' dans la mémoire privée de l'application
+     * Lit le MusicDataFile de l'ancien fichier JSON 'filename' dans la mémoire privée de l'application
      *
      * @param context Context
      * @return MusicDataFile
      * @throws TechnicalException TechnicalException
      */
-    public static MusicDataFile readFile(Context context) throws TechnicalException {
-        MusicDataFile musicDataFile;
-        StringBuilder sb = new StringBuilder();
-        FileInputStream fin = null;
-        InputStreamReader reader = null;
-
-        try {
-            // Récupère le fichier en String
-            fin = context.openFileInput(filename);
-            reader = new InputStreamReader(fin, CHARSET);
-            char[] buffer = new char[BUFFER_SIZE];
-            while (reader.read(buffer) != -1) {
-                sb.append(buffer);
-            }
+    private static MusicDataFile readJsonFile(Context context) throws TechnicalException {
+        try (Reader reader = new InputStreamReader(context.openFileInput(filename), CHARSET)) {
+            MusicDataFile musicDataFile = getMusicDataFileFromReader(reader);
+            Log.e("INFO", "MusicDataFile récupéré");
+            return musicDataFile;
         } catch (IOException ioex) {
             throw new TechnicalException("Impossible de récupérer le fichier MusicDataFile ! (inexistant ?)");
-        } finally {
-            // Ferme le reader
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException ex) {
-                    Log.e("ERROR", "Impossible de fermer correctement l'InputStreamReader !");
-                }
-            }
-            // Ferme l'input stream
-            if (fin != null) {
-                try {
-                    fin.close();
-                } catch (IOException ex) {
-                    Log.e("ERROR", "Impossible de fermer correctement le FileInputStream !");
-                }
-            }
         }
+    }
 
-        // Test si récupération ok
-        String rawData = sb.toString();
-        if (!rawData.trim().isEmpty()) {
-            // Parse le String récupéré en MusicDataFile
-            musicDataFile = getMusicDataFileFromString(rawData);
-            Log.e("INFO", "MusicDataFile récupéré");
-        } else {
-            throw new TechnicalException("Le fichier MusicDataFile récupéré est vide !");
+    /**
+     * Supprime un fichier
+     *
+     * @param file File
+     */
+    private static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            Log.e("ERROR", "Impossible de supprimer le fichier : " + file.getName());
         }
-        return musicDataFile;
     }
 
     /**
-     * Parse un string brut en JSON puis objet MusicDataFile
+     * Parse un flux JSON en objet MusicDataFile
      *
-     * @param rawData String
+     * @param reader Reader
      * @return MusicDataFile
+     * @throws TechnicalException TechnicalException
      */
-    private static MusicDataFile getMusicDataFileFromString(String rawData) throws TechnicalException {
-        MusicDataFile musicDataFile;
-        List<Sample> listSample;
-        JSONObject jsonMusicData;
-        JSONArray jsonArraySample;
+    private static MusicDataFile getMusicDataFileFromReader(Reader reader) throws TechnicalException {
+        List<Sample> listSample = parseJsonSamples(reader);
+        // Vérifie que la liste comporte bien une ou plusieurs banques de 12 samples
+        MusicDataFile musicDataFile = new MusicDataFile(listSample);
+        if (!musicDataFile.isValid()) {
+            throw new TechnicalException("Le fichier MusicDataFile n'est pas valide !");
+        }
+        return musicDataFile;
+    }
 
+    /**
+     * Parse un flux JSON en liste de samples (quel que soit leur nombre)
+     * Lecture en flux (JsonReader) : ni le texte complet ni l'arbre JSON ne sont construits en mémoire
+     *
+     * @param reader Reader
+     * @return List<Sample>
+     * @throws TechnicalException TechnicalException
+     */
+    public static List<Sample> parseJsonSamples(Reader reader) throws TechnicalException {
+        List<Sample> listSample = null;
         try {
-            // Parse le String en JSONObject
-            jsonMusicData = new JSONObject(rawData.trim());
-            // Récupère la liste de JSONObject 'custom'
-            jsonArraySample = jsonMusicData.getJSONArray("samples");
-            // Si la liste comporte bien 12 samples
-            if (jsonArraySample.length() == 12) {
-                listSample = new ArrayList<>();
-                // Récupère chaque sample
-                for (int i = 0; i < jsonArraySample.length(); i++) {
-                    JSONObject jsonSample = jsonArraySample.getJSONObject(i);
-                    // Récupère l'index
-                    int index = jsonSample.getInt("index");
-                    // Récupère le nom
-                    String name = jsonSample.getString("name");
-                    if (name.trim().isEmpty() || name.trim().equals("null")) {
-                        throw new JSONException("Le nom du sample " + index + " est vide !");
-                    }
-                    // Récupère le filename
-                    String filename = jsonSample.getString("filename");
-                    if (filename.trim().isEmpty() || filename.trim().equals("null")) {
-                        throw new JSONException("Le nom du fichier du sample " + index + " est vide !");
-                    }
-                    // Récupère l'Uri (en string)
-                    String uriStr = jsonSample.getString("uri");
-                    if (uriStr.trim().isEmpty() || uriStr.trim().equals("null")) {
-                        throw new JSONException("L'Uri du sample " + index + " est vide !");
+            JsonReader jsonReader = new JsonReader(reader);
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                if (jsonReader.nextName().equals("samples")) {
+                    // Récupère chaque sample
+                    listSample = new ArrayList<>();
+                    jsonReader.beginArray();
+                    while (jsonReader.hasNext()) {
+                        listSample.add(readJsonSample(jsonReader));
                     }
-                    // Reforme l'Uri
-                    Uri uri;
-                    try {
-                        uri = Uri.parse(uriStr);
-                        if (uri == null) {
-                            throw new JSONException("L'Uri du sample " + index + " est invalide !");
-                        }
-                    } catch (Exception ex) {
-                        throw new JSONException("L'Uri du sample " + index + " est invalide !");
-                    }
-                    // Créer l'objet Sample
-                    Sample sample = new Sample(index, name, filename, uri);
-                    // Ajoute le Sample à la liste
-                    listSample.add(sample);
+                    jsonReader.endArray();
+                } else {
+                    jsonReader.skipValue();
                 }
-                // Utilise la liste pour créer l'objet MusicDataFile
-                musicDataFile = new MusicDataFile(listSample);
-            } else {
-                throw new JSONException("Le fichier MusicDataFile n'est pas valide !");
             }
+            jsonReader.endObject();
         } catch (Exception ex) {
             throw new TechnicalException("Impossible de parser le fichier en JSON Object !");
         }
-        return musicDataFile;
+        if (listSample == null) {
+            throw new TechnicalException("Le fichier MusicDataFile ne comporte pas de samples !");
+        }
+        return listSample;
+    }
+
+    /**
+     * Lit un sample JSON
+     *
+     * @param jsonReader JsonReader (positionné sur l'objet du sample)
+     * @return Sample
+     * @throws IOException IOException (format ou champ invalide)
+     */
+    private static Sample readJsonSample(JsonReader jsonReader) throws IOException {
+        Integer index = null;
+        String name = null;
+        String filename = null;
+        String uriStr = null;
+        long startOffsetUs = 0;
+        boolean loop = false;
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            switch (jsonReader.nextName()) {
+                case "index":
+                    index = jsonReader.nextInt();
+                    break;
+                case "name":
+                    name = jsonReader.nextString();
+                    break;
+                case "filename":
+                    filename = jsonReader.nextString();
+                    break;
+                case "uri":
+                    uriStr = jsonReader.nextString();
+                    break;
+                // Décalage de départ et lecture en boucle (absents des anciens fichiers)
+                case "startOffsetUs":
+                    startOffsetUs = Math.max(0, jsonReader.nextLong());
+                    break;
+                case "loop":
+                    loop = jsonReader.nextBoolean();
+                    break;
+                default:
+                    jsonReader.skipValue();
+                    break;
+            }
+        }
+        jsonReader.endObject();
+        if (index == null) {
+            throw new IOException("L'index d'un sample est absent !");
+        }
+        if (isEmpty(name)) {
+            throw new IOException("Le nom du sample " + index + " est vide !");
+        }
+        if (isEmpty(filename)) {
+            throw new IOException("Le nom du fichier du sample " + index + " est vide !");
+        }
+        if (isEmpty(uriStr)) {
+            throw new IOException("L'Uri du sample " + index + " est vide !");
+        }
+        // Reforme l'Uri
+        Uri uri = Uri.parse(uriStr);
+        if (uri == null) {
+            throw new IOException("L'Uri du sample " + index + " est invalide !");
+        }
+        return new Sample(index, name, filename, uri, startOffsetUs, loop);
+    }
+
+    /**
+     * Test si une valeur JSON est vide
+     *
+     * @param value String
+     * @return boolean
+     */
+    private static boolean isEmpty(String value) {
+        return value == null || value.trim().isEmpty() || value.trim().equals("null");
     }
 
 }
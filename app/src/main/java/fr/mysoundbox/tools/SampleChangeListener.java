@@ -0,0 +1,24 @@
+package fr.mysoundbox.tools;
+
+import fr.mysoundbox.bean.Sample;
+
+/**
+ * Interface de notification du changement du sample d'un pad (appelée sur le thread de la modification, le thread UI)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public interface SampleChangeListener {
+
+    /**
+     * Lors du changement du sample d'un pad d'une banque
+     *
+     * @param bank      int
+     * @param pad       int (0 à 11)
+     * @param oldSample Sample
+     * @param newSample Sample
+     */
+    void onSampleChanged(int bank, int pad, Sample oldSample, Sample newSample);
+
+}
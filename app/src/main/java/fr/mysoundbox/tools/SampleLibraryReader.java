@@ -0,0 +1,160 @@
+package fr.mysoundbox.tools;
+
+import android.util.SparseArray;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import fr.mysoundbox.bean.Sample;
+
+/**
+ * Lecteur paresseux d'une bibliothèque de samples au format binaire (MusicDataCodec, version avec table des positions)
+ * L'ouverture ne lit que l'en-tête : chaque sample est lu à la demande par son rang (lecture positionnelle du FileChannel) puis conservé
+ * Le coût d'ouverture est donc constant, et celui des lectures proportionnel au nombre de samples affichés, quelle que soit la taille du fichier
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class SampleLibraryReader implements Closeable {
+
+    /**
+     * Attributs
+     */
+    private final FileInputStream input;
+    private final FileChannel channel;
+    private final int count;
+    private final long fileSize;
+    private final ByteBuffer tableBuffer = ByteBuffer.allocate(MusicDataCodec.TABLE_ENTRY_SIZE * 2);
+    private final SparseArray<Sample> samples = new SparseArray<>();
+
+    /**
+     * Ouvre le fichier et lit son en-tête
+     *
+     * @param file File
+     * @throws IOException IOException (fichier absent, invalide ou sans table des positions)
+     */
+    public SampleLibraryReader(File file) throws IOException {
+        this.input = new FileInputStream(file);
+        this.channel = input.getChannel();
+        try {
+            this.fileSize = channel.size();
+            ByteBuffer header = readAt(0, MusicDataCodec.HEADER_SIZE);
+            if (header.getInt() != MusicDataCodec.MAGIC) {
+                throw new IOException("Fichier MusicDataFile binaire invalide");
+            }
+            int version = header.getInt();
+            if (version != MusicDataCodec.VERSION) {
+                throw new IOException("Version du fichier MusicDataFile sans table des positions : " + version);
+            }
+            this.count = header.getInt();
+            if (count < 0 || MusicDataCodec.HEADER_SIZE + (long) MusicDataCodec.TABLE_ENTRY_SIZE * count > fileSize) {
+                throw new IOException("Nombre de samples invalide : " + count);
+            }
+        } catch (IOException ioex) {
+            input.close();
+            throw ioex;
+        }
+    }
+
+    /**
+     * Récupère un sample par son rang dans le fichier (lu au premier accès)
+     *
+     * @param position int (0 à getCount() - 1)
+     * @return Sample
+     * @throws IOException IOException
+     */
+    public synchronized Sample get(int position) throws IOException {
+        if (position < 0 || position >= count) {
+            throw new IOException("Rang de sample invalide : " + position);
+        }
+        Sample sample = samples.get(position);
+        if (sample == null) {
+            sample = readSample(position);
+            samples.put(position, sample);
+        }
+        return sample;
+    }
+
+    /**
+     * Lit un sample : sa position et celle du suivant dans la table, puis ses octets
+     *
+     * @param position int
+     * @return Sample
+     * @throws IOException IOException
+     */
+    private Sample readSample(int position) throws IOException {
+        long entry = MusicDataCodec.HEADER_SIZE + (long) MusicDataCodec.TABLE_ENTRY_SIZE * position;
+        boolean last = position == count - 1;
+        tableBuffer.clear();
+        tableBuffer.limit(last ? MusicDataCodec.TABLE_ENTRY_SIZE : MusicDataCodec.TABLE_ENTRY_SIZE * 2);
+        readFully(tableBuffer, entry);
+        tableBuffer.flip();
+        long start = tableBuffer.getLong();
+        long end = last ? fileSize : tableBuffer.getLong();
+        if (start < entry || end < start || end > fileSize || end - start > Integer.MAX_VALUE) {
+            throw new IOException("Position du sample " + position + " invalide");
+        }
+        ByteBuffer record = readAt(start, (int) (end - start));
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.array(), 0, record.limit()))) {
+            return MusicDataCodec.readSample(in);
+        }
+    }
+
+    /**
+     * Lit length octets à une position du fichier
+     *
+     * @param position long
+     * @param length   int
+     * @return ByteBuffer (prêt à être lu)
+     * @throws IOException IOException
+     */
+    private ByteBuffer readAt(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(buffer, position);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Remplit le buffer depuis une position du fichier (erreur si la fin du fichier est atteinte avant)
+     *
+     * @param buffer   ByteBuffer
+     * @param position long
+     * @throws IOException IOException
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new IOException("Fin du fichier MusicDataFile inattendue");
+            }
+            current += read;
+        }
+    }
+
+    /**
+     * Ferme le fichier
+     *
+     * @throws IOException IOException
+     */
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public int getCount() {
+        return count;
+    }
+
+}
@@ -0,0 +1,303 @@
+package fr.mysoundbox.tools;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.SparseArray;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import fr.mysoundbox.bean.MusicDataFile;
+import fr.mysoundbox.bean.Sample;
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Dépôt des samples partagé par toutes les activités (une instance par application, voir MySoundBoxApplication)
+ * Les samples de l'utilisateur sont rangés en banques de 12 pads : chaque banque n'est lue qu'au premier accès (SampleLibraryReader) puis servie depuis la mémoire, sous forme de liste non modifiable
+ * Les samples par défaut sont la table DefaultSamples (une banque), ils servent aussi de contenu initial aux nouvelles banques
+ * Le fichier de l'utilisateur n'est relu que si sa date de modification ou sa taille ont changé hors de ce dépôt
+ * Les modifications remplacent immédiatement la banque en mémoire, leur écriture est différée (MusicDataPersister)
+ * Chaque pad modifié (par une activité ou par une relecture du fichier) est notifié aux SampleChangeListener abonnés
+ * La banque courante est enregistrée dans les réglages (SettingsTools) à chaque changement et relue au démarrage
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class SampleRepository {
+
+    /**
+     * Attributs
+     */
+    private final Context context;
+    private final File file;
+    private final MusicDataPersister persister;
+    private final List<SampleChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final SparseArray<List<Sample>> banks = new SparseArray<>();
+    private int bankCount = 0;
+    private int currentBank = 0;
+    private long loadedModified = -1;
+    private long loadedLength = -1;
+
+    /**
+     * Constructeur
+     *
+     * @param context Context
+     */
+    public SampleRepository(Context context) {
+        this.context = context.getApplicationContext();
+        this.file = MusicDataTools.getFile(this.context);
+        this.persister = new MusicDataPersister(this.context, this::onWritten);
+        this.currentBank = SettingsTools.getCurrentBank(this.context);
+    }
+
+    /**
+     * Récupère les samples par défaut (table DefaultSamples, sans lecture de fichier)
+     *
+     * @return List<Sample> (non modifiable)
+     */
+    public List<Sample> getDefaultSamples() {
+        return DefaultSamples.getSamples();
+    }
+
+    /**
+     * Récupère le nombre de banques de l'utilisateur
+     *
+     * @return int
+     * @throws TechnicalException TechnicalException
+     */
+    public synchronized int getBankCount() throws TechnicalException {
+        ensureLoaded();
+        return bankCount;
+    }
+
+    /**
+     * Récupère les samples d'une banque de l'utilisateur (lus au premier accès, relus si le fichier a été modifié par ailleurs)
+     *
+     * @param bank int (0 à getBankCount() - 1)
+     * @return List<Sample> (non modifiable, 12 samples)
+     * @throws TechnicalException TechnicalException
+     */
+    public synchronized List<Sample> getBank(int bank) throws TechnicalException {
+        ensureLoaded();
+        checkBank(bank);
+        List<Sample> listSample = banks.get(bank);
+        if (listSample == null) {
+            listSample = readBank(bank);
+            banks.put(bank, listSample);
+        }
+        return listSample;
+    }
+
+    /**
+     * Remplace les samples d'une banque de l'utilisateur (écriture différée du fichier)
+     *
+     * @param bank       int
+     * @param listSample List<Sample> (12 samples)
+     * @throws TechnicalException TechnicalException (banque ou liste invalide)
+     */
+    public synchronized void setBank(int bank, List<Sample> listSample) throws TechnicalException {
+        ensureLoaded();
+        checkBank(bank);
+        if (listSample.size() != MusicDataFile.BANK_SIZE) {
+            throw new TechnicalException("La banque " + bank + " ne comporte pas 12 samples !");
+        }
+        List<Sample> snapshot = Collections.unmodifiableList(new ArrayList<>(listSample));
+        List<Sample> oldSamples = getBank(bank);
+        banks.put(bank, snapshot);
+        persister.schedule(getBankSnapshot());
+        notifyChanges(bank, oldSamples, snapshot);
+    }
+
+    /**
+     * Ajoute une banque initialisée avec les samples par défaut (écriture différée du fichier)
+     *
+     * @return int index de la nouvelle banque
+     * @throws TechnicalException TechnicalException
+     */
+    public synchronized int addBank() throws TechnicalException {
+        ensureLoaded();
+        banks.put(bankCount, getDefaultSamples());
+        bankCount++;
+        persister.schedule(getBankSnapshot());
+        Log.e("INFO", "Banque " + bankCount + " ajoutée");
+        return bankCount - 1;
+    }
+
+    /**
+     * Ecris immédiatement les samples en attente d'enregistrement
+     * Non synchronisé : l'écriture prévient le dépôt (onWritten) depuis le thread qui la détient
+     *
+     * @throws TechnicalException TechnicalException
+     */
+    public void flush() throws TechnicalException {
+        persister.flush();
+    }
+
+    /**
+     * Abonne un listener aux changements des samples
+     *
+     * @param listener SampleChangeListener
+     */
+    public void addListener(SampleChangeListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Désabonne un listener des changements des samples
+     *
+     * @param listener SampleChangeListener
+     */
+    public void removeListener(SampleChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Charge l'en-tête du fichier si besoin (premier accès ou fichier modifié par ailleurs)
+     * Les banques déjà lues sont relues et leurs changements notifiés ; si le fichier est absent ou illisible, il est initialisé avec les samples par défaut
+     *
+     * @throws TechnicalException TechnicalException
+     */
+    private void ensureLoaded() throws TechnicalException {
+        if (bankCount > 0 && (persister.hasPending() || !isFileChanged())) {
+            return;
+        }
+        SparseArray<List<Sample>> oldBanks = banks.clone();
+        banks.clear();
+        try (SampleLibraryReader reader = MusicDataTools.openFile(context)) {
+            int count = reader.getCount();
+            if (count == 0 || count % MusicDataFile.BANK_SIZE != 0) {
+                throw new TechnicalException("Le fichier MusicDataFile ne comporte pas de banques de 12 samples !");
+            }
+            bankCount = count / MusicDataFile.BANK_SIZE;
+        } catch (TechnicalException | IOException ex) {
+            // Initialise le fichier avec les samples par défaut
+            MusicDataTools.writeFile(context, new MusicDataFile(new ArrayList<>(getDefaultSamples())));
+            bankCount = 1;
+            banks.put(0, getDefaultSamples());
+        }
+        recordFileState();
+        currentBank = Math.min(currentBank, bankCount - 1);
+        Log.e("INFO", "Samples de l'utilisateur chargés : " + bankCount + " banque(s)");
+        // Relit les banques déjà servies et notifie leurs changements
+        for (int i = 0; i < oldBanks.size(); i++) {
+            int bank = oldBanks.keyAt(i);
+            if (bank < bankCount) {
+                notifyChanges(bank, oldBanks.valueAt(i), getBank(bank));
+            }
+        }
+    }
+
+    /**
+     * Lit les samples d'une banque dans le fichier (sans lire les autres banques)
+     *
+     * @param bank int
+     * @return List<Sample> (non modifiable)
+     * @throws TechnicalException TechnicalException
+     */
+    private List<Sample> readBank(int bank) throws TechnicalException {
+        List<Sample> listSample = new ArrayList<>(MusicDataFile.BANK_SIZE);
+        try (SampleLibraryReader reader = MusicDataTools.openFile(context)) {
+            for (int pad = 0; pad < MusicDataFile.BANK_SIZE; pad++) {
+                listSample.add(reader.get(bank * MusicDataFile.BANK_SIZE + pad));
+            }
+        } catch (IOException ioex) {
+            throw new TechnicalException("Impossible de lire la banque " + bank + " du fichier MusicDataFile !");
+        }
+        return Collections.unmodifiableList(listSample);
+    }
+
+    /**
+     * Récupère l'état en mémoire de toutes les banques, dans l'ordre, sans lire le fichier
+     * Une banque jamais lue est null : elle est inchangée, le persister la recopie depuis le fichier au moment de l'écriture
+     *
+     * @return List<List<Sample>>
+     */
+    private List<List<Sample>> getBankSnapshot() {
+        List<List<Sample>> listBank = new ArrayList<>(bankCount);
+        for (int bank = 0; bank < bankCount; bank++) {
+            listBank.add(banks.get(bank));
+        }
+        return listBank;
+    }
+
+    /**
+     * Vérifie l'index d'une banque
+     *
+     * @param bank int
+     * @throws TechnicalException TechnicalException
+     */
+    private void checkBank(int bank) throws TechnicalException {
+        if (bank < 0 || bank >= bankCount) {
+            throw new TechnicalException("Banque inexistante : " + bank);
+        }
+    }
+
+    /**
+     * Notifie les listeners de chaque pad d'une banque dont le sample a changé
+     *
+     * @param bank       int
+     * @param oldSamples List<Sample>
+     * @param newSamples List<Sample>
+     */
+    private void notifyChanges(int bank, List<Sample> oldSamples, List<Sample> newSamples) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        int count = Math.min(oldSamples.size(), newSamples.size());
+        for (int pad = 0; pad < count; pad++) {
+            Sample oldSample = oldSamples.get(pad);
+            Sample newSample = newSamples.get(pad);
+            if (!newSample.equals(oldSample)) {
+                for (SampleChangeListener listener : listeners) {
+                    listener.onSampleChanged(bank, pad, oldSample, newSample);
+                }
+            }
+        }
+    }
+
+    /**
+     * Après une écriture du dépôt : le fichier correspond aux banques en mémoire
+     */
+    private synchronized void onWritten() {
+        recordFileState();
+    }
+
+    /**
+     * Mémorise la date de modification et la taille du fichier
+     */
+    private void recordFileState() {
+        loadedModified = file.lastModified();
+        loadedLength = file.length();
+    }
+
+    /**
+     * Test si le fichier a été modifié depuis sa dernière lecture ou écriture par ce dépôt
+     *
+     * @return boolean
+     */
+    private boolean isFileChanged() {
+        return file.lastModified() != loadedModified || file.length() != loadedLength;
+    }
+
+    /**
+     * Getter / Setter
+     */
+    public synchronized int getCurrentBank() throws TechnicalException {
+        // Ramène la banque enregistrée dans les banques existantes
+        ensureLoaded();
+        return currentBank;
+    }
+
+    public synchronized void setCurrentBank(int currentBank) {
+        this.currentBank = currentBank;
+        SettingsTools.setCurrentBank(context, currentBank);
+    }
+
+}
@@ -0,0 +1,102 @@
+package fr.mysoundbox.tools;
+
+import android.content.Context;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+
+import fr.mysoundbox.bean.SequencerPattern;
+import fr.mysoundbox.exception.TechnicalException;
+
+/**
+ * Classe en charge d'écrire et de lire le motif du séquenceur dans un fichier (dans les datas privées, à côté du fichier MusicDataFile)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class SequencerDataTools {
+
+    /**
+     * Attributs
+     */
+    private static final String filename = "sequencer.data";
+    private static final String CHARSET = "UTF-8";
+    private static final int BUFFER_SIZE = 2048;
+
+    /**
+     * Ecris le motif du séquenceur dans le fichier 'filename', dans la mémoire privée de l'application
+     *
+     * @param context Context
+     * @param pattern SequencerPattern
+     * @throws TechnicalException TechnicalException
+     */
+    public static void writeFile(Context context, SequencerPattern pattern) throws TechnicalException {
+        JSONObject jsonPattern = pattern.toJSONObject();
+        if (jsonPattern == null) {
+            throw new TechnicalException("Impossible de convertir le motif du séquenceur en JSON !");
+        }
+        try (FileOutputStream fout = context.openFileOutput(filename, Context.MODE_PRIVATE);
+             OutputStreamWriter writer = new OutputStreamWriter(fout, CHARSET)) {
+            writer.write(jsonPattern.toString());
+            writer.flush();
+            Log.e("INFO", "Motif du séquenceur enregistré");
+        } catch (IOException ioex) {
+            throw new TechnicalException("Impossible d'écrire le fichier du séquenceur !");
+        }
+    }
+
+    /**
+     * Lit le motif du séquenceur du fichier 'filename' dans la mémoire privée de l'application
+     *
+     * @param context Context
+     * @return SequencerPattern
+     * @throws TechnicalException TechnicalException
+     */
+    public static SequencerPattern readFile(Context context) throws TechnicalException {
+        StringBuilder sb = new StringBuilder();
+        try (FileInputStream fin = context.openFileInput(filename);
+             InputStreamReader reader = new InputStreamReader(fin, CHARSET)) {
+            char[] buffer = new char[BUFFER_SIZE];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, read);
+            }
+        } catch (IOException ioex) {
+            throw new TechnicalException("Impossible de récupérer le fichier du séquenceur ! (inexistant ?)");
+        }
+        return getPatternFromString(sb.toString());
+    }
+
+    /**
+     * Parse un string brut en JSON puis objet SequencerPattern
+     *
+     * @param rawData String
+     * @return SequencerPattern
+     * @throws TechnicalException TechnicalException
+     */
+    private static SequencerPattern getPatternFromString(String rawData) throws TechnicalException {
+        try {
+            JSONObject jsonPattern = new JSONObject(rawData.trim());
+            int tempo = jsonPattern.getInt("tempo");
+            int length = jsonPattern.getInt("length");
+            JSONArray jsonSteps = jsonPattern.getJSONArray("steps");
+            int[] steps = new int[SequencerPattern.MAX_STEPS];
+            for (int i = 0; i < Math.min(jsonSteps.length(), steps.length); i++) {
+                steps[i] = jsonSteps.getInt(i);
+            }
+            Log.e("INFO", "Motif du séquenceur récupéré");
+            return new SequencerPattern(tempo, length, steps);
+        } catch (Exception ex) {
+            throw new TechnicalException("Impossible de parser le fichier du séquenceur en JSON Object !");
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package fr.mysoundbox.tools;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import fr.mysoundbox.audio.AudioSession;
+import fr.mysoundbox.audio.PlaybackMode;
+import fr.mysoundbox.audio.Resampler;
+
+/**
+ * Classe en charge de lire et d'écrire les réglages de l'application (préférences privées) : réglages de lecture et banque courante
+ * Les écritures sont asynchrones : elles peuvent être faites depuis le thread UI
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class SettingsTools {
+
+    /**
+     * Attributs
+     */
+    private static final String PREFERENCES_NAME = "settings";
+    private static final String KEY_PLAYBACK_MODE = "playback_mode";
+    private static final String KEY_RESAMPLE_QUALITY = "resample_quality";
+    private static final String KEY_FADE_OUT_MS = "fade_out_ms";
+    private static final String KEY_CURRENT_BANK = "current_bank";
+
+    /**
+     * Lit le mode de lecture des pads (AUDIO_TRACK par défaut, ou si la valeur enregistrée est inconnue)
+     *
+     * @param context Context
+     * @return PlaybackMode
+     */
+    public static PlaybackMode getPlaybackMode(Context context) {
+        String value = getPreferences(context).getString(KEY_PLAYBACK_MODE, PlaybackMode.AUDIO_TRACK.name());
+        for (PlaybackMode mode : PlaybackMode.values()) {
+            if (mode.name().equals(value)) {
+                return mode;
+            }
+        }
+        return PlaybackMode.AUDIO_TRACK;
+    }
+
+    /**
+     * Enregistre le mode de lecture des pads
+     *
+     * @param context      Context
+     * @param playbackMode PlaybackMode
+     */
+    public static void setPlaybackMode(Context context, PlaybackMode playbackMode) {
+        getPreferences(context).edit().putString(KEY_PLAYBACK_MODE, playbackMode.name()).apply();
+    }
+
+    /**
+     * Lit la qualité de ré-échantillonnage des samples décodés (SINC par défaut, ou si la valeur enregistrée est inconnue)
+     *
+     * @param context Context
+     * @return Resampler.Quality
+     */
+    public static Resampler.Quality getResampleQuality(Context context) {
+        String value = getPreferences(context).getString(KEY_RESAMPLE_QUALITY, Resampler.Quality.SINC.name());
+        for (Resampler.Quality quality : Resampler.Quality.values()) {
+            if (quality.name().equals(value)) {
+                return quality;
+            }
+        }
+        return Resampler.Quality.SINC;
+    }
+
+    /**
+     * Enregistre la qualité de ré-échantillonnage des samples décodés
+     *
+     * @param context         Context
+     * @param resampleQuality Resampler.Quality
+     */
+    public static void setResampleQuality(Context context, Resampler.Quality resampleQuality) {
+        getPreferences(context).edit().putString(KEY_RESAMPLE_QUALITY, resampleQuality.name()).apply();
+    }
+
+    /**
+     * Lit la durée du fondu de sortie à l'arrêt d'un pad, en millisecondes (15 ms par défaut)
+     *
+     * @param context Context
+     * @return int
+     */
+    public static int getFadeOutMs(Context context) {
+        return Math.max(0, getPreferences(context).getInt(KEY_FADE_OUT_MS, AudioSession.DEFAULT_FADE_OUT_MS));
+    }
+
+    /**
+     * Enregistre la durée du fondu de sortie à l'arrêt d'un pad
+     *
+     * @param context   Context
+     * @param fadeOutMs int (0 : arrêt immédiat)
+     */
+    public static void setFadeOutMs(Context context, int fadeOutMs) {
+        getPreferences(context).edit().putInt(KEY_FADE_OUT_MS, Math.max(0, fadeOutMs)).apply();
+    }
+
+    /**
+     * Lit la banque de l'utilisateur sélectionnée en dernier (0 par défaut)
+     *
+     * @param context Context
+     * @return int
+     */
+    public static int getCurrentBank(Context context) {
+        return Math.max(0, getPreferences(context).getInt(KEY_CURRENT_BANK, 0));
+    }
+
+    /**
+     * Enregistre la banque de l'utilisateur sélectionnée
+     *
+     * @param context     Context
+     * @param currentBank int
+     */
+    public static void setCurrentBank(Context context, int currentBank) {
+        getPreferences(context).edit().putInt(KEY_CURRENT_BANK, currentBank).apply();
+    }
+
+    /**
+     * Récupère les préférences privées de l'application
+     *
+     * @param context Context
+     * @return SharedPreferences
+     */
+    private static SharedPreferences getPreferences(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+    }
+
+}
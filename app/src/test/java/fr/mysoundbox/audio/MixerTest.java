@@ -0,0 +1,207 @@
+package fr.mysoundbox.audio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * Tests du mixeur : rendu sans allocation, vol de voix et ordre des notifications de fin de lecture
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class MixerTest {
+
+    /**
+     * Attributs
+     */
+    private static final int SAMPLE_RATE = 48000;
+    private static final int BLOCK_FRAMES = 32;
+    private static final int PAD_COUNT = 12;
+
+    @Test
+    public void renderDoesNotAllocate() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(bean.isThreadAllocatedMemorySupported());
+        bean.setThreadAllocatedMemoryEnabled(true);
+
+        // Moins de voix que de pads (vol), fondu (fondu enchaîné au re-déclenchement), pads en boucle et à fréquence différente (interpolation)
+        Completions completions = new Completions(1 << 16);
+        Mixer mixer = new Mixer(PAD_COUNT, 4, BLOCK_FRAMES, SAMPLE_RATE, completions);
+        mixer.setFadeFrames(64);
+        for (int pad = 0; pad < PAD_COUNT; pad++) {
+            mixer.setSample(pad, constant(200 + pad * 97, pad % 3 == 0 ? 44100 : SAMPLE_RATE, 1000));
+            mixer.setLoop(pad, pad % 4 == 1);
+        }
+        short[] block = new short[BLOCK_FRAMES * DecodedSample.CHANNEL_COUNT];
+
+        // Préchauffe (compilation JIT) puis mesure
+        play(mixer, block, 20_000);
+        long threadId = Thread.currentThread().getId();
+        long calibrationStart = bean.getThreadAllocatedBytes(threadId);
+        long calibrationEnd = bean.getThreadAllocatedBytes(threadId);
+        long start = bean.getThreadAllocatedBytes(threadId);
+        play(mixer, block, 20_000);
+        long end = bean.getThreadAllocatedBytes(threadId);
+
+        assertEquals(0, (end - start) - (calibrationEnd - calibrationStart));
+    }
+
+    @Test
+    public void stealsOldestVoiceAndNotifiesItsPad() {
+        Completions completions = new Completions(16);
+        Mixer mixer = new Mixer(PAD_COUNT, 2, BLOCK_FRAMES, SAMPLE_RATE, completions);
+        for (int pad = 0; pad < 4; pad++) {
+            mixer.setSample(pad, constant(1000, SAMPLE_RATE, 10_000));
+        }
+        short[] block = new short[BLOCK_FRAMES * DecodedSample.CHANNEL_COUNT];
+        for (int pad = 0; pad < 4; pad++) {
+            mixer.trigger(pad);
+            mixer.render(block, 0, BLOCK_FRAMES);
+        }
+
+        // Les deux voix les plus anciennes (pads 0 puis 1) ont été volées, dans cet ordre
+        assertArrayEquals(new int[]{0, 1}, completions.pads());
+        // Les pads 2 et 3 jouent toujours
+        assertEquals(2000, block[0]);
+    }
+
+    @Test
+    public void crossfadedVoiceIsStolenLast() {
+        Completions completions = new Completions(16);
+        Mixer mixer = new Mixer(PAD_COUNT, 2, BLOCK_FRAMES, SAMPLE_RATE, completions);
+        mixer.setFadeFrames(BLOCK_FRAMES * 4);
+        mixer.setSample(0, constant(1000, SAMPLE_RATE, 10_000));
+        mixer.setSample(1, constant(1000, SAMPLE_RATE, 10_000));
+        short[] block = new short[BLOCK_FRAMES * DecodedSample.CHANNEL_COUNT];
+        mixer.trigger(1);
+        mixer.render(block, 0, BLOCK_FRAMES);
+        mixer.trigger(0);
+        mixer.render(block, 0, BLOCK_FRAMES);
+
+        // Re-déclenchement du pad 0 : son ancienne voix part en fondu enchaîné, la voix volée est celle du pad 1
+        mixer.trigger(0);
+        mixer.render(block, 0, BLOCK_FRAMES);
+
+        assertArrayEquals(new int[]{1}, completions.pads());
+        // Première frame : nouvelle voix pleine + ancienne voix au début de son fondu
+        assertEquals(2000, block[0]);
+    }
+
+    @Test
+    public void notifiesCompletionsInEndOrder() {
+        Completions completions = new Completions(16);
+        Mixer mixer = new Mixer(PAD_COUNT, 4, BLOCK_FRAMES, SAMPLE_RATE, completions);
+        mixer.setSample(0, constant(1000, SAMPLE_RATE, 100));
+        mixer.setSample(1, constant(1000, SAMPLE_RATE, 50));
+        mixer.setSample(2, constant(1000, SAMPLE_RATE, 200));
+        short[] block = new short[BLOCK_FRAMES * DecodedSample.CHANNEL_COUNT];
+        mixer.trigger(2);
+        mixer.trigger(0);
+        mixer.trigger(1);
+        for (int i = 0; i < 10; i++) {
+            mixer.render(block, 0, BLOCK_FRAMES);
+        }
+
+        assertArrayEquals(new int[]{1, 0, 2}, completions.pads());
+    }
+
+    @Test
+    public void stoppedVoicesAreNotNotified() {
+        Completions completions = new Completions(16);
+        Mixer mixer = new Mixer(PAD_COUNT, 4, BLOCK_FRAMES, SAMPLE_RATE, completions);
+        mixer.setSample(0, constant(1000, SAMPLE_RATE, 100));
+        short[] block = new short[BLOCK_FRAMES * DecodedSample.CHANNEL_COUNT];
+
+        // Arrêt immédiat
+        mixer.trigger(0);
+        mixer.render(block, 0, BLOCK_FRAMES);
+        mixer.stop(0);
+        mixer.render(block, 0, BLOCK_FRAMES);
+        assertEquals(0, block[0]);
+
+        // Arrêt avec fondu, terminé avant la fin du sample
+        mixer.setFadeFrames(8);
+        mixer.trigger(0);
+        mixer.render(block, 0, BLOCK_FRAMES);
+        mixer.stop(0);
+        for (int i = 0; i < 10; i++) {
+            mixer.render(block, 0, BLOCK_FRAMES);
+        }
+
+        assertEquals(0, completions.count);
+    }
+
+    /**
+     * Joue une séquence de déclenchements et d'arrêts répétée, un bloc rendu entre chaque commande
+     *
+     * @param mixer  Mixer
+     * @param block  short[]
+     * @param blocks int
+     */
+    private static void play(Mixer mixer, short[] block, int blocks) {
+        for (int i = 0; i < blocks; i++) {
+            int pad = (i * 7) % PAD_COUNT;
+            if (i % 5 == 4) {
+                mixer.stop(pad);
+            } else {
+                mixer.trigger(pad);
+            }
+            mixer.beginBlock();
+            // Bloc rendu en deux morceaux (démarrage à une frame précise du séquenceur)
+            mixer.render(block, 0, BLOCK_FRAMES / 2);
+            mixer.startScheduled((pad + 1) % PAD_COUNT);
+            mixer.render(block, BLOCK_FRAMES / 2, BLOCK_FRAMES / 2);
+        }
+    }
+
+    /**
+     * Construit un sample stéréo de valeur constante
+     *
+     * @param value      int
+     * @param sampleRate int
+     * @param frames     int
+     * @return DecodedSample
+     */
+    private static DecodedSample constant(int value, int sampleRate, int frames) {
+        short[] pcm = new short[frames * DecodedSample.CHANNEL_COUNT];
+        Arrays.fill(pcm, (short) value);
+        return new DecodedSample(ShortBuffer.wrap(pcm), frames, sampleRate);
+    }
+
+    /**
+     * Enregistre les pads notifiés dans l'ordre, dans un tableau pré-alloué (appelé sur le thread de rendu)
+     */
+    private static class Completions implements PlaybackListener {
+
+        private final int[] pads;
+        private int count = 0;
+
+        Completions(int capacity) {
+            pads = new int[capacity];
+        }
+
+        @Override
+        public void onPadCompleted(int pad) {
+            if (count < pads.length) {
+                pads[count] = pad;
+            }
+            count++;
+        }
+
+        int[] pads() {
+            return Arrays.copyOf(pads, Math.min(count, pads.length));
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package fr.mysoundbox.audio;
+
+import java.nio.ShortBuffer;
+import java.util.Locale;
+
+/**
+ * Comparaison du débit des qualités de ré-échantillonnage (frames produites par seconde), sur un signal synthétique
+ * Sans dépendance Android : exécutable sur une JVM (méthode main), dans le source set de test (non livré dans l'application)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class ResamplerBenchmark {
+
+    /**
+     * Attributs
+     */
+    private static final int SOURCE_SECONDS = 10;
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    /**
+     * Point d'entrée JVM : java fr.mysoundbox.audio.ResamplerBenchmark [fréquence source] [fréquence cible]
+     *
+     * @param args String[]
+     */
+    public static void main(String[] args) {
+        int sourceRate = args.length > 0 ? Integer.parseInt(args[0]) : 44100;
+        int targetRate = args.length > 1 ? Integer.parseInt(args[1]) : 48000;
+        System.out.println(run(sourceRate, targetRate));
+    }
+
+    /**
+     * Mesure chaque qualité de ré-échantillonnage
+     *
+     * @param sourceRate int
+     * @param targetRate int
+     * @return String rapport
+     */
+    public static String run(int sourceRate, int targetRate) {
+        DecodedSample source = buildSignal(sourceRate);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Ré-échantillonnage ").append(sourceRate).append(" -> ").append(targetRate).append(" Hz (").append(SOURCE_SECONDS).append(" s)\n");
+        for (Resampler.Quality quality : Resampler.Quality.values()) {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                Resampler.resample(source, targetRate, quality);
+            }
+            long best = Long.MAX_VALUE;
+            int frames = 0;
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                long start = System.nanoTime();
+                frames = Resampler.resample(source, targetRate, quality).frameCount();
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            double framesPerSecond = frames / (best / 1_000_000_000.0);
+            sb.append(String.format(Locale.FRANCE, "%s : %.1f ms, %.1f x temps réel\n", quality, best / 1_000_000.0, framesPerSecond / targetRate));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Construit un signal stéréo de test (balayage sinusoïdal)
+     *
+     * @param sampleRate int
+     * @return DecodedSample
+     */
+    private static DecodedSample buildSignal(int sampleRate) {
+        int frames = sampleRate * SOURCE_SECONDS;
+        short[] pcm = new short[frames * DecodedSample.CHANNEL_COUNT];
+        double phase = 0;
+        for (int f = 0; f < frames; f++) {
+            double frequency = 20 + (sampleRate / 2.0 - 20) * f / frames;
+            phase += 2 * Math.PI * frequency / sampleRate;
+            short value = (short) (Math.sin(phase) * 16000);
+            pcm[f * DecodedSample.CHANNEL_COUNT] = value;
+            pcm[f * DecodedSample.CHANNEL_COUNT + 1] = value;
+        }
+        return new DecodedSample(ShortBuffer.wrap(pcm), frames, sampleRate);
+    }
+
+}
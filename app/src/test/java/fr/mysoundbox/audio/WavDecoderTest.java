@@ -0,0 +1,235 @@
+package fr.mysoundbox.audio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tests du décodeur WAV pur Java (décodage d'un flux, sans dépendance Android)
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class WavDecoderTest {
+
+    /**
+     * Attributs
+     */
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_FLOAT = 3;
+    private static final int SAMPLE_RATE = 22050;
+
+    @Test
+    public void decodesPcm16Stereo() throws IOException {
+        byte[] data = le16(1000, -1000, 32767, -32768, 0, 12345);
+        Frames frames = decode(wav(FORMAT_PCM, 2, 16, data, data.length, null), Integer.MAX_VALUE);
+        assertArrayEquals(new short[]{1000, -1000, 32767, -32768, 0, 12345}, frames.pcm());
+    }
+
+    @Test
+    public void decodesPcm8MonoToStereo() throws IOException {
+        // 8 bits non signé : 128 est le zéro
+        byte[] data = {(byte) 0x80, (byte) 0xFF, 0x00};
+        Frames frames = decode(wav(FORMAT_PCM, 1, 8, data, data.length, null), Integer.MAX_VALUE);
+        assertArrayEquals(new short[]{0, 0, 32512, 32512, -32768, -32768}, frames.pcm());
+    }
+
+    @Test
+    public void decodesPcm24KeepingMostSignificantBits() throws IOException {
+        byte[] data = {0x56, 0x34, 0x12, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+        Frames frames = decode(wav(FORMAT_PCM, 2, 24, data, data.length, null), Integer.MAX_VALUE);
+        assertArrayEquals(new short[]{0x1234, -1}, frames.pcm());
+    }
+
+    @Test
+    public void decodesPcm32KeepingMostSignificantBits() throws IOException {
+        byte[] data = {0x78, 0x56, 0x34, 0x12, 0x00, 0x00, 0x00, (byte) 0x80};
+        Frames frames = decode(wav(FORMAT_PCM, 2, 32, data, data.length, null), Integer.MAX_VALUE);
+        assertArrayEquals(new short[]{0x1234, Short.MIN_VALUE}, frames.pcm());
+    }
+
+    @Test
+    public void decodesFloat32WithClipping() throws IOException {
+        byte[] data = le32(Float.floatToIntBits(0.5f), Float.floatToIntBits(-2f));
+        Frames frames = decode(wav(FORMAT_FLOAT, 2, 32, data, data.length, null), Integer.MAX_VALUE);
+        assertArrayEquals(new short[]{16383, Short.MIN_VALUE}, frames.pcm());
+    }
+
+    @Test
+    public void skipsOddSizedChunkWithPadding() throws IOException {
+        // Bloc 'LIST' de 3 octets suivi de l'octet d'alignement
+        byte[] list = {'a', 'b', 'c'};
+        byte[] data = le16(7, 8, 9, 10);
+        Frames frames = decode(wav(FORMAT_PCM, 2, 16, data, data.length, list), Integer.MAX_VALUE);
+        assertArrayEquals(new short[]{7, 8, 9, 10}, frames.pcm());
+    }
+
+    @Test
+    public void stopsAtEndOfTruncatedData() throws IOException {
+        // En-tête annonçant 100 frames, seules 2 frames et demie sont présentes
+        byte[] data = Arrays.copyOf(le16(1, 2, 3, 4, 5, 6), 10);
+        Frames frames = decode(wav(FORMAT_PCM, 2, 16, data, 400, null), Integer.MAX_VALUE);
+        assertArrayEquals(new short[]{1, 2, 3, 4}, frames.pcm());
+    }
+
+    @Test
+    public void readsUntilEndWhenDataSizeIsUnknown() throws IOException {
+        byte[] data = le16(1, 2, 3, 4);
+        Frames frames = decode(wav(FORMAT_PCM, 2, 16, data, 0xFFFFFFFFL, null), Integer.MAX_VALUE);
+        assertArrayEquals(new short[]{1, 2, 3, 4}, frames.pcm());
+    }
+
+    @Test
+    public void stopsAtMaxFrames() throws IOException {
+        byte[] data = le16(1, 2, 3, 4, 5, 6);
+        Frames frames = decode(wav(FORMAT_PCM, 2, 16, data, data.length, null), 2);
+        assertArrayEquals(new short[]{1, 2, 3, 4}, frames.pcm());
+    }
+
+    @Test
+    public void stopsWhenSinkIsCancelled() throws IOException {
+        // Plus d'un bloc de lecture (1024 frames) : le décodeur s'arrête après le premier
+        byte[] data = new byte[4 * 3000];
+        Frames frames = new Frames() {
+            @Override
+            public boolean isCancelled() {
+                return length > 0;
+            }
+        };
+        WavDecoder.decode(new ByteArrayInputStream(wav(FORMAT_PCM, 2, 16, data, data.length, null)), Integer.MAX_VALUE, frames);
+        assertEquals(1024 * 2, frames.length);
+    }
+
+    @Test
+    public void returnsSampleRate() throws IOException {
+        byte[] data = le16(0, 0);
+        Frames frames = new Frames();
+        assertEquals(SAMPLE_RATE, WavDecoder.decode(new ByteArrayInputStream(wav(FORMAT_PCM, 2, 16, data, data.length, null)), Integer.MAX_VALUE, frames));
+    }
+
+    @Test
+    public void detectsSupportedFormats() {
+        byte[] data = le16(0, 0);
+        assertTrue(WavDecoder.isSupported(new ByteArrayInputStream(wav(FORMAT_PCM, 2, 16, data, data.length, null))));
+        assertFalse(WavDecoder.isSupported(new ByteArrayInputStream("ID3 not a wave file".getBytes(StandardCharsets.US_ASCII))));
+        // ADPCM (format 2) non pris en charge
+        assertFalse(WavDecoder.isSupported(new ByteArrayInputStream(wav(2, 2, 16, data, data.length, null))));
+        // Résolution de 12 bits non prise en charge
+        assertFalse(WavDecoder.isSupported(new ByteArrayInputStream(wav(FORMAT_PCM, 2, 12, data, data.length, null))));
+    }
+
+    /**
+     * Décode un fichier WAV en mémoire
+     *
+     * @param wav       byte[]
+     * @param maxFrames int
+     * @return Frames
+     * @throws IOException IOException
+     */
+    private static Frames decode(byte[] wav, int maxFrames) throws IOException {
+        Frames frames = new Frames();
+        WavDecoder.decode(new ByteArrayInputStream(wav), maxFrames, frames);
+        return frames;
+    }
+
+    /**
+     * Construit un fichier WAV
+     *
+     * @param format        int
+     * @param channels      int
+     * @param bitsPerSample int
+     * @param data          byte[] (contenu du bloc 'data')
+     * @param dataSize      long (taille annoncée du bloc 'data')
+     * @param list          byte[] (contenu d'un bloc 'LIST' placé avant 'data', ou null)
+     * @return byte[]
+     */
+    private static byte[] wav(int format, int channels, int bitsPerSample, byte[] data, long dataSize, byte[] list) {
+        int blockAlign = channels * bitsPerSample / 8;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes("RIFF".getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(le32(0));
+        out.writeBytes("WAVE".getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes("fmt ".getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(le32(16));
+        out.writeBytes(le16(format, channels));
+        out.writeBytes(le32(SAMPLE_RATE, SAMPLE_RATE * blockAlign));
+        out.writeBytes(le16(blockAlign, bitsPerSample));
+        if (list != null) {
+            out.writeBytes("LIST".getBytes(StandardCharsets.US_ASCII));
+            out.writeBytes(le32(list.length));
+            out.writeBytes(list);
+            if ((list.length & 1) != 0) {
+                out.write(0);
+            }
+        }
+        out.writeBytes("data".getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(le32((int) dataSize));
+        out.writeBytes(data);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encode des entiers 16 bits little endian
+     *
+     * @param values int...
+     * @return byte[]
+     */
+    private static byte[] le16(int... values) {
+        byte[] bytes = new byte[values.length * 2];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i * 2] = (byte) values[i];
+            bytes[i * 2 + 1] = (byte) (values[i] >> 8);
+        }
+        return bytes;
+    }
+
+    /**
+     * Encode des entiers 32 bits little endian
+     *
+     * @param values int...
+     * @return byte[]
+     */
+    private static byte[] le32(int... values) {
+        byte[] bytes = new byte[values.length * 4];
+        for (int i = 0; i < values.length; i++) {
+            for (int b = 0; b < 4; b++) {
+                bytes[i * 4 + b] = (byte) (values[i] >> (8 * b));
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Récepteur accumulant les frames décodées (stéréo entrelacé)
+     */
+    private static class Frames implements FrameSink {
+
+        short[] pcm = new short[64];
+        int length = 0;
+
+        @Override
+        public void onFrame(short left, short right) {
+            if (length + 2 > pcm.length) {
+                pcm = Arrays.copyOf(pcm, pcm.length * 2);
+            }
+            pcm[length++] = left;
+            pcm[length++] = right;
+        }
+
+        short[] pcm() {
+            return Arrays.copyOf(pcm, length);
+        }
+
+    }
+
+}
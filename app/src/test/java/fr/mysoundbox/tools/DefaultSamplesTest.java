@@ -0,0 +1,78 @@
+package fr.mysoundbox.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import fr.mysoundbox.bean.MusicDataFile;
+
+/**
+ * Tests de la table des samples par défaut : une banque complète, chaque pad pointant sur un fichier distinct de 'res/raw'
+ * <p>
+ * Author: Jonathan B.
+ * Created: 18/10/2026
+ * Last Updated: 18/10/2026
+ */
+public class DefaultSamplesTest {
+
+    /**
+     * Attributs
+     */
+    // Dossier des ressources, relatif au module (répertoire de travail des tests Gradle) ou à la racine du projet
+    private static final String RAW_DIR = "src/main/res/raw";
+    private static final String MODULE_DIR = "app";
+
+    @Test
+    public void fillsExactlyOneBank() {
+        assertEquals(MusicDataFile.BANK_SIZE, DefaultSamples.ENTRIES.length);
+        for (String[] entry : DefaultSamples.ENTRIES) {
+            assertEquals(2, entry.length);
+            assertFalse("Titre vide : " + entry[0], entry[1].trim().isEmpty());
+        }
+    }
+
+    @Test
+    public void everyEntryMatchesARawResource() {
+        File rawDir = getRawDir();
+        for (String[] entry : DefaultSamples.ENTRIES) {
+            String resource = entry[0];
+            // Nom de ressource Android valide (sinon absent de R.raw)
+            assertTrue("Nom de ressource invalide : " + resource, resource.matches("[a-z][a-z0-9_]*"));
+            assertTrue("Ressource absente de res/raw : " + resource, new File(rawDir, resource + DefaultSamples.EXTENSION).isFile());
+        }
+    }
+
+    @Test
+    public void everyRawResourceIsUsedOnce() {
+        Set<String> resources = new HashSet<>();
+        for (String[] entry : DefaultSamples.ENTRIES) {
+            assertTrue("Ressource utilisée deux fois : " + entry[0], resources.add(entry[0] + DefaultSamples.EXTENSION));
+        }
+        String[] files = getRawDir().list();
+        assertNotNull(files);
+        assertEquals(resources, new HashSet<>(Arrays.asList(files)));
+    }
+
+    /**
+     * Récupère le dossier 'res/raw' du module
+     *
+     * @return File
+     */
+    private static File getRawDir() {
+        File rawDir = new File(RAW_DIR);
+        if (!rawDir.isDirectory()) {
+            rawDir = new File(MODULE_DIR, RAW_DIR);
+        }
+        assertTrue("Dossier res/raw introuvable", rawDir.isDirectory());
+        return rawDir;
+    }
+
+}